@@ -1,13 +1,19 @@
 package cn.gzus.lyf.common.config;
 
+import cn.gzus.lyf.common.dto.UserDto;
+import cn.gzus.lyf.common.enums.UserStatusEnum;
+import cn.gzus.lyf.service.auth.TokenRevocationService;
 import cn.gzus.lyf.service.auth.UserService;
 import cn.gzus.lyf.common.util.JwtUtil;
 
 import cn.gzus.lyf.common.constant.JwtConstants;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -19,6 +25,7 @@ import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.Collections;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -27,6 +34,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private JwtUtil jwtUtil;
     private UserService userService;
+    private TokenRevocationService tokenRevocationService;
+
+    /**
+     * 无状态模式：直接使用Token中的用户信息构建登录用户，不再逐请求查询用户表
+     */
+    @Value("${jwt.stateless:false}")
+    private boolean stateless;
 
     @Autowired
     public void setJwtUtil(JwtUtil jwtUtil) {
@@ -38,34 +52,63 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         this.userService = userService;
     }
 
+    @Autowired
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         // 1. 获取Token
         String authHeader = request.getHeader(JwtConstants.TOKEN_HEADER);
         String token = null;
-        String username = null;
+        Claims claims = null;
         if (authHeader != null && authHeader.startsWith(JwtConstants.TOKEN_PREFIX)) {
             token = authHeader.replace(JwtConstants.TOKEN_PREFIX, "");
             try {
-                username = jwtUtil.extractUsername(token);
+                claims = jwtUtil.extractAllClaims(token);
             } catch (Exception e) {
                 log.error("Token解析失败：{}", e.getMessage());
             }
         }
 
         // 2. 验证Token并设置认证信息
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+        if (claims != null && claims.getSubject() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String userId = claims.get("id", String.class);
+            if (tokenRevocationService.isRevoked(userId, claims.getIssuedAt())) {
+                log.debug("Token已被吊销：{}", claims.getSubject());
+            } else {
+                UserDetails userDetails = stateless ? buildUserFromClaims(claims) : userService.loadUserByUsername(claims.getSubject());
+                if (jwtUtil.validateToken(token, userDetails)) {
+                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                            userDetails, null, userDetails.getAuthorities()
+                    );
+                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                }
             }
         }
 
         // 3. 继续过滤链
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * 根据已验签的Token信息构建登录用户（与 UserService.loadUserByUsername 构建的用户信息一致）
+     * @param claims Token信息
+     * @return 登录用户
+     */
+    private UserDetails buildUserFromClaims(Claims claims) {
+        String roleId = claims.get("roleId", String.class);
+        return new UserDto.Builder(claims.getSubject(), "")
+                .id(claims.get("id", String.class))
+                .username(claims.getSubject())
+                .displayName(claims.get("displayName", String.class))
+                .roleId(roleId)
+                .status(UserStatusEnum.ACTIVE.getCode())
+                .authorities(roleId != null
+                        ? Collections.singletonList(new SimpleGrantedAuthority(roleId))
+                        : Collections.emptyList())
+                .build();
+    }
+}
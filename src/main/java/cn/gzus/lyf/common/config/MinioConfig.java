@@ -1,5 +1,6 @@
 package cn.gzus.lyf.common.config;
 
+import io.minio.MinioAsyncClient;
 import io.minio.MinioClient;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -22,6 +23,14 @@ public class MinioConfig {
                 .build();
     }
 
+    @Bean
+    public MinioMultipartClient minioMultipartClient() {
+        return new MinioMultipartClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+    }
+
     public String getEndpoint() {
         return endpoint;
     }
@@ -0,0 +1,110 @@
+package cn.gzus.lyf.common.config;
+
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import io.minio.ListPartsResponse;
+import io.minio.MinioAsyncClient;
+import io.minio.messages.Part;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * MinIO 分片上传客户端
+ * MinioClient 只在 putObject 内部使用分片上传，这里公开创建、上传分片、列出分片、合并、取消等操作，
+ * 供断点续传的上传会话使用
+ */
+public class MinioMultipartClient extends MinioAsyncClient {
+
+    /**
+     * 每次列出的最大分片数
+     */
+    private static final int LIST_PARTS_PAGE_SIZE = 1000;
+
+    public MinioMultipartClient(MinioAsyncClient client) {
+        super(client);
+    }
+
+    /**
+     * 创建分片上传
+     * @return 上传ID
+     */
+    public String createMultipartUpload(String bucketName, String objectName, String contentType) throws Exception {
+        Multimap<String, String> headers = HashMultimap.create();
+        if (contentType != null && !contentType.isEmpty()) {
+            headers.put("Content-Type", contentType);
+        }
+        return await(createMultipartUploadAsync(bucketName, null, objectName, headers, null)).result().uploadId();
+    }
+
+    /**
+     * 上传分片（同一序号重复上传时覆盖）
+     * @return 分片 ETag（不含引号）
+     */
+    public String uploadPart(String bucketName, String objectName, String uploadId, int partNumber,
+                             InputStream inputStream, long size) throws Exception {
+        return stripQuotes(await(uploadPartAsync(bucketName, null, objectName, inputStream, size, uploadId, partNumber,
+                null, null)).etag());
+    }
+
+    /**
+     * 列出已上传的分片（按序号排序）
+     */
+    public List<UploadPartDto> listParts(String bucketName, String objectName, String uploadId) throws Exception {
+        List<UploadPartDto> parts = new ArrayList<>();
+        Integer marker = null;
+        ListPartsResponse response;
+        do {
+            response = await(listPartsAsync(bucketName, null, objectName, LIST_PARTS_PAGE_SIZE, marker, uploadId,
+                    null, null));
+            for (Part part : response.result().partList()) {
+                parts.add(new UploadPartDto(part.partNumber(), part.partSize(), stripQuotes(part.etag())));
+            }
+            marker = response.result().nextPartNumberMarker();
+        } while (response.result().isTruncated());
+        return parts;
+    }
+
+    /**
+     * 合并分片
+     * @return 对象 ETag（不含引号）
+     */
+    public String completeMultipartUpload(String bucketName, String objectName, String uploadId,
+                                          List<UploadPartDto> parts) throws Exception {
+        Part[] completeParts = parts.stream()
+                .map(part -> new Part(part.getPartNumber(), part.getEtag()))
+                .toArray(Part[]::new);
+        return stripQuotes(await(completeMultipartUploadAsync(bucketName, null, objectName, uploadId, completeParts,
+                null, null)).etag());
+    }
+
+    /**
+     * 取消分片上传（删除已上传的分片）
+     */
+    public void abortMultipartUpload(String bucketName, String objectName, String uploadId) throws Exception {
+        await(abortMultipartUploadAsync(bucketName, null, objectName, uploadId, null, null));
+    }
+
+    /**
+     * 等待异步请求完成，并像 MinioClient 一样把 ExecutionException 还原为 MinIO 原始异常（如 ErrorResponseException）
+     */
+    private <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            throwEncapsulatedException(e);
+            throw e;
+        }
+    }
+
+    private String stripQuotes(String etag) {
+        return etag != null ? etag.replace("\"", "") : null;
+    }
+}
@@ -0,0 +1,147 @@
+package cn.gzus.lyf.common.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * 本地缓存统计DTO
+ */
+public class CacheStatsDto {
+
+    /**
+     * 缓存名称
+     */
+    private String cacheName;
+
+    /**
+     * 当前缓存条目数（估算值）
+     */
+    private long estimatedSize;
+
+    /**
+     * 命中次数
+     */
+    private long hitCount;
+
+    /**
+     * 未命中次数
+     */
+    private long missCount;
+
+    /**
+     * 命中率
+     */
+    private double hitRate;
+
+    /**
+     * 加载次数（成功 + 失败）
+     */
+    private long loadCount;
+
+    /**
+     * 平均加载耗时（毫秒）
+     */
+    private double averageLoadMillis;
+
+    /**
+     * 淘汰次数
+     */
+    private long evictionCount;
+
+    /**
+     * 每次请求平均节省的耗时（毫秒，估算值：命中率 × 平均加载耗时）
+     */
+    private double averageSavedMillis;
+
+    /**
+     * 根据 Caffeine 统计信息构建
+     * @param cacheName 缓存名称
+     * @param estimatedSize 当前缓存条目数
+     * @param stats Caffeine 统计信息
+     * @return 缓存统计DTO
+     */
+    public static CacheStatsDto of(String cacheName, long estimatedSize, CacheStats stats) {
+        CacheStatsDto dto = new CacheStatsDto();
+        dto.setCacheName(cacheName);
+        dto.setEstimatedSize(estimatedSize);
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setLoadCount(stats.loadCount());
+        dto.setAverageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0);
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setAverageSavedMillis(stats.hitRate() * dto.getAverageLoadMillis());
+        return dto;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    public void setEstimatedSize(long estimatedSize) {
+        this.estimatedSize = estimatedSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public long getLoadCount() {
+        return loadCount;
+    }
+
+    public void setLoadCount(long loadCount) {
+        this.loadCount = loadCount;
+    }
+
+    public double getAverageLoadMillis() {
+        return averageLoadMillis;
+    }
+
+    public void setAverageLoadMillis(double averageLoadMillis) {
+        this.averageLoadMillis = averageLoadMillis;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public double getAverageSavedMillis() {
+        return averageSavedMillis;
+    }
+
+    public void setAverageSavedMillis(double averageSavedMillis) {
+        this.averageSavedMillis = averageSavedMillis;
+    }
+}
@@ -0,0 +1,92 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 内容编码迁移结果DTO（单张表）
+ */
+public class ContentMigrationResultDto {
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 扫描行数
+     */
+    private long scannedRows;
+
+    /**
+     * 重写行数
+     */
+    private long rewrittenRows;
+
+    /**
+     * 迁移期间被修改而跳过的行数（已按新格式写入，无需迁移）
+     */
+    private long skippedRows;
+
+    /**
+     * 扫描内容的原存储字节数
+     */
+    private long bytesBefore;
+
+    /**
+     * 扫描内容迁移后的存储字节数
+     */
+    private long bytesAfter;
+
+    public ContentMigrationResultDto() {
+    }
+
+    public ContentMigrationResultDto(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public long getScannedRows() {
+        return scannedRows;
+    }
+
+    public void setScannedRows(long scannedRows) {
+        this.scannedRows = scannedRows;
+    }
+
+    public long getRewrittenRows() {
+        return rewrittenRows;
+    }
+
+    public void setRewrittenRows(long rewrittenRows) {
+        this.rewrittenRows = rewrittenRows;
+    }
+
+    public long getSkippedRows() {
+        return skippedRows;
+    }
+
+    public void setSkippedRows(long skippedRows) {
+        this.skippedRows = skippedRows;
+    }
+
+    public long getBytesBefore() {
+        return bytesBefore;
+    }
+
+    public void setBytesBefore(long bytesBefore) {
+        this.bytesBefore = bytesBefore;
+    }
+
+    public long getBytesAfter() {
+        return bytesAfter;
+    }
+
+    public void setBytesAfter(long bytesAfter) {
+        this.bytesAfter = bytesAfter;
+    }
+}
@@ -0,0 +1,98 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 课程统计数量偏差DTO（课程表记录的数量与关联表实际数量不一致）
+ */
+public class CourseCountDriftDto {
+
+    /**
+     * 课程ID
+     */
+    private String courseId;
+
+    /**
+     * 记录的管理者数量
+     */
+    private Integer adminCount;
+
+    /**
+     * 记录的学生数量
+     */
+    private Integer studentCount;
+
+    /**
+     * 记录的实验模板数量
+     */
+    private Integer templateCount;
+
+    /**
+     * 实际管理者数量
+     */
+    private Integer actualAdminCount;
+
+    /**
+     * 实际学生数量
+     */
+    private Integer actualStudentCount;
+
+    /**
+     * 实际实验模板数量
+     */
+    private Integer actualTemplateCount;
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public Integer getAdminCount() {
+        return adminCount;
+    }
+
+    public void setAdminCount(Integer adminCount) {
+        this.adminCount = adminCount;
+    }
+
+    public Integer getStudentCount() {
+        return studentCount;
+    }
+
+    public void setStudentCount(Integer studentCount) {
+        this.studentCount = studentCount;
+    }
+
+    public Integer getTemplateCount() {
+        return templateCount;
+    }
+
+    public void setTemplateCount(Integer templateCount) {
+        this.templateCount = templateCount;
+    }
+
+    public Integer getActualAdminCount() {
+        return actualAdminCount;
+    }
+
+    public void setActualAdminCount(Integer actualAdminCount) {
+        this.actualAdminCount = actualAdminCount;
+    }
+
+    public Integer getActualStudentCount() {
+        return actualStudentCount;
+    }
+
+    public void setActualStudentCount(Integer actualStudentCount) {
+        this.actualStudentCount = actualStudentCount;
+    }
+
+    public Integer getActualTemplateCount() {
+        return actualTemplateCount;
+    }
+
+    public void setActualTemplateCount(Integer actualTemplateCount) {
+        this.actualTemplateCount = actualTemplateCount;
+    }
+}
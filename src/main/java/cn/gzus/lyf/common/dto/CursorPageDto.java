@@ -0,0 +1,66 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.List;
+
+/**
+ * 游标（Keyset）分页结果
+ * 以上一页最后一条记录的排序键作为下一页的起点，翻页深度不影响查询开销
+ */
+public class CursorPageDto<T> {
+
+    private List<T> records;
+
+    /**
+     * 下一页游标，没有更多数据时为 null
+     */
+    private String nextCursor;
+
+    private boolean hasMore;
+
+    private long size;
+
+    /**
+     * 总记录数，仅在请求时统计，否则为 null
+     */
+    private Long total;
+
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public void setRecords(List<T> records) {
+        this.records = records;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+}
@@ -0,0 +1,87 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.Date;
+
+/**
+ * 文件元数据DTO（访问文件时使用，不查询对象存储）
+ */
+public class FileMetadataDto {
+
+    /**
+     * 文件对象名称
+     */
+    private String objectName;
+
+    /**
+     * 原始文件名
+     */
+    private String originalName;
+
+    /**
+     * 文件类型
+     */
+    private String contentType;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long size;
+
+    /**
+     * 对象存储返回的 ETag（不含引号）
+     */
+    private String etag;
+
+    /**
+     * 修改时间
+     */
+    private Date lastModified;
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    public void setOriginalName(String originalName) {
+        this.originalName = originalName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(Date lastModified) {
+        this.lastModified = lastModified;
+    }
+}
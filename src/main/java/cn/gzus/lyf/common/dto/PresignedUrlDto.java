@@ -0,0 +1,57 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.Date;
+
+/**
+ * 预签名访问地址DTO
+ */
+public class PresignedUrlDto {
+
+    /**
+     * 预签名地址（浏览器直接从对象存储读取文件）
+     */
+    private String url;
+
+    /**
+     * 地址失效时间
+     */
+    private Date expireTime;
+
+    /**
+     * 停止复用时间（早于失效时间，之后重新签发，保证交给客户端的地址仍有足够的有效期）
+     */
+    private Date renewTime;
+
+    public PresignedUrlDto() {
+    }
+
+    public PresignedUrlDto(String url, Date expireTime, Date renewTime) {
+        this.url = url;
+        this.expireTime = expireTime;
+        this.renewTime = renewTime;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Date getExpireTime() {
+        return expireTime;
+    }
+
+    public void setExpireTime(Date expireTime) {
+        this.expireTime = expireTime;
+    }
+
+    public Date getRenewTime() {
+        return renewTime;
+    }
+
+    public void setRenewTime(Date renewTime) {
+        this.renewTime = renewTime;
+    }
+}
@@ -0,0 +1,72 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 报告计数增量DTO（批量更新计数时按计数行汇总）
+ */
+public class ReportCounterDeltaDto {
+
+    /**
+     * 课程ID（课程计数）
+     */
+    private String courseId;
+
+    /**
+     * 模板ID（课程计数）
+     */
+    private String templateId;
+
+    /**
+     * 学生ID（学生计数）
+     */
+    private String studentId;
+
+    /**
+     * 报告状态
+     */
+    private String status;
+
+    /**
+     * 增量（可为负数）
+     */
+    private int delta;
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public void setDelta(int delta) {
+        this.delta = delta;
+    }
+}
@@ -0,0 +1,46 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 批量评分项DTO
+ */
+public class ReportGradeItemDto {
+
+    /**
+     * 报告ID
+     */
+    private String reportId;
+
+    /**
+     * 分数
+     */
+    private Integer score;
+
+    /**
+     * 评语
+     */
+    private String comment;
+
+    public String getReportId() {
+        return reportId;
+    }
+
+    public void setReportId(String reportId) {
+        this.reportId = reportId;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+}
@@ -0,0 +1,61 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 批量评分结果DTO（与请求中的评分项一一对应）
+ */
+public class ReportGradeResultDto {
+
+    /**
+     * 报告ID
+     */
+    private String reportId;
+
+    /**
+     * 是否评分成功
+     */
+    private boolean success;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+
+    public static ReportGradeResultDto success(String reportId) {
+        ReportGradeResultDto result = new ReportGradeResultDto();
+        result.setReportId(reportId);
+        result.setSuccess(true);
+        return result;
+    }
+
+    public static ReportGradeResultDto fail(String reportId, String message) {
+        ReportGradeResultDto result = new ReportGradeResultDto();
+        result.setReportId(reportId);
+        result.setSuccess(false);
+        result.setMessage(message);
+        return result;
+    }
+
+    public String getReportId() {
+        return reportId;
+    }
+
+    public void setReportId(String reportId) {
+        this.reportId = reportId;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -63,11 +63,6 @@ public class ReportOverviewDto {
      */
     private String status;
 
-    /**
-     * 报告内容（JSON格式，查看时使用）
-     */
-    private String reportContent;
-
     public String getReportId() {
         return reportId;
     }
@@ -155,12 +150,4 @@ public class ReportOverviewDto {
     public void setStatus(String status) {
         this.status = status;
     }
-
-    public String getReportContent() {
-        return reportContent;
-    }
-
-    public void setReportContent(String reportContent) {
-        this.reportContent = reportContent;
-    }
 }
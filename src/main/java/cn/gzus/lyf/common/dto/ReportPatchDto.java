@@ -0,0 +1,134 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 报告增量保存DTO
+ * Markdown 格式的报告用文本替换（edits）描述修改，模板 JSON 格式的报告用 inputData 中修改过的单元格描述修改
+ */
+public class ReportPatchDto {
+
+    /**
+     * 报告ID
+     */
+    private String id;
+
+    /**
+     * 客户端当前持有的版本号
+     */
+    private Integer version;
+
+    /**
+     * 报告名称（不修改时为空）
+     */
+    private String reportName;
+
+    /**
+     * 文本替换，按顺序作用于报告内容
+     */
+    private List<TextEdit> edits;
+
+    /**
+     * 修改的填写数据：组件序号 -> (字段 -> 值)，值为 null 时删除该字段
+     */
+    private Map<String, Map<String, String>> inputData;
+
+    /**
+     * 是否立即写入数据库（手动保存、提交前为 true，自动保存为 false）
+     */
+    private boolean flush;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public void setReportName(String reportName) {
+        this.reportName = reportName;
+    }
+
+    public List<TextEdit> getEdits() {
+        return edits;
+    }
+
+    public void setEdits(List<TextEdit> edits) {
+        this.edits = edits;
+    }
+
+    public Map<String, Map<String, String>> getInputData() {
+        return inputData;
+    }
+
+    public void setInputData(Map<String, Map<String, String>> inputData) {
+        this.inputData = inputData;
+    }
+
+    public boolean isFlush() {
+        return flush;
+    }
+
+    public void setFlush(boolean flush) {
+        this.flush = flush;
+    }
+
+    /**
+     * 文本替换：将 [start, end) 范围内的内容替换为 text
+     */
+    public static class TextEdit {
+
+        /**
+         * 起始位置（含）
+         */
+        private int start;
+
+        /**
+         * 结束位置（不含）
+         */
+        private int end;
+
+        /**
+         * 替换的文本
+         */
+        private String text;
+
+        public int getStart() {
+            return start;
+        }
+
+        public void setStart(int start) {
+            this.start = start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
+        public void setEnd(int end) {
+            this.end = end;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 报告状态统计DTO
+ * 用于承接按状态分组的报告计数结果
+ */
+public class ReportStatusCountDto {
+
+    /**
+     * 报告状态
+     */
+    private String status;
+
+    /**
+     * 报告数量
+     */
+    private Long reportCount;
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getReportCount() {
+        return reportCount;
+    }
+
+    public void setReportCount(Long reportCount) {
+        this.reportCount = reportCount;
+    }
+}
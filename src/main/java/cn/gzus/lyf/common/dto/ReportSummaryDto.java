@@ -0,0 +1,218 @@
+package cn.gzus.lyf.common.dto;
+
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+
+import java.util.Date;
+
+/**
+ * 实验报告摘要DTO（不含报告内容，用于列表类接口）
+ * 报告内容仅通过 /experimentReport/get 获取
+ */
+public class ReportSummaryDto {
+
+    /**
+     * 报告ID
+     */
+    private String id;
+
+    /**
+     * 模板ID
+     */
+    private String templateId;
+
+    /**
+     * 课程ID
+     */
+    private String courseId;
+
+    /**
+     * 报告名称
+     */
+    private String reportName;
+
+    /**
+     * 学生ID
+     */
+    private String studentId;
+
+    /**
+     * 提交时间
+     */
+    private Date submitTime;
+
+    /**
+     * 报告状态
+     */
+    private String status;
+
+    /**
+     * 分数
+     */
+    private Integer score;
+
+    /**
+     * 评价时间
+     */
+    private Date gradeTime;
+
+    /**
+     * 评语
+     */
+    private String comment;
+
+    /**
+     * PDF文件地址
+     */
+    private String pdfUrl;
+
+    /**
+     * 系统生成的PDF文件地址
+     */
+    private String renderedPdfUrl;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    /**
+     * 根据报告实体构建摘要（忽略报告内容）
+     * @param report 报告实体
+     * @return 报告摘要
+     */
+    public static ReportSummaryDto from(ExperimentReportEntity report) {
+        ReportSummaryDto summary = new ReportSummaryDto();
+        summary.setId(report.getId());
+        summary.setTemplateId(report.getTemplateId());
+        summary.setCourseId(report.getCourseId());
+        summary.setReportName(report.getReportName());
+        summary.setStudentId(report.getStudentId());
+        summary.setSubmitTime(report.getSubmitTime());
+        summary.setStatus(report.getStatus());
+        summary.setScore(report.getScore());
+        summary.setGradeTime(report.getGradeTime());
+        summary.setComment(report.getComment());
+        summary.setPdfUrl(report.getPdfUrl());
+        summary.setRenderedPdfUrl(report.getRenderedPdfUrl());
+        summary.setCreateTime(report.getCreateTime());
+        summary.setUpdateTime(report.getUpdateTime());
+        return summary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public void setReportName(String reportName) {
+        this.reportName = reportName;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public Date getSubmitTime() {
+        return submitTime;
+    }
+
+    public void setSubmitTime(Date submitTime) {
+        this.submitTime = submitTime;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getScore() {
+        return score;
+    }
+
+    public void setScore(Integer score) {
+        this.score = score;
+    }
+
+    public Date getGradeTime() {
+        return gradeTime;
+    }
+
+    public void setGradeTime(Date gradeTime) {
+        this.gradeTime = gradeTime;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public void setComment(String comment) {
+        this.comment = comment;
+    }
+
+    public String getPdfUrl() {
+        return pdfUrl;
+    }
+
+    public void setPdfUrl(String pdfUrl) {
+        this.pdfUrl = pdfUrl;
+    }
+
+    public String getRenderedPdfUrl() {
+        return renderedPdfUrl;
+    }
+
+    public void setRenderedPdfUrl(String renderedPdfUrl) {
+        this.renderedPdfUrl = renderedPdfUrl;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+}
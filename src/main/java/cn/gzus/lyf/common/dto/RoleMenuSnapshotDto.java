@@ -0,0 +1,46 @@
+package cn.gzus.lyf.common.dto;
+
+import cn.gzus.lyf.dao.entity.MenuEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 角色菜单快照（不可变）
+ * 菜单已按排序号排好序，ETag 根据菜单内容计算，用于前端协商缓存
+ */
+public class RoleMenuSnapshotDto {
+
+    /**
+     * 角色ID
+     */
+    private final String roleId;
+
+    /**
+     * 已排序的菜单列表（只读）
+     */
+    private final List<MenuEntity> menus;
+
+    /**
+     * 菜单内容摘要
+     */
+    private final String etag;
+
+    public RoleMenuSnapshotDto(String roleId, List<MenuEntity> menus, String etag) {
+        this.roleId = roleId;
+        this.menus = Collections.unmodifiableList(menus);
+        this.etag = etag;
+    }
+
+    public String getRoleId() {
+        return roleId;
+    }
+
+    public List<MenuEntity> getMenus() {
+        return menus;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
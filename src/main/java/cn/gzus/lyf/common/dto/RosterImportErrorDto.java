@@ -0,0 +1,55 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 名单导入错误行DTO
+ */
+public class RosterImportErrorDto {
+
+    /**
+     * 行号（从1开始）
+     */
+    private Long lineNumber;
+
+    /**
+     * 该行的用户名（账号/学号）
+     */
+    private String username;
+
+    /**
+     * 错误信息
+     */
+    private String message;
+
+    public RosterImportErrorDto() {
+    }
+
+    public RosterImportErrorDto(Long lineNumber, String username, String message) {
+        this.lineNumber = lineNumber;
+        this.username = username;
+        this.message = message;
+    }
+
+    public Long getLineNumber() {
+        return lineNumber;
+    }
+
+    public void setLineNumber(Long lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,80 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 名单导入结果DTO
+ */
+public class RosterImportResultDto {
+
+    /**
+     * 错误明细最多保留的条数，超出部分只计数
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    /**
+     * 处理的数据行数（不含表头和空行）
+     */
+    private long totalRows;
+
+    /**
+     * 新绑定的用户数（此前已绑定的用户不计入）
+     */
+    private long boundCount;
+
+    /**
+     * 错误行数
+     */
+    private long errorCount;
+
+    /**
+     * 错误明细
+     */
+    private List<RosterImportErrorDto> errors = new ArrayList<>();
+
+    /**
+     * 记录错误行
+     * @param lineNumber 行号
+     * @param username 用户名
+     * @param message 错误信息
+     */
+    public void addError(long lineNumber, String username, String message) {
+        errorCount++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RosterImportErrorDto(lineNumber, username, message));
+        }
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getBoundCount() {
+        return boundCount;
+    }
+
+    public void setBoundCount(long boundCount) {
+        this.boundCount = boundCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public List<RosterImportErrorDto> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RosterImportErrorDto> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,33 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 大字段存储内容DTO（未解码的原始字节，用于内容编码迁移）
+ */
+public class StoredContentDto {
+
+    /**
+     * 记录ID
+     */
+    private String id;
+
+    /**
+     * 存储字节
+     */
+    private byte[] content;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public void setContent(byte[] content) {
+        this.content = content;
+    }
+}
@@ -0,0 +1,55 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 已上传分片DTO
+ */
+public class UploadPartDto {
+
+    /**
+     * 分片序号（从 1 开始）
+     */
+    private int partNumber;
+
+    /**
+     * 分片大小（字节）
+     */
+    private long size;
+
+    /**
+     * 对象存储返回的分片 ETag（不含引号）
+     */
+    private String etag;
+
+    public UploadPartDto() {
+    }
+
+    public UploadPartDto(int partNumber, long size, String etag) {
+        this.partNumber = partNumber;
+        this.size = size;
+        this.etag = etag;
+    }
+
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public void setPartNumber(int partNumber) {
+        this.partNumber = partNumber;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+}
@@ -0,0 +1,116 @@
+package cn.gzus.lyf.common.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 分片上传会话DTO
+ * 客户端按 partSize 切分文件，第 N 个分片为 [(N-1) * partSize, min(N * partSize, fileSize))；
+ * 连接中断后查询会话，跳过 uploadedParts 中已上传的分片继续上传
+ */
+public class UploadSessionDto {
+
+    /**
+     * 会话ID
+     */
+    private String sessionId;
+
+    /**
+     * 文件对象名称（完成后用于 /file/access 或 /file/download 访问）
+     */
+    private String objectName;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long fileSize;
+
+    /**
+     * 分片大小（字节，最后一个分片除外）
+     */
+    private long partSize;
+
+    /**
+     * 分片数量
+     */
+    private int partCount;
+
+    /**
+     * 过期时间
+     */
+    private Date expireTime;
+
+    /**
+     * 已上传的分片
+     */
+    private List<UploadPartDto> uploadedParts;
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public long getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(long partSize) {
+        this.partSize = partSize;
+    }
+
+    public int getPartCount() {
+        return partCount;
+    }
+
+    public void setPartCount(int partCount) {
+        this.partCount = partCount;
+    }
+
+    public Date getExpireTime() {
+        return expireTime;
+    }
+
+    public void setExpireTime(Date expireTime) {
+        this.expireTime = expireTime;
+    }
+
+    public List<UploadPartDto> getUploadedParts() {
+        return uploadedParts;
+    }
+
+    public void setUploadedParts(List<UploadPartDto> uploadedParts) {
+        this.uploadedParts = uploadedParts;
+    }
+}
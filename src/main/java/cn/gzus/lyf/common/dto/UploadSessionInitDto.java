@@ -0,0 +1,46 @@
+package cn.gzus.lyf.common.dto;
+
+/**
+ * 创建分片上传会话DTO
+ */
+public class UploadSessionInitDto {
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件类型（MIME类型）
+     */
+    private String contentType;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public void setFileName(String fileName) {
+        this.fileName = fileName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+}
@@ -201,6 +201,29 @@ public class UserDto extends User {
         this.roleId = roleId;
     }
 
+    /**
+     * 复制用户信息
+     * 认证成功后 Spring Security 会擦除用户密码，共享的用户实例（如缓存中的实例）需复制后再使用
+     * @return 用户信息副本
+     */
+    public UserDto copy() {
+        return new UserDto(getUsername(), getPassword(), isEnabled(), isAccountNonExpired(),
+                isCredentialsNonExpired(), isAccountNonLocked(), getAuthorities(),
+                id, displayName, email, phone, status, roleId);
+    }
+
+    /**
+     * 构造函数（完整，包含角色ID）
+     */
+    private UserDto(String username, String password, boolean enabled, boolean accountNonExpired,
+                    boolean credentialsNonExpired, boolean accountNonLocked,
+                    Collection<? extends GrantedAuthority> authorities,
+                    String id, String displayName, String email, String phone, Integer status, String roleId) {
+        this(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked,
+                authorities, id, displayName, email, phone, status);
+        this.roleId = roleId;
+    }
+
     /**
      * Builder类，用于构建UserDto
      */
@@ -46,6 +46,24 @@ public enum ReportStatusEnum {
         return description;
     }
 
+    /**
+     * 是否可编辑、可提交（草稿、已退回）
+     * @param code 状态代码
+     * @return 是否可编辑
+     */
+    public static boolean isEditable(String code) {
+        return DRAFT.code.equals(code) || RETURNED.code.equals(code);
+    }
+
+    /**
+     * 是否可退回（已提交、已评价）
+     * @param code 状态代码
+     * @return 是否可退回
+     */
+    public static boolean isReturnable(String code) {
+        return SUBMITTED.code.equals(code) || GRADED.code.equals(code);
+    }
+
     /**
      * 根据代码获取枚举
      * @param code 代码
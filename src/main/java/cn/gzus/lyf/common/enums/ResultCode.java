@@ -14,6 +14,11 @@ public enum ResultCode {
      * 失败
      */
     ERROR(0, "失败"),
+
+    /**
+     * 数据已被修改（乐观锁冲突）
+     */
+    CONFLICT(409, "数据已被修改，请刷新后重试"),
     ;
 
     private final Integer code;
@@ -0,0 +1,170 @@
+package cn.gzus.lyf.common.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 大字段内容存储编码（报告内容、模板内容）
+ * 存储格式：首字节为格式标识，其后为数据
+ * <ul>
+ *     <li>0x01：UTF-8 原文</li>
+ *     <li>0x02：4 字节原文长度（大端） + Deflate 压缩的 UTF-8 原文</li>
+ *     <li>其他：未编码的历史数据，整体为 UTF-8 原文</li>
+ * </ul>
+ * 超过最小长度且压缩后更小的内容才会压缩；关闭压缩时按 UTF-8 原文写入（不加格式标识），读取始终兼容以上所有格式
+ */
+@Component
+public class ContentCodec {
+
+    /**
+     * 格式标识：UTF-8 原文
+     */
+    public static final byte FORMAT_PLAIN = 0x01;
+
+    /**
+     * 格式标识：Deflate 压缩
+     */
+    public static final byte FORMAT_DEFLATE = 0x02;
+
+    private static final int LENGTH_BYTES = 4;
+
+    /**
+     * Deflate 的最大压缩比（约 1032:1），原文长度超过压缩数据长度的该倍数时头部已损坏
+     */
+    private static final long MAX_DEFLATE_RATIO = 1032;
+
+    /**
+     * 是否压缩存储
+     */
+    @Value("${ems.content-codec.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * 压缩的最小字节数（更短的内容按原文存储）
+     */
+    @Value("${ems.content-codec.min-size:512}")
+    private int minSize = 512;
+
+    public ContentCodec() {
+    }
+
+    public ContentCodec(boolean enabled, int minSize) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+    }
+
+    /**
+     * 编码内容
+     * @param content 内容
+     * @return 存储字节
+     */
+    public byte[] encode(String content) {
+        byte[] plain = content.getBytes(StandardCharsets.UTF_8);
+        if (!enabled || plain.length < minSize) {
+            return plain(plain);
+        }
+
+        // 最快压缩级别：压缩率仅比默认级别低几个百分点，写入耗时约为其四分之一
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(plain);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(plain.length / 4 + 16);
+            out.write(FORMAT_DEFLATE);
+            for (int i = LENGTH_BYTES - 1; i >= 0; i--) {
+                out.write(plain.length >>> (i * 8));
+            }
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+                if (out.size() >= plain.length) {
+                    // 压缩后不比原文小，保存原文
+                    return plain(plain);
+                }
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 解码内容
+     * @param stored 存储字节
+     * @return 内容
+     */
+    public String decode(byte[] stored) {
+        if (stored == null) {
+            return null;
+        }
+        if (stored.length == 0) {
+            return "";
+        }
+        if (stored[0] == FORMAT_PLAIN) {
+            return new String(stored, 1, stored.length - 1, StandardCharsets.UTF_8);
+        }
+        if (stored[0] != FORMAT_DEFLATE) {
+            return new String(stored, StandardCharsets.UTF_8);
+        }
+
+        if (stored.length < 1 + LENGTH_BYTES) {
+            throw new IllegalStateException("内容解压失败：压缩数据不完整（" + stored.length + " 字节）");
+        }
+        int length = 0;
+        for (int i = 1; i <= LENGTH_BYTES; i++) {
+            length = (length << 8) | (stored[i] & 0xFF);
+        }
+        if (length < 0 || length > (stored.length - 1 - LENGTH_BYTES) * MAX_DEFLATE_RATIO) {
+            throw new IllegalStateException("内容解压失败：原文长度不正确（" + length + "）");
+        }
+        byte[] plain = new byte[length];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored, 1 + LENGTH_BYTES, stored.length - 1 - LENGTH_BYTES);
+            int offset = 0;
+            while (offset < length) {
+                int n = inflater.inflate(plain, offset, length - offset);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                offset += n;
+            }
+            if (offset != length) {
+                throw new IllegalStateException("内容解压失败：长度不一致");
+            }
+            return new String(plain, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("内容解压失败：" + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * 是否为压缩格式
+     * @param stored 存储字节
+     * @return 是否压缩
+     */
+    public static boolean isCompressed(byte[] stored) {
+        return stored != null && stored.length > 0 && stored[0] == FORMAT_DEFLATE;
+    }
+
+    /**
+     * 原文存储：首字节与格式标识冲突时加上原文标识，否则直接保存（与历史数据格式一致）
+     */
+    private static byte[] plain(byte[] data) {
+        if (data.length == 0 || (data[0] != FORMAT_PLAIN && data[0] != FORMAT_DEFLATE)) {
+            return data;
+        }
+        byte[] result = new byte[data.length + 1];
+        result[0] = FORMAT_PLAIN;
+        System.arraycopy(data, 0, result, 1, data.length);
+        return result;
+    }
+}
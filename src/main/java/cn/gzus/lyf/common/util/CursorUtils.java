@@ -0,0 +1,90 @@
+package cn.gzus.lyf.common.util;
+
+import cn.gzus.lyf.common.dto.CursorPageDto;
+import cn.gzus.lyf.common.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 分页游标编解码工具
+ * 游标为排序键各字段以 '|' 拼接后的 URL 安全 Base64 编码，对前端不透明
+ */
+public class CursorUtils {
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtils() {
+    }
+
+    /**
+     * 编码游标
+     * @param parts 排序键各字段（不能包含 '|'）
+     * @return 游标
+     */
+    public static String encode(Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                raw.append(SEPARATOR);
+            }
+            raw.append(parts[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * @param cursor 游标
+     * @param expectedParts 排序键字段数
+     * @return 排序键各字段
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new BusinessException("分页游标无效");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    /**
+     * 解析游标中的数值字段
+     * @param part 游标字段
+     * @return 数值
+     */
+    public static long parseLong(String part) {
+        try {
+            return Long.parseLong(part);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    /**
+     * 根据多查询一条的结果构建游标分页结果
+     * @param records 查询结果（最多 size + 1 条）
+     * @param size 每页大小
+     * @param cursorOf 根据记录生成游标
+     * @return 游标分页结果
+     */
+    public static <T> CursorPageDto<T> toPage(List<T> records, int size, Function<T, String> cursorOf) {
+        CursorPageDto<T> page = new CursorPageDto<>();
+        boolean hasMore = records.size() > size;
+        List<T> pageRecords = hasMore ? new ArrayList<>(records.subList(0, size)) : records;
+        page.setRecords(pageRecords);
+        page.setHasMore(hasMore);
+        page.setSize(size);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(pageRecords.get(pageRecords.size() - 1)));
+        }
+        return page;
+    }
+}
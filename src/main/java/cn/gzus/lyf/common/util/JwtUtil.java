@@ -1,16 +1,26 @@
 package cn.gzus.lyf.common.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Component
@@ -22,6 +32,53 @@ public class JwtUtil {
     @Value("${jwt.expire}")
     private long expire;
 
+    /**
+     * 已验证Token的缓存容量
+     */
+    @Value("${jwt.cache-size:10000}")
+    private long cacheSize;
+
+    /**
+     * 签名密钥（启动时生成一次）
+     */
+    private SecretKey key;
+
+    /**
+     * Token解析器（线程安全，启动时构建一次）
+     */
+    private JwtParser parser;
+
+    /**
+     * 已验证Token缓存：Token摘要 -> Claims，在Token过期时自动淘汰
+     */
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, Claims claims, long currentTime) {
+                        return remainingNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return remainingNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
 
     /**
      * 生成JWT令牌（完整方法，可包含额外信息）
@@ -31,12 +88,12 @@ public class JwtUtil {
      */
     public String generateToken(UserDetails userDetails, Map<String, Object> additionalClaims) {
         Map<String, Object> claims = new HashMap<>();
-        
+
         // 添加额外信息
         if (additionalClaims != null && !additionalClaims.isEmpty()) {
             claims.putAll(additionalClaims);
         }
-        
+
         return createToken(claims, userDetails.getUsername());
     }
 
@@ -44,7 +101,6 @@ public class JwtUtil {
      * 创建Token
      */
     private String createToken(Map<String, Object> claims, String subject) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
@@ -58,20 +114,22 @@ public class JwtUtil {
      * 验证Token有效性
      */
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     /**
      * 提取所有Claims
+     * 同一Token只做一次验签解析，结果缓存至Token过期
      */
-    private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getBody();
+    public Claims extractAllClaims(String token) {
+        String tokenHash = hashToken(token);
+        Claims claims = claimsCache.getIfPresent(tokenHash);
+        if (claims == null) {
+            claims = parser.parseSignedClaims(token).getPayload();
+            claimsCache.put(tokenHash, claims);
+        }
+        return claims;
     }
 
     /**
@@ -97,9 +155,26 @@ public class JwtUtil {
     }
 
     /**
-     * 检查Token是否过期
+     * 计算Token摘要，避免在缓存中保存Token原文
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("不支持SHA-256摘要算法", e);
+        }
+    }
+
+    /**
+     * 计算Claims距过期的剩余时间（纳秒）
+     */
+    private static long remainingNanos(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return 0;
+        }
+        long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
     }
-}
\ No newline at end of file
+}
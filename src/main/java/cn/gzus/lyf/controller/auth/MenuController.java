@@ -2,11 +2,15 @@ package cn.gzus.lyf.controller.auth;
 
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.common.dto.Result;
+import cn.gzus.lyf.common.dto.RoleMenuSnapshotDto;
 import cn.gzus.lyf.common.dto.UserDto;
 import cn.gzus.lyf.dao.entity.MenuEntity;
 import cn.gzus.lyf.service.auth.MenuService;
 import cn.gzus.lyf.service.auth.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +18,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -39,26 +44,34 @@ public class MenuController {
 
     /**
      * 获取当前用户的菜单列表
+     * 返回 ETag，请求头 If-None-Match 与当前菜单快照一致时返回 304
      */
     @GetMapping("/list")
-    public Result<List<MenuEntity>> getMenuList() {
+    public ResponseEntity<Result<List<MenuEntity>>> getMenuList(WebRequest request) {
         // 从 SecurityContext 获取当前用户信息
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null || !authentication.isAuthenticated()) {
-            return Result.error("未登录");
+            return ResponseEntity.ok(Result.error("未登录"));
         }
 
         // 获取当前用户的角色ID
         String roleId = ((UserDto) authentication.getPrincipal()).getRoleId();
 
         if (roleId == null) {
-            return Result.error("未找到用户角色");
+            return ResponseEntity.ok(Result.error("未找到用户角色"));
         }
 
-        // 根据角色ID查询菜单列表
-        List<MenuEntity> menuList = userService.getMenusByRoleId(roleId);
-        return Result.success(menuList);
+        // 根据角色ID获取菜单快照
+        RoleMenuSnapshotDto snapshot = userService.getMenuSnapshot(roleId);
+        if (request.checkNotModified(snapshot.getEtag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION)
+                .body(Result.success(snapshot.getMenus()));
     }
 
     /**
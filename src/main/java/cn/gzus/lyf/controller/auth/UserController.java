@@ -1,5 +1,6 @@
 package cn.gzus.lyf.controller.auth;
 
+import cn.gzus.lyf.common.dto.CacheStatsDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.common.dto.Result;
 import cn.gzus.lyf.common.dto.SimpleUserDto;
@@ -76,4 +77,12 @@ public class UserController {
     public Result<List<SimpleUserDto>> getSimpleUserList() {
         return Result.success(userService.getSimpleUserList());
     }
+
+    /**
+     * 获取登录用户缓存统计（命中率、加载耗时等）
+     */
+    @PostMapping("/cacheStats")
+    public Result<CacheStatsDto> getUserCacheStats() {
+        return Result.success(userService.getUserCacheStats());
+    }
 }
@@ -1,11 +1,15 @@
 package cn.gzus.lyf.controller.course;
 
+import cn.gzus.lyf.common.dto.CourseCountDriftDto;
 import cn.gzus.lyf.common.dto.CourseQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.common.dto.Result;
+import cn.gzus.lyf.common.dto.RosterImportResultDto;
 import cn.gzus.lyf.common.dto.UserDto;
 import cn.gzus.lyf.dao.entity.CourseEntity;
+import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
 import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
+import cn.gzus.lyf.service.course.CourseRosterService;
 import cn.gzus.lyf.service.course.CourseService;
 import cn.gzus.lyf.service.experiment.ExperimentTemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,7 +20,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +40,8 @@ public class CourseController {
 
     private ExperimentTemplateService templateService;
 
+    private CourseRosterService courseRosterService;
+
     @Autowired
     public void setCourseService(CourseService courseService) {
         this.courseService = courseService;
@@ -43,6 +52,11 @@ public class CourseController {
         this.templateService = templateService;
     }
 
+    @Autowired
+    public void setCourseRosterService(CourseRosterService courseRosterService) {
+        this.courseRosterService = courseRosterService;
+    }
+
     /**
      * 获取当前登录用户ID
      * @return 用户ID
@@ -171,6 +185,32 @@ public class CourseController {
         return Result.success(courseService.unbindUsers(courseId, userIds));
     }
 
+    /**
+     * 从CSV导入课程名单（第一列为用户名/学号，可带表头）
+     * @param courseId 课程ID
+     * @param userType 用户类型：1-管理者，2-学生（可选，默认为学生）
+     * @param file CSV文件（UTF-8）
+     * @return 导入结果（含错误行明细）
+     */
+    @PostMapping("/importRoster")
+    public Result<RosterImportResultDto> importRoster(@RequestParam String courseId,
+                                                      @RequestParam(required = false) Integer userType,
+                                                      @RequestParam("file") MultipartFile file) throws IOException {
+        int type = userType != null ? userType : CourseUserRelationEntity.USER_TYPE_STUDENT;
+        try (InputStream inputStream = file.getInputStream()) {
+            return Result.success(courseRosterService.importRoster(courseId, type, inputStream));
+        }
+    }
+
+    /**
+     * 检查课程统计数量（管理者/学生/模板数量）与关联表是否一致
+     * @param repair 是否修复不一致的课程
+     */
+    @PostMapping("/checkCounts")
+    public Result<List<CourseCountDriftDto>> checkCounts(@RequestParam(defaultValue = "false") boolean repair) {
+        return Result.success(courseService.checkCounts(repair));
+    }
+
     /**
      * 获取课程绑定的用户ID列表
      */
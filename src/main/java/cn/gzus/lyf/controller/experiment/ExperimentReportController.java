@@ -1,19 +1,32 @@
 package cn.gzus.lyf.controller.experiment;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.dto.ReportGradeItemDto;
+import cn.gzus.lyf.common.dto.ReportGradeResultDto;
+import cn.gzus.lyf.common.dto.ReportPatchDto;
 import cn.gzus.lyf.common.dto.ReportOverviewDto;
+import cn.gzus.lyf.common.dto.ReportSummaryDto;
 import cn.gzus.lyf.common.dto.Result;
 import cn.gzus.lyf.common.dto.UserDto;
+import cn.gzus.lyf.dao.entity.CourseEntity;
 import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import cn.gzus.lyf.service.course.CourseService;
 import cn.gzus.lyf.service.experiment.ExperimentReportService;
+import cn.gzus.lyf.service.experiment.ReportArchiveService;
+import cn.gzus.lyf.service.experiment.ReportAutosaveService;
+import cn.gzus.lyf.service.experiment.ReportMarkdownWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -24,12 +37,30 @@ import java.util.List;
 public class ExperimentReportController {
 
     private ExperimentReportService reportService;
+    private ReportArchiveService reportArchiveService;
+    private ReportAutosaveService reportAutosaveService;
+    private CourseService courseService;
 
     @Autowired
     public void setReportService(ExperimentReportService reportService) {
         this.reportService = reportService;
     }
 
+    @Autowired
+    public void setReportAutosaveService(ReportAutosaveService reportAutosaveService) {
+        this.reportAutosaveService = reportAutosaveService;
+    }
+
+    @Autowired
+    public void setReportArchiveService(ReportArchiveService reportArchiveService) {
+        this.reportArchiveService = reportArchiveService;
+    }
+
+    @Autowired
+    public void setCourseService(CourseService courseService) {
+        this.courseService = courseService;
+    }
+
     /**
      * 获取当前用户ID
      * @return 用户ID
@@ -50,10 +81,23 @@ public class ExperimentReportController {
      * 分页查询报告
      */
     @PostMapping("/page")
-    public Result<PageDto<ExperimentReportEntity>> getReportPage(int current, int size, String studentId) {
+    public Result<PageDto<ReportSummaryDto>> getReportPage(int current, int size, String studentId) {
         return Result.success(reportService.getReportPage(current, size, studentId));
     }
 
+    /**
+     * 游标分页查询报告（按更新时间倒序，深度翻页开销与首页相同）
+     * @param cursor 上一页返回的 nextCursor，首页不传
+     * @param withTotal 是否返回总数（默认不统计）
+     */
+    @PostMapping("/cursorPage")
+    public Result<CursorPageDto<ReportSummaryDto>> getReportCursorPage(String studentId, String courseId, String status,
+                                                                             String cursor,
+                                                                             @RequestParam(defaultValue = "10") Integer size,
+                                                                             @RequestParam(defaultValue = "false") boolean withTotal) {
+        return Result.success(reportService.getReportCursorPage(studentId, courseId, status, cursor, size, withTotal));
+    }
+
     /**
      * 根据ID获取报告
      */
@@ -66,7 +110,7 @@ public class ExperimentReportController {
      * 根据模板ID获取报告列表
      */
     @PostMapping("/list")
-    public Result<List<ExperimentReportEntity>> getReportsByTemplateId(String templateId) {
+    public Result<List<ReportSummaryDto>> getReportsByTemplateId(String templateId) {
         return Result.success(reportService.getReportsByTemplateId(templateId));
     }
 
@@ -86,6 +130,14 @@ public class ExperimentReportController {
         return Result.success(reportService.updateReport(reportEntity));
     }
 
+    /**
+     * 增量保存报告（只提交修改的部分和当前版本号，返回新版本号；版本号不一致时返回 409）
+     */
+    @PostMapping("/patch")
+    public Result<Integer> patchReport(@RequestBody ReportPatchDto patch) {
+        return Result.success(reportAutosaveService.patch(patch));
+    }
+
     /**
      * 删除报告
      */
@@ -110,6 +162,14 @@ public class ExperimentReportController {
         return Result.success(reportService.gradeReport(reportId, score, comment));
     }
 
+    /**
+     * 批量评分（返回各评分项的结果，单项失败不影响其他项）
+     */
+    @PostMapping("/batchGrade")
+    public Result<List<ReportGradeResultDto>> batchGradeReports(@RequestBody List<ReportGradeItemDto> items) {
+        return Result.success(reportService.batchGradeReports(items));
+    }
+
     /**
      * 退回报告
      */
@@ -119,26 +179,50 @@ public class ExperimentReportController {
     }
 
     /**
-     * 导出报告为Markdown
+     * 导出报告为Markdown（直接写出到响应流）
      */
     @PostMapping("/exportMarkdown")
-    public ResponseEntity<String> exportMarkdown(String reportId) {
-        String markdown = reportService.exportToMarkdown(reportId);
-        
-        if (markdown == null || markdown.isEmpty()) {
+    public ResponseEntity<StreamingResponseBody> exportMarkdown(String reportId) {
+        ReportMarkdownWriter.Export export = reportService.prepareMarkdownExport(reportId);
+        if (export == null) {
             return ResponseEntity.notFound().build();
         }
-        
-        ExperimentReportEntity report = reportService.getReportById(reportId);
-        String filename = (report != null ? report.getReportName() : "实验报告") + ".md";
-        
+
+        String filename = (export.getReportName() != null ? export.getReportName() : "实验报告") + ".md";
+
         HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.TEXT_MARKDOWN);
+        headers.setContentType(new MediaType(MediaType.TEXT_MARKDOWN, StandardCharsets.UTF_8));
         headers.setContentDispositionFormData("attachment", filename);
-        
+
+        StreamingResponseBody body = export::writeTo;
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * 打包导出课程下已提交、已评价的报告（ZIP：每份报告一个Markdown文件及成绩表CSV，直接写出到响应流）
+     */
+    @PostMapping("/exportCourse")
+    public ResponseEntity<StreamingResponseBody> exportCourse(String courseId) {
+        // 只有课程创建者或管理者可以导出；先校验权限，课程不存在时同样返回403，不暴露课程是否存在
+        String currentUserId = getCurrentUserId();
+        if (currentUserId == null || courseId == null || !courseService.canManage(courseId, currentUserId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        CourseEntity course = reportArchiveService.getExportCourse(courseId);
+        if (course == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("application/zip"));
+        headers.setContentDispositionFormData("attachment", course.getCourseName() + "_实验报告.zip");
+
+        StreamingResponseBody body = out -> reportArchiveService.exportCourseArchive(courseId, out);
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(markdown);
+                .body(body);
     }
 
     /**
@@ -193,7 +277,7 @@ public class ExperimentReportController {
      * 根据课程ID获取所有已提交的报告
      */
     @PostMapping("/getByCourseId")
-    public Result<List<ExperimentReportEntity>> getReportsByCourseId(String courseId) {
+    public Result<List<ReportSummaryDto>> getReportsByCourseId(String courseId) {
         return Result.success(reportService.getReportsByCourseId(courseId));
     }
 }
@@ -1,36 +1,61 @@
 package cn.gzus.lyf.controller.file;
 
+import cn.gzus.lyf.common.dto.CacheStatsDto;
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.PresignedUrlDto;
 import cn.gzus.lyf.common.dto.Result;
-import cn.gzus.lyf.dao.entity.FileEntity;
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import cn.gzus.lyf.common.dto.UploadSessionDto;
+import cn.gzus.lyf.common.dto.UploadSessionInitDto;
+import cn.gzus.lyf.common.exception.BusinessException;
 import cn.gzus.lyf.service.file.FileService;
-import io.minio.StatObjectResponse;
+import cn.gzus.lyf.service.file.MultipartUploadService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/file")
 public class FileController {
 
+    /**
+     * 文件缓存策略：对象名称唯一且内容不变，浏览器可缓存一年（文件可能包含个人数据，不允许共享缓存）
+     */
+    private static final String CACHE_CONTROL = "private, max-age=31536000, immutable";
+
     private FileService fileService;
+    private MultipartUploadService multipartUploadService;
 
     @Autowired
     public void setFileService(FileService fileService) {
         this.fileService = fileService;
     }
 
+    @Autowired
+    public void setMultipartUploadService(MultipartUploadService multipartUploadService) {
+        this.multipartUploadService = multipartUploadService;
+    }
+
     /**
      * 获取当前登录用户ID
      *
@@ -61,62 +86,255 @@ public class FileController {
     }
 
     /**
-     * 通过后端代理安全访问文件（永久有效）
+     * 创建分片上传会话（大文件断点续传）
      *
-     * @param objectName 文件对象名称
-     * @return 文件流
+     * @param initDto 文件名、文件类型、文件大小
+     * @return 上传会话（会话ID、分片大小、分片数量）
      */
-    @GetMapping("/access")
-    public ResponseEntity<InputStreamResource> accessFile(@RequestParam("objectName") String objectName) {
-        InputStream inputStream = fileService.download(objectName);
-        StatObjectResponse minioInfo = fileService.getFileInfo(objectName);
+    @PostMapping("/multipart/init")
+    public Result<UploadSessionDto> initMultipartUpload(@RequestBody UploadSessionInitDto initDto) {
+        return Result.success(multipartUploadService.init(initDto, getCurrentUserId()));
+    }
 
-        String contentType = minioInfo.contentType();
-        if (contentType == null || contentType.isEmpty()) {
-            contentType = "application/octet-stream";
+    /**
+     * 上传分片（请求体为分片内容，边接收边写入存储；会话ID和分片序号放在查询参数中）
+     *
+     * @param sessionId 会话ID
+     * @param partNumber 分片序号（从 1 开始）
+     * @param contentMd5 分片内容 MD5 的 Base64 编码
+     * @param request 请求
+     * @return 已上传的分片
+     */
+    @PostMapping(value = "/multipart/part", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public Result<UploadPartDto> uploadPart(String sessionId, int partNumber,
+                                            @RequestHeader(value = "Content-MD5", required = false) String contentMd5,
+                                            HttpServletRequest request) {
+        try (InputStream inputStream = request.getInputStream()) {
+            return Result.success(multipartUploadService.uploadPart(sessionId, partNumber, contentMd5, inputStream,
+                    request.getContentLengthLong(), getCurrentUserId()));
+        } catch (IOException e) {
+            throw new BusinessException("分片上传失败: " + e.getMessage());
         }
+    }
 
-        // 从数据库获取原始文件名
-        FileEntity fileEntity = fileService.getFileInfoByObjectName(objectName);
-        String fileName = fileEntity != null && fileEntity.getOriginalName() != null
-                ? fileEntity.getOriginalName()
-                : objectName;
+    /**
+     * 查询上传会话及已上传的分片（连接中断后继续上传）
+     *
+     * @param sessionId 会话ID
+     * @return 上传会话
+     */
+    @PostMapping("/multipart/status")
+    public Result<UploadSessionDto> getMultipartUpload(String sessionId) {
+        return Result.success(multipartUploadService.getSession(sessionId, getCurrentUserId()));
+    }
 
-        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
+    /**
+     * 完成分片上传
+     *
+     * @param sessionId 会话ID
+     * @return 上传会话（objectName 用于后续通过 /file/access 或 /file/download 访问）
+     */
+    @PostMapping("/multipart/complete")
+    public Result<UploadSessionDto> completeMultipartUpload(String sessionId) {
+        return Result.success(multipartUploadService.complete(sessionId, getCurrentUserId()));
+    }
+
+    /**
+     * 取消分片上传
+     *
+     * @param sessionId 会话ID
+     * @return 是否成功
+     */
+    @PostMapping("/multipart/abort")
+    public Result<Boolean> abortMultipartUpload(String sessionId) {
+        multipartUploadService.abort(sessionId, getCurrentUserId());
+        return Result.success(true);
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + encodedFileName + "\"")
-                .body(new InputStreamResource(inputStream));
+    /**
+     * 通过后端代理安全访问文件（永久有效）
+     *
+     * @param objectName 文件对象名称
+     * @param requestHeaders 请求头（条件请求、范围请求）
+     * @return 文件流
+     */
+    @GetMapping("/access")
+    public ResponseEntity<StreamingResponseBody> accessFile(@RequestParam("objectName") String objectName,
+                                                            @RequestHeader HttpHeaders requestHeaders) {
+        return serveFile(objectName, "inline", requestHeaders);
     }
 
     /**
      * 下载文件
      *
      * @param objectName 文件对象名称
+     * @param requestHeaders 请求头（条件请求、范围请求）
      * @return 文件流
      */
     @GetMapping("/download")
-    public ResponseEntity<InputStreamResource> download(@RequestParam("objectName") String objectName) {
-        InputStream inputStream = fileService.download(objectName);
-        StatObjectResponse minioInfo = fileService.getFileInfo(objectName);
+    public ResponseEntity<StreamingResponseBody> download(@RequestParam("objectName") String objectName,
+                                                          @RequestHeader HttpHeaders requestHeaders) {
+        return serveFile(objectName, "attachment", requestHeaders);
+    }
 
-        String contentType = minioInfo.contentType();
+    /**
+     * 获取文件元数据缓存统计（命中率、每次请求平均节省的耗时等）
+     *
+     * @return 缓存统计
+     */
+    @PostMapping("/cacheStats")
+    public Result<CacheStatsDto> getFileMetadataCacheStats() {
+        return Result.success(fileService.getFileMetadataCacheStats());
+    }
+
+    /**
+     * 获取预签名地址缓存统计
+     *
+     * @return 缓存统计
+     */
+    @PostMapping("/presignedUrlCacheStats")
+    public Result<CacheStatsDto> getPresignedUrlCacheStats() {
+        return Result.success(fileService.getPresignedUrlCacheStats());
+    }
+
+    /**
+     * 输出文件
+     * 开启重定向模式（ems.file-redirect.enabled）且存储支持时，返回 302 跳转到预签名地址，文件内容不经过应用服务器；
+     * 否则由应用服务器输出。
+     * 元数据来自缓存（不查询对象存储），每次请求只读取一次对象存储；
+     * 文件对象名称唯一且内容不会修改，响应允许浏览器长期缓存；支持条件请求（ETag、Last-Modified，未修改时返回 304）
+     * 和单个字节范围请求（返回 206，只从存储中读取请求的字节），多个范围按完整文件返回
+     *
+     * @param objectName 文件对象名称
+     * @param disposition inline 或 attachment
+     * @param requestHeaders 请求头
+     * @return 文件流
+     */
+    private ResponseEntity<StreamingResponseBody> serveFile(String objectName, String disposition, HttpHeaders requestHeaders) {
+        FileMetadataDto metadata = fileService.getFileMetadata(objectName);
+        long size = metadata.getSize();
+        String eTag = "\"" + metadata.getEtag() + "\"";
+        // HTTP 日期精确到秒
+        long lastModified = metadata.getLastModified().getTime() / 1000 * 1000;
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(CACHE_CONTROL);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (isNotModified(requestHeaders, eTag, lastModified)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        String contentType = metadata.getContentType();
         if (contentType == null || contentType.isEmpty()) {
             contentType = "application/octet-stream";
         }
+        String fileName = metadata.getOriginalName() != null ? metadata.getOriginalName() : objectName;
+        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
+        String contentDisposition = disposition + "; filename=\"" + encodedFileName + "\"";
 
-        // 从数据库获取原始文件名
-        FileEntity fileEntity = fileService.getFileInfoByObjectName(objectName);
-        String fileName = fileEntity != null && fileEntity.getOriginalName() != null
-                ? fileEntity.getOriginalName()
-                : objectName;
+        // 重定向模式：浏览器直接从对象存储读取文件（范围请求由存储处理），应用服务器只处理元数据
+        Map<String, String> responseHeaders = new HashMap<>();
+        responseHeaders.put(HttpHeaders.CONTENT_TYPE, contentType);
+        responseHeaders.put(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        responseHeaders.put(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        PresignedUrlDto presignedUrl = fileService.getPresignedUrl(objectName, disposition, responseHeaders);
+        if (presignedUrl != null) {
+            // 停止复用之前浏览器可复用该跳转，跳转到同一地址时命中浏览器缓存
+            long maxAge = Math.max(0, (presignedUrl.getRenewTime().getTime() - System.currentTimeMillis()) / 1000);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(presignedUrl.getUrl()))
+                    .cacheControl(CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePrivate())
+                    .build();
+        }
 
-        String encodedFileName = URLEncoder.encode(fileName, StandardCharsets.UTF_8);
+        HttpRange range = resolveRange(requestHeaders, eTag, lastModified);
+        long start = 0;
+        long end = size - 1;
+        if (range != null) {
+            start = range.getRangeStart(size);
+            end = range.getRangeEnd(size);
+            if (start >= size || start > end) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .headers(headers)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                        .build();
+            }
+        }
+
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+
+        if (range == null) {
+            headers.setContentLength(size);
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(outputStream -> fileService.transferTo(objectName, 0, -1, outputStream));
+        }
+
+        long offset = start;
+        long length = end - start + 1;
+        headers.setContentLength(length);
+        headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                .headers(headers)
+                .body(outputStream -> fileService.transferTo(objectName, offset, length, outputStream));
+    }
+
+    /**
+     * 判断客户端缓存是否仍然有效（有 If-None-Match 时只比较 ETag）
+     *
+     * @param requestHeaders 请求头
+     * @param eTag 文件 ETag
+     * @param lastModified 文件修改时间
+     * @return 是否未修改
+     */
+    private boolean isNotModified(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            for (String tag : ifNoneMatch) {
+                if ("*".equals(tag) || eTag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified <= ifModifiedSince;
+    }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + encodedFileName + "\"")
-                .body(new InputStreamResource(inputStream));
+    /**
+     * 解析范围请求
+     *
+     * @param requestHeaders 请求头
+     * @param eTag 文件 ETag
+     * @param lastModified 文件修改时间
+     * @return 请求的范围，不是单个范围、格式错误或 If-Range 不匹配时返回 null（返回完整文件）
+     */
+    private HttpRange resolveRange(HttpHeaders requestHeaders, String eTag, long lastModified) {
+        List<HttpRange> ranges;
+        try {
+            ranges = requestHeaders.getRange();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.size() != 1) {
+            return null;
+        }
+        String ifRange = requestHeaders.getFirst(HttpHeaders.IF_RANGE);
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                // If-Range 只接受强 ETag
+                return eTag.equals(ifRange) ? ranges.get(0) : null;
+            }
+            try {
+                return requestHeaders.getFirstDate(HttpHeaders.IF_RANGE) == lastModified ? ranges.get(0) : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return ranges.get(0);
     }
-}
\ No newline at end of file
+}
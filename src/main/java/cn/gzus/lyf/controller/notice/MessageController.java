@@ -1,5 +1,6 @@
 package cn.gzus.lyf.controller.notice;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.MessageQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.common.dto.Result;
@@ -62,6 +63,24 @@ public class MessageController {
         return Result.success(messageService.getMessagePage(current, size, messageQueryDto));
     }
 
+    /**
+     * 消息游标分页查询（只能查询自己作为发送人的消息）
+     * @param cursor 上一页返回的 nextCursor，首页不传
+     * @param withTotal 是否返回总数（默认不统计）
+     */
+    @PostMapping("/cursorPage")
+    public Result<CursorPageDto<MessageEntity>> getMessageCursorPage(String cursor,
+                                                                     @RequestParam(defaultValue = "10") Integer size,
+                                                                     @RequestParam(defaultValue = "false") boolean withTotal,
+                                                                     @RequestBody MessageQueryDto messageQueryDto) {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            return Result.error("未登录");
+        }
+        messageQueryDto.setCreatorId(userId);
+        return Result.success(messageService.getMessageCursorPage(messageQueryDto, cursor, size, withTotal));
+    }
+
     /**
      * 新增消息
      */
@@ -104,6 +123,24 @@ public class MessageController {
         return Result.success(messageService.getMessagePage(page, size, queryDto));
     }
 
+    /**
+     * 首页消息列表（游标分页，当前用户所有消息，未读优先，时间倒序）
+     * @param cursor 上一页返回的 nextCursor，首页不传
+     */
+    @GetMapping("/homeCursor")
+    public Result<CursorPageDto<MessageEntity>> getMyMessagesCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        String userId = getCurrentUserId();
+        if (userId == null) {
+            return Result.error("未登录");
+        }
+        MessageQueryDto queryDto = new MessageQueryDto();
+        queryDto.setReceiverId(userId);
+        return Result.success(messageService.getMessageCursorPage(queryDto, cursor, size, withTotal));
+    }
+
     /**
      * 标记消息为已读
      */
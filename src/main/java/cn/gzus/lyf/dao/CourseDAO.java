@@ -1,5 +1,6 @@
 package cn.gzus.lyf.dao;
 
+import cn.gzus.lyf.common.dto.CourseCountDriftDto;
 import cn.gzus.lyf.common.dto.CourseQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.common.util.BeanCopyUtils;
@@ -122,69 +123,21 @@ public class CourseDAO extends ServiceImpl<CourseMapper, CourseEntity> {
     }
 
     /**
-     * 更新课程的管理者数量
+     * 根据关联表重新统计课程的管理者、学生、实验模板数量
      * @param courseId 课程ID
-     * @param count 数量
      * @return 是否成功
      */
-    public boolean updateAdminCount(String courseId, int count) {
-        CourseEntity entity = new CourseEntity();
-        entity.setId(courseId);
-        entity.setAdminCount(count);
-        entity.setUpdateTime(new Date());
-        return this.updateById(entity);
-    }
-
-    /**
-     * 更新课程的学生数量
-     * @param courseId 课程ID
-     * @param count 数量
-     * @return 是否成功
-     */
-    public boolean updateStudentCount(String courseId, int count) {
-        CourseEntity entity = new CourseEntity();
-        entity.setId(courseId);
-        entity.setStudentCount(count);
-        entity.setUpdateTime(new Date());
-        return this.updateById(entity);
-    }
-
-    /**
-     * 更新课程的模板数量
-     * @param courseId 课程ID
-     * @param count 数量
-     * @return 是否成功
-     */
-    public boolean updateTemplateCount(String courseId, int count) {
-        CourseEntity entity = new CourseEntity();
-        entity.setId(courseId);
-        entity.setTemplateCount(count);
-        entity.setUpdateTime(new Date());
-        return this.updateById(entity);
+    public boolean refreshCounts(String courseId) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        return this.baseMapper.refreshCounts(courseId) > 0;
     }
 
     /**
-     * 批量更新课程统计数量
-     * @param courseId 课程ID
-     * @param adminCount 管理者数量（null表示不更新）
-     * @param studentCount 学生数量（null表示不更新）
-     * @param templateCount 模板数量（null表示不更新）
-     * @return 是否成功
+     * 查询统计数量与关联表实际数量不一致的课程
+     * @return 数量偏差列表
      */
-    public boolean updateCounts(String courseId, Integer adminCount, Integer studentCount, Integer templateCount) {
-        CourseEntity entity = new CourseEntity();
-        entity.setId(courseId);
-        if (adminCount != null) {
-            entity.setAdminCount(adminCount);
-        }
-        if (studentCount != null) {
-            entity.setStudentCount(studentCount);
-        }
-        if (templateCount != null) {
-            entity.setTemplateCount(templateCount);
-        }
-        entity.setUpdateTime(new Date());
-        return this.updateById(entity);
+    public List<CourseCountDriftDto> getCountDrift() {
+        return this.baseMapper.selectCountDrift();
     }
 
     /**
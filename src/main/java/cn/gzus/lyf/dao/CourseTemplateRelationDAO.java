@@ -77,4 +77,17 @@ public class CourseTemplateRelationDAO extends ServiceImpl<CourseTemplateRelatio
         return this.list(Wrappers.<CourseTemplateRelationEntity>lambdaQuery()
                 .in(CourseTemplateRelationEntity::getCourseId, courseIds));
     }
+
+    /**
+     * 统计课程ID列表下绑定的实验模板总数
+     * @param courseIds 课程ID列表
+     * @return 实验模板总数
+     */
+    public long countByCourseIds(List<String> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return 0;
+        }
+        return this.count(Wrappers.<CourseTemplateRelationEntity>lambdaQuery()
+                .in(CourseTemplateRelationEntity::getCourseId, courseIds));
+    }
 }
@@ -5,13 +5,23 @@ import cn.gzus.lyf.dao.mapper.CourseUserRelationMapper;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
 @Service
 public class CourseUserRelationDAO extends ServiceImpl<CourseUserRelationMapper, CourseUserRelationEntity> {
 
+    /**
+     * 批量绑定/解绑时每条SQL处理的用户数
+     */
+    private static final int BATCH_SIZE = 500;
+
     /**
      * 为课程绑定用户（默认为普通用户）
      * @param courseId 课程ID
@@ -24,56 +34,104 @@ public class CourseUserRelationDAO extends ServiceImpl<CourseUserRelationMapper,
 
     /**
      * 为课程绑定用户
+     * 按批次执行多行 INSERT ... ON DUPLICATE KEY UPDATE，已绑定的用户只更新用户类型
      * @param courseId 课程ID
      * @param userIds 用户ID列表
      * @param userType 用户类型
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean bindUsers(String courseId, List<String> userIds, int userType) {
         Objects.requireNonNull(courseId, "课程ID不能为空");
         Objects.requireNonNull(userIds, "用户ID列表不能为空");
 
-        for (String userId : userIds) {
-            // 检查是否已存在绑定关系
-            CourseUserRelationEntity existing = this.getOne(Wrappers.<CourseUserRelationEntity>lambdaQuery()
-                    .eq(CourseUserRelationEntity::getCourseId, courseId)
-                    .eq(CourseUserRelationEntity::getUserId, userId));
-            
-            if (existing != null) {
-                // 更新用户类型
-                existing.setUserType(userType);
-                this.updateById(existing);
-            } else {
-                // 新建绑定关系
-                CourseUserRelationEntity relation = new CourseUserRelationEntity();
-                relation.setId(java.util.UUID.randomUUID().toString());
-                relation.setCourseId(courseId);
-                relation.setUserId(userId);
-                relation.setUserType(userType);
-                this.save(relation);
+        List<CourseUserRelationEntity> relations = new ArrayList<>();
+        for (String userId : distinct(userIds)) {
+            CourseUserRelationEntity relation = new CourseUserRelationEntity();
+            relation.setId(UUID.randomUUID().toString());
+            relation.setCourseId(courseId);
+            relation.setUserId(userId);
+            relation.setUserType(userType);
+            relations.add(relation);
+            if (relations.size() == BATCH_SIZE) {
+                this.baseMapper.upsertBatch(relations);
+                relations = new ArrayList<>();
             }
         }
+        if (!relations.isEmpty()) {
+            this.baseMapper.upsertBatch(relations);
+        }
         return true;
     }
 
     /**
-     * 解除课程绑定的用户
+     * 为课程绑定一批用户并返回新绑定的人数（可重复执行）
+     * 先 INSERT IGNORE 插入未绑定的用户，再把已绑定用户的类型更新为目标类型，
+     * 同一用户重复绑定不会重复计数
+     * @param courseId 课程ID
+     * @param userIds 用户ID列表（不超过一个批次）
+     * @param userType 用户类型
+     * @return 新绑定的人数
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int bindUsersCountingNew(String courseId, List<String> userIds, int userType) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        Objects.requireNonNull(userIds, "用户ID列表不能为空");
+
+        List<String> distinctIds = distinct(userIds);
+        if (distinctIds.isEmpty()) {
+            return 0;
+        }
+        List<CourseUserRelationEntity> relations = new ArrayList<>();
+        for (String userId : distinctIds) {
+            CourseUserRelationEntity relation = new CourseUserRelationEntity();
+            relation.setId(UUID.randomUUID().toString());
+            relation.setCourseId(courseId);
+            relation.setUserId(userId);
+            relation.setUserType(userType);
+            relations.add(relation);
+        }
+        int inserted = this.baseMapper.insertIgnoreBatch(relations);
+        if (inserted < distinctIds.size()) {
+            this.baseMapper.updateUserType(courseId, distinctIds, userType);
+        }
+        return inserted;
+    }
+
+    /**
+     * 解除课程绑定的用户（按批次 DELETE ... IN）
      * @param courseId 课程ID
      * @param userIds 用户ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean unbindUsers(String courseId, List<String> userIds) {
         Objects.requireNonNull(courseId, "课程ID不能为空");
         Objects.requireNonNull(userIds, "用户ID列表不能为空");
 
-        for (String userId : userIds) {
-            this.remove(Wrappers.<CourseUserRelationEntity>lambdaQuery()
-                    .eq(CourseUserRelationEntity::getCourseId, courseId)
-                    .eq(CourseUserRelationEntity::getUserId, userId));
+        List<String> distinctIds = distinct(userIds);
+        for (int from = 0; from < distinctIds.size(); from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, distinctIds.size());
+            this.baseMapper.deleteByUserIds(courseId, distinctIds.subList(from, to));
         }
         return true;
     }
 
+    /**
+     * 去除空值和重复的用户ID（保持原有顺序），避免同一批次内重复键
+     * @param userIds 用户ID列表
+     * @return 去重后的用户ID列表
+     */
+    private List<String> distinct(List<String> userIds) {
+        Set<String> distinctIds = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId != null && !userId.isEmpty()) {
+                distinctIds.add(userId);
+            }
+        }
+        return new ArrayList<>(distinctIds);
+    }
+
     /**
      * 获取课程绑定的用户ID列表
      * @param courseId 课程ID
@@ -1,25 +1,58 @@
 package cn.gzus.lyf.dao;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.dto.ReportGradeItemDto;
+import cn.gzus.lyf.common.dto.StoredContentDto;
+import cn.gzus.lyf.common.dto.ReportOverviewDto;
+import cn.gzus.lyf.common.dto.ReportSummaryDto;
 import cn.gzus.lyf.common.enums.ReportStatusEnum;
 import cn.gzus.lyf.common.exception.BusinessException;
-import cn.gzus.lyf.common.util.BeanCopyUtils;
+import cn.gzus.lyf.common.util.CursorUtils;
+import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
 import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
 import cn.gzus.lyf.dao.mapper.ExperimentReportMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, ExperimentReportEntity> {
 
+    /**
+     * 游标分页每页最大条数（超过时按最大条数返回）
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * 报告内容列（大字段，列表类查询不加载）
+     */
+    private static final String CONTENT_COLUMN = "report_content";
+
+    /**
+     * 可编辑、可提交的状态
+     */
+    private static final List<String> EDITABLE_STATUSES = Arrays.asList(
+            ReportStatusEnum.DRAFT.getCode(), ReportStatusEnum.RETURNED.getCode());
+
+    /**
+     * 可退回的状态
+     */
+    private static final List<String> RETURNABLE_STATUSES = Arrays.asList(
+            ReportStatusEnum.SUBMITTED.getCode(), ReportStatusEnum.GRADED.getCode());
+
     /**
      * 新增报告
      * @param reportEntity 报告实体
@@ -34,6 +67,9 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
         Objects.requireNonNull(reportEntity.getCourseId(), "课程ID不能为空");
 
         reportEntity.setStatus(ReportStatusEnum.DRAFT.getCode());
+        reportEntity.setRenderedPdfUrl(null);
+        reportEntity.setPdfRenderFailures(0);
+        reportEntity.setVersion(1);
         reportEntity.setCreateTime(new Date());
         reportEntity.setUpdateTime(new Date());
         this.save(reportEntity);
@@ -59,76 +95,202 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
         Objects.requireNonNull(reportEntity, "报告实体不能为空");
         Objects.requireNonNull(reportEntity.getId(), "报告ID不能为空");
 
+        // 状态只能通过提交、评价、退回修改；学生、课程、模板决定报告计数所在的行，也不允许修改
+        reportEntity.setStatus(null);
+        reportEntity.setStudentId(null);
+        reportEntity.setCourseId(null);
+        reportEntity.setTemplateId(null);
+        // 系统生成的PDF只由后台渲染任务维护
+        reportEntity.setRenderedPdfUrl(null);
+        reportEntity.setPdfRenderFailures(null);
         reportEntity.setUpdateTime(new Date());
-        return this.updateById(reportEntity);
+        // 传入版本号时按乐观锁更新，版本号由数据库加1
+        Integer version = reportEntity.getVersion();
+        reportEntity.setVersion(null);
+        return this.update(reportEntity, new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .eq(ExperimentReportEntity::getId, reportEntity.getId())
+                .eq(version != null, ExperimentReportEntity::getVersion, version)
+                .setSql("version = version + 1"));
     }
 
     /**
-     * 提交报告
+     * 保存草稿内容（乐观锁：版本号与预期一致且仍可编辑时才更新）
      * @param reportId 报告ID
+     * @param reportName 报告名称
+     * @param reportContent 报告内容（存储格式）
+     * @param expectedVersion 预期的当前版本号
+     * @param newVersion 新版本号
      * @return 是否成功
      */
-    public boolean submitReport(String reportId) {
+    public boolean saveDraftContent(String reportId, String reportName, String reportContent,
+                                    int expectedVersion, int newVersion) {
         Objects.requireNonNull(reportId, "报告ID不能为空");
-        ExperimentReportEntity reportEntity = this.getById(reportId);
-        Objects.requireNonNull(reportEntity, "报告不存在");
+        Objects.requireNonNull(reportContent, "报告内容不能为空");
 
-        reportEntity.setStatus(ReportStatusEnum.SUBMITTED.getCode());
-        reportEntity.setSubmitTime(new Date());
-        return this.updateById(reportEntity);
+        ExperimentReportEntity reportEntity = new ExperimentReportEntity();
+        reportEntity.setReportName(reportName);
+        reportEntity.setReportContent(reportContent);
+        reportEntity.setVersion(newVersion);
+        reportEntity.setUpdateTime(new Date());
+        return this.update(reportEntity, new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .eq(ExperimentReportEntity::getId, reportId)
+                .eq(ExperimentReportEntity::getVersion, expectedVersion)
+                .in(ExperimentReportEntity::getStatus, EDITABLE_STATUSES));
     }
 
     /**
-     * 评分
+     * 获取报告状态（不加载报告内容，用于状态变更前的校验和计数）
      * @param reportId 报告ID
+     * @return 报告实体（不含报告内容），不存在时返回 null
+     */
+    public ExperimentReportEntity getReportState(String reportId) {
+        Objects.requireNonNull(reportId, "报告ID不能为空");
+        return this.getOne(summaryQuery().eq(ExperimentReportEntity::getId, reportId));
+    }
+
+    /**
+     * 提交报告（草稿、已退回 -> 已提交，单条条件更新）
+     * @param reportId 报告ID
+     * @param expectedVersion 预期的版本号，为空时不校验版本
+     * @return 是否变更（状态或版本不符时不变更）
+     */
+    public boolean submitReport(String reportId, Integer expectedVersion) {
+        Objects.requireNonNull(reportId, "报告ID不能为空");
+
+        Date now = new Date();
+        return this.update(new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .set(ExperimentReportEntity::getStatus, ReportStatusEnum.SUBMITTED.getCode())
+                .set(ExperimentReportEntity::getSubmitTime, now)
+                .set(ExperimentReportEntity::getUpdateTime, now)
+                .setSql("version = version + 1")
+                .eq(ExperimentReportEntity::getId, reportId)
+                .in(ExperimentReportEntity::getStatus, EDITABLE_STATUSES)
+                .eq(expectedVersion != null, ExperimentReportEntity::getVersion, expectedVersion));
+    }
+
+    /**
+     * 评分（已提交 -> 已评价，单条条件更新）
+     * @param reportId 报告ID
+     * @param expectedVersion 预期的版本号，为空时不校验版本
      * @param score 分数
      * @param comment 评语
-     * @return 是否成功
+     * @return 是否变更（状态或版本不符时不变更）
      */
-    public boolean gradeReport(String reportId, Integer score, String comment) {
+    public boolean gradeReport(String reportId, Integer expectedVersion, Integer score, String comment) {
         Objects.requireNonNull(reportId, "报告ID不能为空");
         Objects.requireNonNull(score, "分数不能为空");
 
-        ExperimentReportEntity reportEntity = this.getById(reportId);
-        Objects.requireNonNull(reportEntity, "报告不存在");
+        Date now = new Date();
+        return this.update(new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .set(ExperimentReportEntity::getStatus, ReportStatusEnum.GRADED.getCode())
+                .set(ExperimentReportEntity::getScore, score)
+                .set(ExperimentReportEntity::getComment, comment)
+                .set(ExperimentReportEntity::getGradeTime, now)
+                .set(ExperimentReportEntity::getUpdateTime, now)
+                .setSql("version = version + 1")
+                .eq(ExperimentReportEntity::getId, reportId)
+                .eq(ExperimentReportEntity::getStatus, ReportStatusEnum.SUBMITTED.getCode())
+                .eq(expectedVersion != null, ExperimentReportEntity::getVersion, expectedVersion));
+    }
 
-        // 只有已提交状态的报告才能评分
-        if (!ReportStatusEnum.SUBMITTED.getCode().equals(reportEntity.getStatus())) {
-            throw new BusinessException("只有已提交的报告才能进行评价");
+    /**
+     * 批量获取报告状态并加锁（不加载报告内容，在事务中使用，事务结束前其他请求不能修改这些报告）
+     * @param reportIds 报告ID列表
+     * @return 报告实体列表（不含报告内容）
+     */
+    public List<ExperimentReportEntity> lockReportStates(Collection<String> reportIds) {
+        if (reportIds == null || reportIds.isEmpty()) {
+            return Collections.emptyList();
         }
+        return this.list(summaryQuery()
+                .in(ExperimentReportEntity::getId, reportIds)
+                .last("FOR UPDATE"));
+    }
 
-        reportEntity.setStatus(ReportStatusEnum.GRADED.getCode());
-        reportEntity.setScore(score);
-        reportEntity.setComment(comment);
-        reportEntity.setGradeTime(new Date());
-        reportEntity.setUpdateTime(new Date());
-        return this.updateById(reportEntity);
+    /**
+     * 批量评分（已提交 -> 已评价，一条条件更新）
+     * @param items 评分项（报告ID不重复）
+     * @return 更新的报告数
+     */
+    public int gradeReports(List<ReportGradeItemDto> items) {
+        Objects.requireNonNull(items, "评分项不能为空");
+        if (items.isEmpty()) {
+            return 0;
+        }
+        return this.baseMapper.gradeReports(items, new Date());
     }
 
     /**
-     * 退回报告
+     * 退回报告（已提交、已评价 -> 已退回，单条条件更新）
+     * 清除提交时间让学生重新提交；退回后报告内容可能修改，原PDF失效
      * @param reportId 报告ID
+     * @param expectedVersion 预期的版本号，为空时不校验版本
      * @param comment 退回意见
-     * @return 是否成功
+     * @return 是否变更（状态或版本不符时不变更）
      */
-    public boolean returnReport(String reportId, String comment) {
+    public boolean returnReport(String reportId, Integer expectedVersion, String comment) {
         Objects.requireNonNull(reportId, "报告ID不能为空");
 
-        ExperimentReportEntity reportEntity = this.getById(reportId);
-        Objects.requireNonNull(reportEntity, "报告不存在");
+        return this.update(new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .set(ExperimentReportEntity::getStatus, ReportStatusEnum.RETURNED.getCode())
+                .set(ExperimentReportEntity::getSubmitTime, null)
+                .set(ExperimentReportEntity::getComment, comment)
+                .set(ExperimentReportEntity::getRenderedPdfUrl, null)
+                .set(ExperimentReportEntity::getPdfRenderFailures, 0)
+                .set(ExperimentReportEntity::getUpdateTime, new Date())
+                .setSql("version = version + 1")
+                .eq(ExperimentReportEntity::getId, reportId)
+                .in(ExperimentReportEntity::getStatus, RETURNABLE_STATUSES)
+                .eq(expectedVersion != null, ExperimentReportEntity::getVersion, expectedVersion));
+    }
 
-        // 只有已提交或已评价状态的报告才能退回
-        String status = reportEntity.getStatus();
-        if (!ReportStatusEnum.SUBMITTED.getCode().equals(status) && 
-            !ReportStatusEnum.GRADED.getCode().equals(status)) {
-            throw new BusinessException("只有已提交或已评价的报告才能退回");
-        }
+    /**
+     * 记录系统生成的报告PDF（仅当报告仍是渲染时的那次提交且尚无PDF时更新，避免旧内容的PDF覆盖重新提交后的报告）
+     * @param reportId 报告ID
+     * @param submitTime 渲染时报告的提交时间
+     * @param renderedPdfUrl PDF文件对象名称
+     * @return 是否更新
+     */
+    public boolean updateRenderedPdfUrl(String reportId, Date submitTime, String renderedPdfUrl) {
+        Objects.requireNonNull(reportId, "报告ID不能为空");
+        Objects.requireNonNull(renderedPdfUrl, "PDF文件不能为空");
+        return this.update(new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .eq(ExperimentReportEntity::getId, reportId)
+                .eq(submitTime != null, ExperimentReportEntity::getSubmitTime, submitTime)
+                .isNull(submitTime == null, ExperimentReportEntity::getSubmitTime)
+                .in(ExperimentReportEntity::getStatus, ReportStatusEnum.SUBMITTED.getCode(), ReportStatusEnum.GRADED.getCode())
+                .isNull(ExperimentReportEntity::getRenderedPdfUrl)
+                .set(ExperimentReportEntity::getRenderedPdfUrl, renderedPdfUrl));
+    }
 
-        reportEntity.setStatus(ReportStatusEnum.RETURNED.getCode());
-        reportEntity.setSubmitTime(null);  // 清除提交时间，让学生重新提交
-        reportEntity.setComment(comment);
-        reportEntity.setUpdateTime(new Date());
-        return this.updateById(reportEntity);
+    /**
+     * 记录一轮PDF生成失败（重试次数用尽）
+     * @param reportId 报告ID
+     * @return 是否更新
+     */
+    public boolean incrementPdfRenderFailures(String reportId) {
+        Objects.requireNonNull(reportId, "报告ID不能为空");
+        return this.update(new LambdaUpdateWrapper<ExperimentReportEntity>()
+                .eq(ExperimentReportEntity::getId, reportId)
+                .setSql("pdf_render_failures = pdf_render_failures + 1"));
+    }
+
+    /**
+     * 获取已提交、已评价但尚未生成PDF的报告ID
+     * @param maxFailures 失败轮数上限（达到上限的报告不再返回）
+     * @param limit 最大条数
+     * @return 报告ID列表
+     */
+    public List<String> getReportIdsWithoutRenderedPdf(int maxFailures, int limit) {
+        return this.list(new LambdaQueryWrapper<ExperimentReportEntity>()
+                        .select(ExperimentReportEntity::getId)
+                        .in(ExperimentReportEntity::getStatus, ReportStatusEnum.SUBMITTED.getCode(), ReportStatusEnum.GRADED.getCode())
+                        .isNull(ExperimentReportEntity::getRenderedPdfUrl)
+                        .lt(ExperimentReportEntity::getPdfRenderFailures, maxFailures)
+                        .last("LIMIT " + limit))
+                .stream()
+                .map(ExperimentReportEntity::getId)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -146,12 +308,12 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
      * @param templateId 模板ID
      * @return 报告列表
      */
-    public List<ExperimentReportEntity> getReportsByTemplateId(String templateId) {
+    public List<ReportSummaryDto> getReportsByTemplateId(String templateId) {
         Objects.requireNonNull(templateId, "模板ID不能为空");
-        return this.list(new LambdaQueryWrapper<ExperimentReportEntity>()
+        return toSummaries(this.list(summaryQuery()
                 .eq(ExperimentReportEntity::getTemplateId, templateId)
                 .orderByDesc(ExperimentReportEntity::getUpdateTime)
-        );
+        ));
     }
 
     /**
@@ -161,16 +323,76 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
      * @param studentId 学生ID
      * @return 分页结果
      */
-    public PageDto<ExperimentReportEntity> getReportPage(Integer current, Integer size, String studentId) {
+    public PageDto<ReportSummaryDto> getReportPage(Integer current, Integer size, String studentId) {
         Objects.requireNonNull(current, "当前页码不能为空");
         Objects.requireNonNull(size, "每页大小不能为空");
 
         IPage<ExperimentReportEntity> reportPage = this.page(new Page<>(current, size),
-                new LambdaQueryWrapper<ExperimentReportEntity>()
+                summaryQuery()
                         .eq(studentId != null, ExperimentReportEntity::getStudentId, studentId)
                         .orderByDesc(ExperimentReportEntity::getUpdateTime)
         );
-        return BeanCopyUtils.copy(reportPage, PageDto.class);
+        PageDto<ReportSummaryDto> pageDto = new PageDto<>();
+        pageDto.setCurrent(reportPage.getCurrent());
+        pageDto.setSize(reportPage.getSize());
+        pageDto.setTotal(reportPage.getTotal());
+        pageDto.setPages(reportPage.getPages());
+        pageDto.setRecords(toSummaries(reportPage.getRecords()));
+        return pageDto;
+    }
+
+    /**
+     * 游标分页查询报告（按更新时间、ID倒序，基于 (update_time, id) 定位下一页，不做 OFFSET 扫描）
+     * @param studentId 学生ID（可选）
+     * @param courseId 课程ID（可选）
+     * @param status 报告状态（可选）
+     * @param cursor 上一页返回的游标（首页为空）
+     * @param size 每页大小（最大 {@value #MAX_PAGE_SIZE}）
+     * @param withTotal 是否统计总数
+     * @return 游标分页结果
+     */
+    public CursorPageDto<ReportSummaryDto> getReportCursorPage(String studentId, String courseId, String status,
+                                                                     String cursor, Integer size, boolean withTotal) {
+        Objects.requireNonNull(size, "每页大小不能为空");
+        if (size <= 0) {
+            throw new BusinessException("每页大小必须大于0");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        LambdaQueryWrapper<ExperimentReportEntity> queryWrapper = reportFilter(studentId, courseId, status)
+                .select(ExperimentReportEntity.class, field -> !CONTENT_COLUMN.equals(field.getColumn()));
+        if (StringUtils.isNotEmpty(cursor)) {
+            String[] parts = CursorUtils.decode(cursor, 2);
+            Date updateTime = new Date(CursorUtils.parseLong(parts[0]));
+            String id = parts[1];
+            queryWrapper.and(w -> w.lt(ExperimentReportEntity::getUpdateTime, updateTime)
+                    .or(o -> o.eq(ExperimentReportEntity::getUpdateTime, updateTime)
+                            .lt(ExperimentReportEntity::getId, id)));
+        }
+        queryWrapper.orderByDesc(ExperimentReportEntity::getUpdateTime)
+                .orderByDesc(ExperimentReportEntity::getId)
+                .last("LIMIT " + (size + 1));
+
+        CursorPageDto<ReportSummaryDto> page = CursorUtils.toPage(toSummaries(this.list(queryWrapper)), size,
+                report -> CursorUtils.encode(report.getUpdateTime().getTime(), report.getId()));
+        if (withTotal) {
+            page.setTotal(this.count(reportFilter(studentId, courseId, status)));
+        }
+        return page;
+    }
+
+    /**
+     * 构建报告查询的过滤条件
+     * @param studentId 学生ID（可选）
+     * @param courseId 课程ID（可选）
+     * @param status 报告状态（可选）
+     * @return 查询条件
+     */
+    private LambdaQueryWrapper<ExperimentReportEntity> reportFilter(String studentId, String courseId, String status) {
+        return new LambdaQueryWrapper<ExperimentReportEntity>()
+                .eq(StringUtils.isNotEmpty(studentId), ExperimentReportEntity::getStudentId, studentId)
+                .eq(StringUtils.isNotEmpty(courseId), ExperimentReportEntity::getCourseId, courseId)
+                .eq(StringUtils.isNotEmpty(status), ExperimentReportEntity::getStatus, status);
     }
 
     /**
@@ -178,12 +400,12 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
      * @param studentId 学生ID
      * @return 报告列表
      */
-    public List<ExperimentReportEntity> getReportsByStudentId(String studentId) {
+    public List<ReportSummaryDto> getReportsByStudentId(String studentId) {
         Objects.requireNonNull(studentId, "学生ID不能为空");
-        return this.list(new LambdaQueryWrapper<ExperimentReportEntity>()
+        return toSummaries(this.list(summaryQuery()
                 .eq(ExperimentReportEntity::getStudentId, studentId)
                 .orderByDesc(ExperimentReportEntity::getUpdateTime)
-        );
+        ));
     }
 
     /**
@@ -263,12 +485,98 @@ public class ExperimentReportDAO extends ServiceImpl<ExperimentReportMapper, Exp
      * @param courseId 课程ID
      * @return 报告列表
      */
-    public List<ExperimentReportEntity> getReportsByCourseId(String courseId) {
+    public List<ReportSummaryDto> getReportsByCourseId(String courseId) {
         Objects.requireNonNull(courseId, "课程ID不能为空");
-        return this.list(new LambdaQueryWrapper<ExperimentReportEntity>()
+        return toSummaries(this.list(summaryQuery()
                 .eq(ExperimentReportEntity::getCourseId, courseId)
                 .isNotNull(ExperimentReportEntity::getSubmitTime)
                 .orderByDesc(ExperimentReportEntity::getSubmitTime)
+        ));
+    }
+
+    /**
+     * 按ID顺序分块读取课程下指定状态的报告（基于 id 定位下一块，导出时逐块处理）
+     * @param courseId 课程ID
+     * @param statuses 报告状态列表
+     * @param afterId 上一块最后一条报告的ID（首块为空）
+     * @param limit 每块条数
+     * @param withContent 是否加载报告内容
+     * @return 报告列表
+     */
+    public List<ExperimentReportEntity> getCourseReportChunk(String courseId, List<String> statuses, String afterId,
+                                                             int limit, boolean withContent) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        LambdaQueryWrapper<ExperimentReportEntity> queryWrapper = withContent
+                ? new LambdaQueryWrapper<>() : summaryQuery();
+        return this.list(queryWrapper
+                .eq(ExperimentReportEntity::getCourseId, courseId)
+                .in(statuses != null && !statuses.isEmpty(), ExperimentReportEntity::getStatus, statuses)
+                .gt(StringUtils.isNotEmpty(afterId), ExperimentReportEntity::getId, afterId)
+                .orderByAsc(ExperimentReportEntity::getId)
+                .last("LIMIT " + limit)
         );
     }
+
+    /**
+     * 获取学生的实验报告概览（单条SQL完成关联、状态过滤与分页）
+     * @param studentId 学生ID
+     * @param status 报告状态（可选）
+     * @param current 当前页码（可选）
+     * @param size 每页大小（可选）
+     * @return 报告概览列表
+     */
+    public List<ReportOverviewDto> getReportOverview(String studentId, String status, Integer current, Integer size) {
+        Objects.requireNonNull(studentId, "学生ID不能为空");
+
+        Integer offset = null;
+        Integer limit = null;
+        if (current != null && size != null && current > 0 && size > 0) {
+            offset = (current - 1) * size;
+            limit = size;
+        }
+        return this.baseMapper.selectReportOverview(studentId, CourseUserRelationEntity.USER_TYPE_STUDENT,
+                status, offset, limit);
+    }
+
+    /**
+     * 构建不查询报告内容的查询条件（列表类查询使用）
+     * @return 查询条件
+     */
+    private LambdaQueryWrapper<ExperimentReportEntity> summaryQuery() {
+        return new LambdaQueryWrapper<ExperimentReportEntity>()
+                .select(ExperimentReportEntity.class, field -> !CONTENT_COLUMN.equals(field.getColumn()));
+    }
+
+    /**
+     * 将报告实体列表转换为摘要列表
+     * @param reports 报告实体列表
+     * @return 报告摘要列表
+     */
+    private List<ReportSummaryDto> toSummaries(List<ExperimentReportEntity> reports) {
+        return reports.stream()
+                .map(ReportSummaryDto::from)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按ID顺序分块读取报告内容的存储字节（内容编码迁移使用）
+     * @param afterId 上一块最后一条记录的ID（首块为空字符串）
+     * @param limit 每块条数
+     * @return 存储内容列表
+     */
+    public List<StoredContentDto> getStoredContentChunk(String afterId, int limit) {
+        return this.baseMapper.selectStoredContent(afterId != null ? afterId : "", limit);
+    }
+
+    /**
+     * 重写报告内容的存储字节（内容未被并发修改时才更新）
+     * @param id 记录ID
+     * @param oldContent 原存储字节
+     * @param newContent 新存储字节
+     * @return 是否更新
+     */
+    public boolean updateStoredContent(String id, byte[] oldContent, byte[] newContent) {
+        Objects.requireNonNull(id, "记录ID不能为空");
+        return this.baseMapper.updateStoredContent(id, oldContent, newContent) > 0;
+    }
 }
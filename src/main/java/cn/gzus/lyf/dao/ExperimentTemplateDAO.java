@@ -2,9 +2,11 @@ package cn.gzus.lyf.dao;
 
 import cn.gzus.lyf.common.dto.ExperimentTemplateQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.dto.StoredContentDto;
 import cn.gzus.lyf.common.util.BeanCopyUtils;
 import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
 import cn.gzus.lyf.dao.mapper.ExperimentTemplateMapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -30,6 +32,7 @@ public class ExperimentTemplateDAO extends ServiceImpl<ExperimentTemplateMapper,
         Objects.requireNonNull(templateEntity.getTemplateContent(), "模板内容不能为空");
         Objects.requireNonNull(templateEntity.getCreatorId(), "创建者ID不能为空");
 
+        templateEntity.setVersion(1);
         templateEntity.setCreateTime(new Date());
         templateEntity.setUpdateTime(new Date());
         return this.save(templateEntity);
@@ -55,7 +58,11 @@ public class ExperimentTemplateDAO extends ServiceImpl<ExperimentTemplateMapper,
         Objects.requireNonNull(templateEntity.getId(), "模板ID不能为空");
 
         templateEntity.setUpdateTime(new Date());
-        return this.updateById(templateEntity);
+        // 版本号由数据库维护：内容修改时加1
+        templateEntity.setVersion(null);
+        return this.update(templateEntity, new LambdaUpdateWrapper<ExperimentTemplateEntity>()
+                .eq(ExperimentTemplateEntity::getId, templateEntity.getId())
+                .setSql(templateEntity.getTemplateContent() != null, "version = version + 1"));
     }
 
     /**
@@ -108,4 +115,26 @@ public class ExperimentTemplateDAO extends ServiceImpl<ExperimentTemplateMapper,
         return this.count(Wrappers.<ExperimentTemplateEntity>lambdaQuery()
                 .eq(ExperimentTemplateEntity::getCreatorId, creatorId));
     }
+
+    /**
+     * 按ID顺序分块读取模板内容的存储字节（内容编码迁移使用）
+     * @param afterId 上一块最后一条记录的ID（首块为空字符串）
+     * @param limit 每块条数
+     * @return 存储内容列表
+     */
+    public List<StoredContentDto> getStoredContentChunk(String afterId, int limit) {
+        return this.baseMapper.selectStoredContent(afterId != null ? afterId : "", limit);
+    }
+
+    /**
+     * 重写模板内容的存储字节（内容未被并发修改时才更新）
+     * @param id 记录ID
+     * @param oldContent 原存储字节
+     * @param newContent 新存储字节
+     * @return 是否更新
+     */
+    public boolean updateStoredContent(String id, byte[] oldContent, byte[] newContent) {
+        Objects.requireNonNull(id, "记录ID不能为空");
+        return this.baseMapper.updateStoredContent(id, oldContent, newContent) > 0;
+    }
 }
@@ -0,0 +1,47 @@
+package cn.gzus.lyf.dao;
+
+import cn.gzus.lyf.dao.entity.ExperimentTemplateVersionEntity;
+import cn.gzus.lyf.dao.mapper.ExperimentTemplateVersionMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Objects;
+
+@Service
+public class ExperimentTemplateVersionDAO extends ServiceImpl<ExperimentTemplateVersionMapper, ExperimentTemplateVersionEntity> {
+
+    /**
+     * 获取模板的指定版本
+     * @param templateId 模板ID
+     * @param version 模板版本
+     * @return 模板版本实体
+     */
+    public ExperimentTemplateVersionEntity getVersion(String templateId, Integer version) {
+        Objects.requireNonNull(templateId, "模板ID不能为空");
+        Objects.requireNonNull(version, "模板版本不能为空");
+        return this.getOne(new LambdaQueryWrapper<ExperimentTemplateVersionEntity>()
+                .eq(ExperimentTemplateVersionEntity::getTemplateId, templateId)
+                .eq(ExperimentTemplateVersionEntity::getVersion, version));
+    }
+
+    /**
+     * 保存模板版本（已存在时不覆盖）
+     * @param templateId 模板ID
+     * @param version 模板版本
+     * @param templateContent 该版本的模板内容
+     */
+    public void saveVersionIfAbsent(String templateId, Integer version, String templateContent) {
+        Objects.requireNonNull(templateId, "模板ID不能为空");
+        Objects.requireNonNull(version, "模板版本不能为空");
+        Objects.requireNonNull(templateContent, "模板内容不能为空");
+
+        ExperimentTemplateVersionEntity entity = new ExperimentTemplateVersionEntity();
+        entity.setTemplateId(templateId);
+        entity.setVersion(version);
+        entity.setTemplateContent(templateContent);
+        entity.setCreateTime(new Date());
+        this.baseMapper.insertIgnore(entity);
+    }
+}
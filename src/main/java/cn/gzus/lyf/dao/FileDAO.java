@@ -3,9 +3,12 @@ package cn.gzus.lyf.dao;
 import cn.gzus.lyf.dao.entity.FileEntity;
 import cn.gzus.lyf.dao.mapper.FileMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
+
 @Service
 public class FileDAO extends ServiceImpl<FileMapper, FileEntity> {
 
@@ -16,4 +19,28 @@ public class FileDAO extends ServiceImpl<FileMapper, FileEntity> {
         return this.getOne(new LambdaQueryWrapper<FileEntity>()
                 .eq(FileEntity::getObjectName, objectName));
     }
+
+    /**
+     * 补齐文件的ETag
+     * @param id 文件ID
+     * @param etag ETag
+     * @return 是否成功
+     */
+    public boolean updateEtag(String id, String etag) {
+        Objects.requireNonNull(id, "文件ID不能为空");
+        return this.update(new LambdaUpdateWrapper<FileEntity>()
+                .eq(FileEntity::getId, id)
+                .set(FileEntity::getEtag, etag));
+    }
+
+    /**
+     * 根据对象名称删除文件信息
+     * @param objectName 文件对象名称
+     * @return 是否删除
+     */
+    public boolean deleteByObjectName(String objectName) {
+        Objects.requireNonNull(objectName, "文件对象名称不能为空");
+        return this.remove(new LambdaQueryWrapper<FileEntity>()
+                .eq(FileEntity::getObjectName, objectName));
+    }
 }
@@ -0,0 +1,58 @@
+package cn.gzus.lyf.dao;
+
+import cn.gzus.lyf.dao.entity.FileUploadSessionEntity;
+import cn.gzus.lyf.dao.mapper.FileUploadSessionMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class FileUploadSessionDAO extends ServiceImpl<FileUploadSessionMapper, FileUploadSessionEntity> {
+
+    /**
+     * 新增上传会话
+     * @param session 会话
+     * @return 是否成功
+     */
+    public boolean addSession(FileUploadSessionEntity session) {
+        Objects.requireNonNull(session, "上传会话不能为空");
+        return this.save(session);
+    }
+
+    /**
+     * 根据ID获取上传会话
+     * @param id 会话ID
+     * @return 会话，不存在时返回 null
+     */
+    public FileUploadSessionEntity getSessionById(String id) {
+        Objects.requireNonNull(id, "会话ID不能为空");
+        return this.getById(id);
+    }
+
+    /**
+     * 删除上传会话
+     * @param id 会话ID
+     * @return 是否删除（已被其他请求删除时返回 false）
+     */
+    public boolean deleteSession(String id) {
+        Objects.requireNonNull(id, "会话ID不能为空");
+        return this.removeById(id);
+    }
+
+    /**
+     * 获取已过期的上传会话
+     * @param now 当前时间
+     * @param limit 最大数量
+     * @return 会话列表
+     */
+    public List<FileUploadSessionEntity> getExpiredSessions(Date now, int limit) {
+        return this.list(new LambdaQueryWrapper<FileUploadSessionEntity>()
+                .lt(FileUploadSessionEntity::getExpireTime, now)
+                .orderByAsc(FileUploadSessionEntity::getExpireTime)
+                .last("LIMIT " + limit));
+    }
+}
@@ -1,8 +1,11 @@
 package cn.gzus.lyf.dao;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.MessageQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.exception.BusinessException;
 import cn.gzus.lyf.common.util.BeanCopyUtils;
+import cn.gzus.lyf.common.util.CursorUtils;
 import cn.gzus.lyf.dao.entity.MessageEntity;
 import cn.gzus.lyf.dao.mapper.MessageMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
@@ -21,6 +24,11 @@ import java.util.Objects;
 @Service
 public class MessageDAO extends ServiceImpl<MessageMapper, MessageEntity> {
 
+    /**
+     * 游标分页每页最大条数（超过时按最大条数返回）
+     */
+    private static final int MAX_PAGE_SIZE = 100;
+
     public boolean addMessage(MessageEntity messageEntity) {
         Objects.requireNonNull(messageEntity, "消息实体不能为空");
         Objects.requireNonNull(messageEntity.getTitle(), "消息标题不能为空");
@@ -49,6 +57,61 @@ public class MessageDAO extends ServiceImpl<MessageMapper, MessageEntity> {
         return BeanCopyUtils.copy(messagePage, PageDto.class);
     }
 
+    /**
+     * 游标分页查询消息（未读优先、创建时间倒序，基于 (status, create_time, id) 定位下一页，不做 OFFSET 扫描）
+     * @param messageQueryDto 查询条件
+     * @param cursor 上一页返回的游标（首页为空）
+     * @param size 每页大小（最大 {@value #MAX_PAGE_SIZE}）
+     * @param withTotal 是否统计总数
+     * @return 游标分页结果
+     */
+    public CursorPageDto<MessageEntity> getMessageCursorPage(MessageQueryDto messageQueryDto, String cursor,
+                                                            Integer size, boolean withTotal) {
+        Objects.requireNonNull(messageQueryDto, "查询条件不能为空");
+        Objects.requireNonNull(size, "每页大小不能为空");
+        if (size <= 0) {
+            throw new BusinessException("每页大小必须大于0");
+        }
+        size = Math.min(size, MAX_PAGE_SIZE);
+
+        LambdaQueryWrapper<MessageEntity> queryWrapper = messageFilter(messageQueryDto);
+        if (StringUtils.isNotEmpty(cursor)) {
+            String[] parts = CursorUtils.decode(cursor, 3);
+            int status = (int) CursorUtils.parseLong(parts[0]);
+            Date createTime = new Date(CursorUtils.parseLong(parts[1]));
+            String id = parts[2];
+            queryWrapper.and(w -> w.gt(MessageEntity::getStatus, status)
+                    .or(o -> o.eq(MessageEntity::getStatus, status)
+                            .and(t -> t.lt(MessageEntity::getCreateTime, createTime)
+                                    .or(i -> i.eq(MessageEntity::getCreateTime, createTime)
+                                            .lt(MessageEntity::getId, id)))));
+        }
+        queryWrapper.orderByAsc(MessageEntity::getStatus)
+                .orderByDesc(MessageEntity::getCreateTime)
+                .orderByDesc(MessageEntity::getId)
+                .last("LIMIT " + (size + 1));
+
+        CursorPageDto<MessageEntity> page = CursorUtils.toPage(this.list(queryWrapper), size,
+                message -> CursorUtils.encode(message.getStatus(), message.getCreateTime().getTime(), message.getId()));
+        if (withTotal) {
+            page.setTotal(this.count(messageFilter(messageQueryDto)));
+        }
+        return page;
+    }
+
+    /**
+     * 构建消息查询的过滤条件
+     * @param messageQueryDto 查询条件
+     * @return 查询条件
+     */
+    private LambdaQueryWrapper<MessageEntity> messageFilter(MessageQueryDto messageQueryDto) {
+        return Wrappers.<MessageEntity>lambdaQuery()
+                .like(StringUtils.isNotEmpty(messageQueryDto.getTitle()), MessageEntity::getTitle, messageQueryDto.getTitle())
+                .eq(StringUtils.isNotEmpty(messageQueryDto.getCreatorId()), MessageEntity::getCreatorId, messageQueryDto.getCreatorId())
+                .eq(StringUtils.isNotEmpty(messageQueryDto.getReceiverId()), MessageEntity::getReceiverId, messageQueryDto.getReceiverId())
+                .eq(messageQueryDto.getStatus() != null, MessageEntity::getStatus, messageQueryDto.getStatus());
+    }
+
     public List<MessageEntity> getMessageListByReceiver(String receiverId, Integer status, int limit) {
         if (receiverId == null || receiverId.trim().isEmpty()) {
             return Collections.emptyList();
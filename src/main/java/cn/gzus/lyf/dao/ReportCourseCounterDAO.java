@@ -0,0 +1,70 @@
+package cn.gzus.lyf.dao;
+
+import cn.gzus.lyf.common.dto.ReportCounterDeltaDto;
+import cn.gzus.lyf.common.dto.ReportStatusCountDto;
+import cn.gzus.lyf.dao.entity.ReportCourseCounterEntity;
+import cn.gzus.lyf.dao.mapper.ReportCourseCounterMapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class ReportCourseCounterDAO extends ServiceImpl<ReportCourseCounterMapper, ReportCourseCounterEntity> {
+
+    /**
+     * 按增量更新课程报告计数
+     * @param courseId 课程ID
+     * @param templateId 模板ID
+     * @param status 报告状态
+     * @param delta 增量（可为负数）
+     */
+    public void incrementCount(String courseId, String templateId, String status, int delta) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        Objects.requireNonNull(templateId, "模板ID不能为空");
+        Objects.requireNonNull(status, "报告状态不能为空");
+        this.baseMapper.incrementCount(courseId, templateId, status, delta);
+    }
+
+    /**
+     * 批量按增量更新课程报告计数
+     * @param deltas 计数增量（课程ID、模板ID、状态不重复）
+     */
+    public void incrementCounts(List<ReportCounterDeltaDto> deltas) {
+        Objects.requireNonNull(deltas, "计数增量不能为空");
+        if (!deltas.isEmpty()) {
+            this.baseMapper.incrementCounts(deltas);
+        }
+    }
+
+    /**
+     * 按状态汇总课程下的报告数量
+     * @param courseIds 课程ID列表
+     * @return 各状态的报告数量
+     */
+    public List<ReportStatusCountDto> sumByCourseIds(List<String> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return this.baseMapper.sumByCourseIds(courseIds);
+    }
+
+    /**
+     * 统计计数为负数的行数
+     * @return 行数
+     */
+    public long countNegative() {
+        return this.baseMapper.countNegative();
+    }
+
+    /**
+     * 根据报告表重建全部课程报告计数
+     * @return 重建后的计数行数
+     */
+    public int rebuild() {
+        this.baseMapper.deleteAll();
+        return this.baseMapper.rebuildFromReports();
+    }
+}
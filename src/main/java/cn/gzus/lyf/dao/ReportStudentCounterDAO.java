@@ -0,0 +1,71 @@
+package cn.gzus.lyf.dao;
+
+import cn.gzus.lyf.common.dto.ReportCounterDeltaDto;
+import cn.gzus.lyf.common.dto.ReportStatusCountDto;
+import cn.gzus.lyf.dao.entity.ReportStudentCounterEntity;
+import cn.gzus.lyf.dao.mapper.ReportStudentCounterMapper;
+import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+@Service
+public class ReportStudentCounterDAO extends ServiceImpl<ReportStudentCounterMapper, ReportStudentCounterEntity> {
+
+    /**
+     * 按增量更新学生报告计数
+     * @param studentId 学生ID
+     * @param courseId 课程ID（未关联课程时为 null）
+     * @param status 报告状态
+     * @param delta 增量（可为负数）
+     */
+    public void incrementCount(String studentId, String courseId, String status, int delta) {
+        Objects.requireNonNull(studentId, "学生ID不能为空");
+        Objects.requireNonNull(status, "报告状态不能为空");
+        this.baseMapper.incrementCount(studentId, courseId != null ? courseId : "", status, delta);
+    }
+
+    /**
+     * 批量按增量更新学生报告计数
+     * @param deltas 计数增量（学生ID、课程ID、状态不重复，未关联课程时课程ID为空字符串）
+     */
+    public void incrementCounts(List<ReportCounterDeltaDto> deltas) {
+        Objects.requireNonNull(deltas, "计数增量不能为空");
+        if (!deltas.isEmpty()) {
+            this.baseMapper.incrementCounts(deltas);
+        }
+    }
+
+    /**
+     * 按状态汇总学生在指定课程下的报告数量
+     * @param studentId 学生ID
+     * @param courseIds 课程ID列表
+     * @return 各状态的报告数量
+     */
+    public List<ReportStatusCountDto> sumByStudentIdAndCourseIds(String studentId, List<String> courseIds) {
+        Objects.requireNonNull(studentId, "学生ID不能为空");
+        if (courseIds == null || courseIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return this.baseMapper.sumByStudentIdAndCourseIds(studentId, courseIds);
+    }
+
+    /**
+     * 统计计数为负数的行数
+     * @return 行数
+     */
+    public long countNegative() {
+        return this.baseMapper.countNegative();
+    }
+
+    /**
+     * 根据报告表重建全部学生报告计数
+     * @return 重建后的计数行数
+     */
+    public int rebuild() {
+        this.baseMapper.deleteAll();
+        return this.baseMapper.rebuildFromReports();
+    }
+}
@@ -14,7 +14,10 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.Objects;
 
 @Service
@@ -31,6 +34,34 @@ public class UserDAO extends ServiceImpl<UserMapper, UserEntity> {
                 .eq(UserEntity::getUsername, userName));
     }
 
+    /**
+     * 根据用户名列表批量查询用户（仅包含ID、用户名、状态）
+     * @param userNames 用户名列表
+     * @return 用户列表
+     */
+    public List<UserEntity> getUsersByNames(Collection<String> userNames) {
+        if (userNames == null || userNames.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.list(new LambdaQueryWrapper<UserEntity>()
+                .select(UserEntity::getId, UserEntity::getUsername, UserEntity::getStatus)
+                .in(UserEntity::getUsername, userNames));
+    }
+
+    /**
+     * 根据ID列表批量查询用户（仅包含ID、用户名、显示名称）
+     * @param userIds 用户ID列表
+     * @return 用户列表
+     */
+    public List<UserEntity> getUsersByIds(Collection<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return this.list(new LambdaQueryWrapper<UserEntity>()
+                .select(UserEntity::getId, UserEntity::getUsername, UserEntity::getDisplayName)
+                .in(UserEntity::getId, userIds));
+    }
+
     /**
      * 新增用户
      * @param userEntity
@@ -1,5 +1,7 @@
 package cn.gzus.lyf.dao.entity;
 
+import cn.gzus.lyf.dao.handler.CompressedContentTypeHandler;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 
 import java.util.Date;
@@ -7,7 +9,7 @@ import java.util.Date;
 /**
  * 实验报告表实体类
  */
-@TableName("experiment_report")
+@TableName(value = "experiment_report", autoResultMap = true)
 public class ExperimentReportEntity {
 
     /**
@@ -33,6 +35,7 @@ public class ExperimentReportEntity {
     /**
      * 报告内容(JSON格式)
      */
+    @TableField(typeHandler = CompressedContentTypeHandler.class)
     private String reportContent;
 
     /**
@@ -70,6 +73,21 @@ public class ExperimentReportEntity {
      */
     private String pdfUrl;
 
+    /**
+     * 系统生成的PDF文件对象名称（提交后异步生成，与学生上传的 pdfUrl 分开保存）
+     */
+    private String renderedPdfUrl;
+
+    /**
+     * PDF生成失败轮数（每轮重试用尽计1次，退回时清零）
+     */
+    private Integer pdfRenderFailures;
+
+    /**
+     * 版本号（乐观锁，内容每次修改加1）
+     */
+    private Integer version;
+
     /**
      * 创建时间
      */
@@ -176,6 +194,22 @@ public class ExperimentReportEntity {
         this.pdfUrl = pdfUrl;
     }
 
+    public String getRenderedPdfUrl() {
+        return renderedPdfUrl;
+    }
+
+    public void setRenderedPdfUrl(String renderedPdfUrl) {
+        this.renderedPdfUrl = renderedPdfUrl;
+    }
+
+    public Integer getPdfRenderFailures() {
+        return pdfRenderFailures;
+    }
+
+    public void setPdfRenderFailures(Integer pdfRenderFailures) {
+        this.pdfRenderFailures = pdfRenderFailures;
+    }
+
     public Date getCreateTime() {
         return createTime;
     }
@@ -191,4 +225,12 @@ public class ExperimentReportEntity {
     public void setUpdateTime(Date updateTime) {
         this.updateTime = updateTime;
     }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
 }
@@ -1,5 +1,7 @@
 package cn.gzus.lyf.dao.entity;
 
+import cn.gzus.lyf.dao.handler.CompressedContentTypeHandler;
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 
 import java.util.Date;
@@ -7,7 +9,7 @@ import java.util.Date;
 /**
  * 实验模板表实体类
  */
-@TableName("experiment_template")
+@TableName(value = "experiment_template", autoResultMap = true)
 public class ExperimentTemplateEntity {
 
     /**
@@ -23,8 +25,14 @@ public class ExperimentTemplateEntity {
     /**
      * 模板内容(JSON格式,包含拖拽组件配置)
      */
+    @TableField(typeHandler = CompressedContentTypeHandler.class)
     private String templateContent;
 
+    /**
+     * 模板版本（内容每次修改加1，各版本内容保存在模板版本表）
+     */
+    private Integer version;
+
     /**
      * 模板描述
      */
@@ -69,6 +77,14 @@ public class ExperimentTemplateEntity {
         this.templateContent = templateContent;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public String getDescription() {
         return description;
     }
@@ -0,0 +1,67 @@
+package cn.gzus.lyf.dao.entity;
+
+import cn.gzus.lyf.dao.handler.CompressedContentTypeHandler;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.util.Date;
+
+/**
+ * 实验模板版本表实体类
+ */
+@TableName(value = "experiment_template_version", autoResultMap = true)
+public class ExperimentTemplateVersionEntity {
+
+    /**
+     * 模板ID
+     */
+    private String templateId;
+
+    /**
+     * 模板版本
+     */
+    private Integer version;
+
+    /**
+     * 该版本的模板内容
+     */
+    @TableField(typeHandler = CompressedContentTypeHandler.class)
+    private String templateContent;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public String getTemplateContent() {
+        return templateContent;
+    }
+
+    public void setTemplateContent(String templateContent) {
+        this.templateContent = templateContent;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+}
@@ -35,6 +35,11 @@ public class FileEntity {
      */
     private String contentType;
 
+    /**
+     * 对象存储返回的 ETag（不含引号）
+     */
+    private String etag;
+
     /**
      * 上传者ID
      */
@@ -100,4 +105,12 @@ public class FileEntity {
     public void setCreateTime(Date createTime) {
         this.createTime = createTime;
     }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
 }
@@ -0,0 +1,155 @@
+package cn.gzus.lyf.dao.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.util.Date;
+
+/**
+ * 文件分片上传会话表实体类
+ */
+@TableName("file_upload_session")
+public class FileUploadSessionEntity {
+
+    /**
+     * 会话ID（UUID）
+     */
+    private String id;
+
+    /**
+     * 文件对象名称（合并后的objectName）
+     */
+    private String objectName;
+
+    /**
+     * 对象存储的分片上传ID
+     */
+    private String uploadId;
+
+    /**
+     * 原始文件名
+     */
+    private String originalName;
+
+    /**
+     * 文件类型（MIME类型）
+     */
+    private String contentType;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 分片大小（字节，最后一个分片除外）
+     */
+    private Long partSize;
+
+    /**
+     * 分片数量
+     */
+    private Integer partCount;
+
+    /**
+     * 上传者ID
+     */
+    private String uploaderId;
+
+    /**
+     * 创建时间
+     */
+    private Date createTime;
+
+    /**
+     * 过期时间（过期未完成的会话被取消）
+     */
+    private Date expireTime;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getObjectName() {
+        return objectName;
+    }
+
+    public void setObjectName(String objectName) {
+        this.objectName = objectName;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public String getOriginalName() {
+        return originalName;
+    }
+
+    public void setOriginalName(String originalName) {
+        this.originalName = originalName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public Long getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(Long partSize) {
+        this.partSize = partSize;
+    }
+
+    public Integer getPartCount() {
+        return partCount;
+    }
+
+    public void setPartCount(Integer partCount) {
+        this.partCount = partCount;
+    }
+
+    public String getUploaderId() {
+        return uploaderId;
+    }
+
+    public void setUploaderId(String uploaderId) {
+        this.uploaderId = uploaderId;
+    }
+
+    public Date getCreateTime() {
+        return createTime;
+    }
+
+    public void setCreateTime(Date createTime) {
+        this.createTime = createTime;
+    }
+
+    public Date getExpireTime() {
+        return expireTime;
+    }
+
+    public void setExpireTime(Date expireTime) {
+        this.expireTime = expireTime;
+    }
+}
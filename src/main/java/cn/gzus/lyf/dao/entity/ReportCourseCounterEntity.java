@@ -0,0 +1,78 @@
+package cn.gzus.lyf.dao.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.util.Date;
+
+/**
+ * 课程报告计数表实体类
+ * 按 (课程ID, 模板ID, 报告状态) 维护报告数量
+ */
+@TableName("report_course_counter")
+public class ReportCourseCounterEntity {
+
+    /**
+     * 课程ID
+     */
+    private String courseId;
+
+    /**
+     * 模板ID
+     */
+    private String templateId;
+
+    /**
+     * 报告状态
+     */
+    private String status;
+
+    /**
+     * 报告数量
+     */
+    private Integer reportCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getReportCount() {
+        return reportCount;
+    }
+
+    public void setReportCount(Integer reportCount) {
+        this.reportCount = reportCount;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+}
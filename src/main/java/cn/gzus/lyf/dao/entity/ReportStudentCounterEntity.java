@@ -0,0 +1,78 @@
+package cn.gzus.lyf.dao.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+
+import java.util.Date;
+
+/**
+ * 学生报告计数表实体类
+ * 按 (学生ID, 课程ID, 报告状态) 维护报告数量
+ */
+@TableName("report_student_counter")
+public class ReportStudentCounterEntity {
+
+    /**
+     * 学生ID
+     */
+    private String studentId;
+
+    /**
+     * 课程ID（未关联课程的报告为空字符串）
+     */
+    private String courseId;
+
+    /**
+     * 报告状态
+     */
+    private String status;
+
+    /**
+     * 报告数量
+     */
+    private Integer reportCount;
+
+    /**
+     * 更新时间
+     */
+    private Date updateTime;
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(String studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getCourseId() {
+        return courseId;
+    }
+
+    public void setCourseId(String courseId) {
+        this.courseId = courseId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getReportCount() {
+        return reportCount;
+    }
+
+    public void setReportCount(Integer reportCount) {
+        this.reportCount = reportCount;
+    }
+
+    public Date getUpdateTime() {
+        return updateTime;
+    }
+
+    public void setUpdateTime(Date updateTime) {
+        this.updateTime = updateTime;
+    }
+}
@@ -0,0 +1,51 @@
+package cn.gzus.lyf.dao.handler;
+
+import cn.gzus.lyf.common.util.ContentCodec;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 大字段内容类型处理器：写入时按 ContentCodec 编码（可压缩），读取时解码
+ * 对应列类型为 MEDIUMBLOB。由 Spring 创建并注册到 MyBatis，实体字段、Mapper 参数按类型引用时使用该实例
+ */
+@Component
+@MappedTypes(String.class)
+@MappedJdbcTypes(JdbcType.BLOB)
+public class CompressedContentTypeHandler extends BaseTypeHandler<String> {
+
+    private ContentCodec contentCodec;
+
+    @Autowired
+    public void setContentCodec(ContentCodec contentCodec) {
+        this.contentCodec = contentCodec;
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType) throws SQLException {
+        ps.setBytes(i, contentCodec.encode(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return contentCodec.decode(rs.getBytes(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return contentCodec.decode(rs.getBytes(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return contentCodec.decode(cs.getBytes(columnIndex));
+    }
+}
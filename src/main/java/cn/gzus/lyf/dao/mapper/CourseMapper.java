@@ -1,9 +1,46 @@
 package cn.gzus.lyf.dao.mapper;
 
+import cn.gzus.lyf.common.dto.CourseCountDriftDto;
 import cn.gzus.lyf.dao.entity.CourseEntity;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface CourseMapper extends BaseMapper<CourseEntity> {
+
+    /**
+     * 根据关联表重新统计课程的管理者、学生、实验模板数量（单条SQL，在数据库内计数）
+     * @param courseId 课程ID
+     * @return 影响行数
+     */
+    @Update("UPDATE course c SET"
+            + " c.admin_count = (SELECT COUNT(*) FROM course_user_relation cur WHERE cur.course_id = c.id AND cur.user_type = 1),"
+            + " c.student_count = (SELECT COUNT(*) FROM course_user_relation cur WHERE cur.course_id = c.id AND cur.user_type = 2),"
+            + " c.template_count = (SELECT COUNT(*) FROM course_template_relation ctr WHERE ctr.course_id = c.id),"
+            + " c.update_time = NOW()"
+            + " WHERE c.id = #{courseId}")
+    int refreshCounts(@Param("courseId") String courseId);
+
+    /**
+     * 查询统计数量与关联表实际数量不一致的课程
+     * @return 数量偏差列表
+     */
+    @Select("SELECT c.id AS course_id, c.admin_count, c.student_count, c.template_count,"
+            + "       IFNULL(u.admin_count, 0) AS actual_admin_count,"
+            + "       IFNULL(u.student_count, 0) AS actual_student_count,"
+            + "       IFNULL(t.template_count, 0) AS actual_template_count"
+            + " FROM course c"
+            + " LEFT JOIN (SELECT course_id, SUM(user_type = 1) AS admin_count, SUM(user_type = 2) AS student_count"
+            + "            FROM course_user_relation GROUP BY course_id) u ON u.course_id = c.id"
+            + " LEFT JOIN (SELECT course_id, COUNT(*) AS template_count"
+            + "            FROM course_template_relation GROUP BY course_id) t ON t.course_id = c.id"
+            + " WHERE c.admin_count <> IFNULL(u.admin_count, 0)"
+            + "    OR c.student_count <> IFNULL(u.student_count, 0)"
+            + "    OR c.template_count <> IFNULL(t.template_count, 0)")
+    List<CourseCountDriftDto> selectCountDrift();
 }
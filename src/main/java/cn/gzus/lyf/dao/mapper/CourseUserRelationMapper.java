@@ -2,8 +2,68 @@ package cn.gzus.lyf.dao.mapper;
 
 import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface CourseUserRelationMapper extends BaseMapper<CourseUserRelationEntity> {
+
+    /**
+     * 批量绑定课程用户，(course_id, user_id) 已存在时只更新用户类型
+     * @param relations 课程-用户关联列表
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO course_user_relation (id, course_id, user_id, user_type) VALUES "
+            + "<foreach collection='relations' item='r' separator=','>"
+            + "(#{r.id}, #{r.courseId}, #{r.userId}, #{r.userType})"
+            + "</foreach>"
+            + " ON DUPLICATE KEY UPDATE user_type = VALUES(user_type)"
+            + "</script>")
+    int upsertBatch(@Param("relations") List<CourseUserRelationEntity> relations);
+
+    /**
+     * 批量绑定课程用户，(course_id, user_id) 已存在时跳过
+     * @param relations 课程-用户关联列表
+     * @return 新绑定的行数
+     */
+    @Insert("<script>"
+            + "INSERT IGNORE INTO course_user_relation (id, course_id, user_id, user_type) VALUES "
+            + "<foreach collection='relations' item='r' separator=','>"
+            + "(#{r.id}, #{r.courseId}, #{r.userId}, #{r.userType})"
+            + "</foreach>"
+            + "</script>")
+    int insertIgnoreBatch(@Param("relations") List<CourseUserRelationEntity> relations);
+
+    /**
+     * 批量更新课程用户的用户类型
+     * @param courseId 课程ID
+     * @param userIds 用户ID列表
+     * @param userType 用户类型
+     * @return 更新行数
+     */
+    @Update("<script>"
+            + "UPDATE course_user_relation SET user_type = #{userType} "
+            + "WHERE course_id = #{courseId} AND user_type &lt;&gt; #{userType} AND user_id IN "
+            + "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>"
+            + "</script>")
+    int updateUserType(@Param("courseId") String courseId, @Param("userIds") List<String> userIds,
+                       @Param("userType") int userType);
+
+    /**
+     * 批量解除课程绑定的用户
+     * @param courseId 课程ID
+     * @param userIds 用户ID列表
+     * @return 删除行数
+     */
+    @Delete("<script>"
+            + "DELETE FROM course_user_relation WHERE course_id = #{courseId} AND user_id IN "
+            + "<foreach collection='userIds' item='userId' open='(' separator=',' close=')'>#{userId}</foreach>"
+            + "</script>")
+    int deleteByUserIds(@Param("courseId") String courseId, @Param("userIds") List<String> userIds);
 }
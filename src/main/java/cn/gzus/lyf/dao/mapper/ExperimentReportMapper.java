@@ -1,9 +1,104 @@
 package cn.gzus.lyf.dao.mapper;
 
+import cn.gzus.lyf.common.dto.ReportGradeItemDto;
+import cn.gzus.lyf.common.dto.ReportOverviewDto;
+import cn.gzus.lyf.common.dto.StoredContentDto;
 import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.Date;
+import java.util.List;
 
 @Mapper
 public interface ExperimentReportMapper extends BaseMapper<ExperimentReportEntity> {
+
+    /**
+     * 查询学生的实验报告概览
+     * 以学生参与课堂的课堂-模板关联为主表，每个关联只取一份报告（优先已提交/已评价，其次草稿/已退回），
+     * 状态过滤、排序与分页均在SQL中完成
+     * @param studentId 学生ID
+     * @param userType 课堂-用户关联中的学生类型
+     * @param status 报告状态（可选）
+     * @param offset 分页偏移量（可选）
+     * @param size 每页大小（可选）
+     * @return 报告概览列表
+     */
+    @Select("<script>"
+            + "SELECT t.* FROM ("
+            + "  SELECT ctr.course_id, ctr.template_id, IFNULL(c.course_name, '') AS course_name,"
+            + "         tpl.template_name, tpl.description AS template_description,"
+            + "         r.id AS report_id, r.report_name, r.submit_time, r.score, r.comment,"
+            + "         CASE WHEN r.id IS NULL THEN 'pending'"
+            + "              WHEN r.status IS NOT NULL AND r.status &lt;&gt; '' THEN r.status"
+            + "              WHEN r.submit_time IS NULL THEN 'draft'"
+            + "              WHEN r.score IS NULL THEN 'submitted'"
+            + "              ELSE 'graded' END AS status"
+            + "  FROM course_user_relation cur"
+            + "  JOIN course_template_relation ctr ON ctr.course_id = cur.course_id"
+            + "  JOIN experiment_template tpl ON tpl.id = ctr.template_id"
+            + "  LEFT JOIN course c ON c.id = ctr.course_id"
+            + "  LEFT JOIN experiment_report r ON r.id = ("
+            + "      SELECT r2.id FROM experiment_report r2"
+            + "      WHERE r2.student_id = cur.user_id AND r2.course_id = ctr.course_id AND r2.template_id = ctr.template_id"
+            + "      ORDER BY CASE WHEN r2.status IN ('submitted', 'graded') THEN 0 ELSE 1 END,"
+            + "               CASE WHEN r2.status IN ('submitted', 'graded') THEN r2.submit_time ELSE r2.update_time END DESC"
+            + "      LIMIT 1)"
+            + "  WHERE cur.user_id = #{studentId} AND cur.user_type = #{userType}"
+            + ") t"
+            + "<where>"
+            + "  <if test='status != null and status != \"\"'>t.status = #{status}</if>"
+            + "</where>"
+            + " ORDER BY t.submit_time IS NULL, t.submit_time DESC, t.course_id, t.template_id"
+            + "<if test='offset != null and size != null'> LIMIT #{offset}, #{size}</if>"
+            + "</script>")
+    List<ReportOverviewDto> selectReportOverview(@Param("studentId") String studentId,
+                                                 @Param("userType") Integer userType,
+                                                 @Param("status") String status,
+                                                 @Param("offset") Integer offset,
+                                                 @Param("size") Integer size);
+
+    /**
+     * 按ID顺序分块读取报告内容的存储字节（不解码）
+     * @param afterId 上一块最后一条记录的ID
+     * @param limit 每块条数
+     * @return 存储内容列表
+     */
+    @Select("SELECT id, report_content AS content FROM experiment_report WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<StoredContentDto> selectStoredContent(@Param("afterId") String afterId, @Param("limit") int limit);
+
+    /**
+     * 重写报告内容的存储字节（内容未被并发修改时才更新，不改变更新时间）
+     * @param id 记录ID
+     * @param oldContent 原存储字节
+     * @param newContent 新存储字节
+     * @return 更新行数
+     */
+    @Update("UPDATE experiment_report SET report_content = #{newContent}, update_time = update_time"
+            + " WHERE id = #{id} AND report_content = #{oldContent}")
+    int updateStoredContent(@Param("id") String id, @Param("oldContent") byte[] oldContent,
+                            @Param("newContent") byte[] newContent);
+
+    /**
+     * 批量评分（一条语句，各报告的分数、评语不同；只更新仍为已提交状态的报告）
+     * @param items 评分项（报告ID不重复）
+     * @param gradeTime 评价时间
+     * @return 更新行数
+     */
+    @Update("<script>"
+            + "UPDATE experiment_report SET status = 'graded',"
+            + " score = CASE id"
+            + "<foreach collection='items' item='item'> WHEN #{item.reportId} THEN #{item.score}</foreach>"
+            + " END,"
+            + " comment = CASE id"
+            + "<foreach collection='items' item='item'> WHEN #{item.reportId} THEN #{item.comment}</foreach>"
+            + " END,"
+            + " grade_time = #{gradeTime}, update_time = #{gradeTime}, version = version + 1"
+            + " WHERE status = 'submitted' AND id IN"
+            + "<foreach collection='items' item='item' open='(' separator=',' close=')'>#{item.reportId}</foreach>"
+            + "</script>")
+    int gradeReports(@Param("items") List<ReportGradeItemDto> items, @Param("gradeTime") Date gradeTime);
 }
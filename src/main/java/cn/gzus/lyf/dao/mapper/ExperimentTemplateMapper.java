@@ -1,9 +1,36 @@
 package cn.gzus.lyf.dao.mapper;
 
+import cn.gzus.lyf.common.dto.StoredContentDto;
 import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.util.List;
 
 @Mapper
 public interface ExperimentTemplateMapper extends BaseMapper<ExperimentTemplateEntity> {
+
+    /**
+     * 按ID顺序分块读取模板内容的存储字节（不解码）
+     * @param afterId 上一块最后一条记录的ID
+     * @param limit 每块条数
+     * @return 存储内容列表
+     */
+    @Select("SELECT id, template_content AS content FROM experiment_template WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<StoredContentDto> selectStoredContent(@Param("afterId") String afterId, @Param("limit") int limit);
+
+    /**
+     * 重写模板内容的存储字节（内容未被并发修改时才更新，不改变更新时间）
+     * @param id 记录ID
+     * @param oldContent 原存储字节
+     * @param newContent 新存储字节
+     * @return 更新行数
+     */
+    @Update("UPDATE experiment_template SET template_content = #{newContent}, update_time = update_time"
+            + " WHERE id = #{id} AND template_content = #{oldContent}")
+    int updateStoredContent(@Param("id") String id, @Param("oldContent") byte[] oldContent,
+                            @Param("newContent") byte[] newContent);
 }
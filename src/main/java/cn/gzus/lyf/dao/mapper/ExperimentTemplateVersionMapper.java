@@ -0,0 +1,20 @@
+package cn.gzus.lyf.dao.mapper;
+
+import cn.gzus.lyf.dao.entity.ExperimentTemplateVersionEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+
+@Mapper
+public interface ExperimentTemplateVersionMapper extends BaseMapper<ExperimentTemplateVersionEntity> {
+
+    /**
+     * 保存模板版本（版本已存在时忽略，版本内容只增不改）
+     * @param entity 模板版本
+     * @return 插入行数
+     */
+    @Insert("INSERT IGNORE INTO experiment_template_version (template_id, version, template_content, create_time)"
+            + " VALUES (#{templateId}, #{version},"
+            + " #{templateContent,typeHandler=cn.gzus.lyf.dao.handler.CompressedContentTypeHandler}, #{createTime})")
+    int insertIgnore(ExperimentTemplateVersionEntity entity);
+}
@@ -0,0 +1,7 @@
+package cn.gzus.lyf.dao.mapper;
+
+import cn.gzus.lyf.dao.entity.FileUploadSessionEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+
+public interface FileUploadSessionMapper extends BaseMapper<FileUploadSessionEntity> {
+}
@@ -0,0 +1,87 @@
+package cn.gzus.lyf.dao.mapper;
+
+import cn.gzus.lyf.common.dto.ReportCounterDeltaDto;
+import cn.gzus.lyf.common.dto.ReportStatusCountDto;
+import cn.gzus.lyf.dao.entity.ReportCourseCounterEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface ReportCourseCounterMapper extends BaseMapper<ReportCourseCounterEntity> {
+
+    /**
+     * 按增量更新计数，计数行不存在时自动创建（计数不截断，出现负数说明存在偏差，由对账发现并修正）
+     * @param courseId 课程ID
+     * @param templateId 模板ID
+     * @param status 报告状态
+     * @param delta 增量（可为负数）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO report_course_counter (course_id, template_id, status, report_count, update_time)"
+            + " VALUES (#{courseId}, #{templateId}, #{status}, #{delta}, NOW())"
+            + " ON DUPLICATE KEY UPDATE report_count = report_count + #{delta}, update_time = NOW()")
+    int incrementCount(@Param("courseId") String courseId,
+                       @Param("templateId") String templateId,
+                       @Param("status") String status,
+                       @Param("delta") int delta);
+
+    /**
+     * 批量按增量更新计数（一条语句），计数行不存在时自动创建
+     * @param deltas 计数增量（课程ID、模板ID、状态不重复）
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO report_course_counter (course_id, template_id, status, report_count, update_time)"
+            + " SELECT d.course_id, d.template_id, d.status, d.delta, NOW() FROM ("
+            + "<foreach collection='deltas' item='item' separator=' UNION ALL '>"
+            + "SELECT #{item.courseId} AS course_id, #{item.templateId} AS template_id,"
+            + " #{item.status} AS status, #{item.delta} AS delta"
+            + "</foreach>"
+            + ") d"
+            + " ON DUPLICATE KEY UPDATE report_count = report_count + d.delta, update_time = NOW()"
+            + "</script>")
+    int incrementCounts(@Param("deltas") List<ReportCounterDeltaDto> deltas);
+
+    /**
+     * 按状态汇总课程下的报告数量
+     * @param courseIds 课程ID列表（不能为空）
+     * @return 各状态的报告数量
+     */
+    @Select("<script>"
+            + "SELECT status, SUM(report_count) AS report_count FROM report_course_counter"
+            + " WHERE course_id IN "
+            + "<foreach collection='courseIds' item='courseId' open='(' separator=',' close=')'>#{courseId}</foreach>"
+            + " GROUP BY status"
+            + "</script>")
+    List<ReportStatusCountDto> sumByCourseIds(@Param("courseIds") List<String> courseIds);
+
+    /**
+     * 统计计数为负数的行数（增量维护出现偏差）
+     * @return 行数
+     */
+    @Select("SELECT COUNT(*) FROM report_course_counter WHERE report_count < 0")
+    long countNegative();
+
+    /**
+     * 清空计数表
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM report_course_counter")
+    int deleteAll();
+
+    /**
+     * 根据报告表重新生成计数
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO report_course_counter (course_id, template_id, status, report_count, update_time)"
+            + " SELECT course_id, template_id, IFNULL(NULLIF(status, ''), 'draft'), COUNT(*), NOW()"
+            + " FROM experiment_report WHERE course_id IS NOT NULL"
+            + " GROUP BY course_id, template_id, IFNULL(NULLIF(status, ''), 'draft')")
+    int rebuildFromReports();
+}
@@ -0,0 +1,89 @@
+package cn.gzus.lyf.dao.mapper;
+
+import cn.gzus.lyf.common.dto.ReportCounterDeltaDto;
+import cn.gzus.lyf.common.dto.ReportStatusCountDto;
+import cn.gzus.lyf.dao.entity.ReportStudentCounterEntity;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface ReportStudentCounterMapper extends BaseMapper<ReportStudentCounterEntity> {
+
+    /**
+     * 按增量更新计数，计数行不存在时自动创建（计数不截断，出现负数说明存在偏差，由对账发现并修正）
+     * @param studentId 学生ID
+     * @param courseId 课程ID（未关联课程时为空字符串）
+     * @param status 报告状态
+     * @param delta 增量（可为负数）
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO report_student_counter (student_id, course_id, status, report_count, update_time)"
+            + " VALUES (#{studentId}, #{courseId}, #{status}, #{delta}, NOW())"
+            + " ON DUPLICATE KEY UPDATE report_count = report_count + #{delta}, update_time = NOW()")
+    int incrementCount(@Param("studentId") String studentId,
+                       @Param("courseId") String courseId,
+                       @Param("status") String status,
+                       @Param("delta") int delta);
+
+    /**
+     * 批量按增量更新计数（一条语句），计数行不存在时自动创建
+     * @param deltas 计数增量（学生ID、课程ID、状态不重复）
+     * @return 影响行数
+     */
+    @Insert("<script>"
+            + "INSERT INTO report_student_counter (student_id, course_id, status, report_count, update_time)"
+            + " SELECT d.student_id, d.course_id, d.status, d.delta, NOW() FROM ("
+            + "<foreach collection='deltas' item='item' separator=' UNION ALL '>"
+            + "SELECT #{item.studentId} AS student_id, #{item.courseId} AS course_id,"
+            + " #{item.status} AS status, #{item.delta} AS delta"
+            + "</foreach>"
+            + ") d"
+            + " ON DUPLICATE KEY UPDATE report_count = report_count + d.delta, update_time = NOW()"
+            + "</script>")
+    int incrementCounts(@Param("deltas") List<ReportCounterDeltaDto> deltas);
+
+    /**
+     * 按状态汇总学生在指定课程下的报告数量
+     * @param studentId 学生ID
+     * @param courseIds 课程ID列表（不能为空）
+     * @return 各状态的报告数量
+     */
+    @Select("<script>"
+            + "SELECT status, SUM(report_count) AS report_count FROM report_student_counter"
+            + " WHERE student_id = #{studentId} AND course_id IN "
+            + "<foreach collection='courseIds' item='courseId' open='(' separator=',' close=')'>#{courseId}</foreach>"
+            + " GROUP BY status"
+            + "</script>")
+    List<ReportStatusCountDto> sumByStudentIdAndCourseIds(@Param("studentId") String studentId,
+                                                          @Param("courseIds") List<String> courseIds);
+
+    /**
+     * 统计计数为负数的行数（增量维护出现偏差）
+     * @return 行数
+     */
+    @Select("SELECT COUNT(*) FROM report_student_counter WHERE report_count < 0")
+    long countNegative();
+
+    /**
+     * 清空计数表
+     * @return 影响行数
+     */
+    @Delete("DELETE FROM report_student_counter")
+    int deleteAll();
+
+    /**
+     * 根据报告表重新生成计数
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO report_student_counter (student_id, course_id, status, report_count, update_time)"
+            + " SELECT student_id, IFNULL(course_id, ''), IFNULL(NULLIF(status, ''), 'draft'), COUNT(*), NOW()"
+            + " FROM experiment_report"
+            + " GROUP BY student_id, IFNULL(course_id, ''), IFNULL(NULLIF(status, ''), 'draft')")
+    int rebuildFromReports();
+}
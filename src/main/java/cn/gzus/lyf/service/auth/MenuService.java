@@ -20,6 +20,7 @@ public class MenuService {
 
     private MenuDAO menuDAO;
     private RoleMenuRelationDAO roleMenuRelationDAO;
+    private RoleMenuCache roleMenuCache;
 
     @Autowired
     public void setMenuDAO(MenuDAO menuDAO) {
@@ -31,6 +32,11 @@ public class MenuService {
         this.roleMenuRelationDAO = roleMenuRelationDAO;
     }
 
+    @Autowired
+    public void setRoleMenuCache(RoleMenuCache roleMenuCache) {
+        this.roleMenuCache = roleMenuCache;
+    }
+
     /**
      * 新增菜单
      * @param menuEntity 菜单实体
@@ -52,7 +58,9 @@ public class MenuService {
             menuEntity.setSort(0);
         }
         
-        return menuDAO.save(menuEntity);
+        boolean result = menuDAO.save(menuEntity);
+        roleMenuCache.refreshAll();
+        return result;
     }
 
     /**
@@ -63,7 +71,10 @@ public class MenuService {
     public boolean updateMenu(MenuEntity menuEntity) {
         Objects.requireNonNull(menuEntity, "菜单实体不能为空");
         Objects.requireNonNull(menuEntity.getId(), "菜单ID不能为空");
-        return menuDAO.updateById(menuEntity);
+        boolean result = menuDAO.updateById(menuEntity);
+        // 菜单内容变更，重建所有角色的菜单快照
+        roleMenuCache.refreshAll();
+        return result;
     }
 
     /**
@@ -88,7 +99,9 @@ public class MenuService {
             throw new RuntimeException("该菜单已被角色关联，无法删除");
         }
         
-        return menuDAO.removeById(menuId);
+        boolean result = menuDAO.removeById(menuId);
+        roleMenuCache.refreshAll();
+        return result;
     }
 
     /**
@@ -0,0 +1,136 @@
+package cn.gzus.lyf.service.auth;
+
+import cn.gzus.lyf.common.dto.RoleMenuSnapshotDto;
+import cn.gzus.lyf.dao.MenuDAO;
+import cn.gzus.lyf.dao.RoleMenuRelationDAO;
+import cn.gzus.lyf.dao.entity.MenuEntity;
+import cn.gzus.lyf.dao.entity.RoleMenuRelationEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 角色菜单快照缓存（角色ID -> 菜单快照）
+ * 首次访问时加载，角色分配菜单或菜单变更时整体替换为新快照，读请求不再访问数据库
+ */
+@Component
+public class RoleMenuCache {
+
+    private static final Comparator<MenuEntity> MENU_ORDER = Comparator
+            .comparing(MenuEntity::getSort, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MenuEntity::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final Map<String, RoleMenuSnapshotDto> snapshots = new ConcurrentHashMap<>();
+
+    private RoleMenuRelationDAO roleMenuRelationDAO;
+    private MenuDAO menuDAO;
+
+    @Autowired
+    public void setRoleMenuRelationDAO(RoleMenuRelationDAO roleMenuRelationDAO) {
+        this.roleMenuRelationDAO = roleMenuRelationDAO;
+    }
+
+    @Autowired
+    public void setMenuDAO(MenuDAO menuDAO) {
+        this.menuDAO = menuDAO;
+    }
+
+    /**
+     * 获取角色菜单快照，未缓存时从数据库加载
+     * @param roleId 角色ID
+     * @return 菜单快照
+     */
+    public RoleMenuSnapshotDto get(String roleId) {
+        return snapshots.computeIfAbsent(roleId, this::load);
+    }
+
+    /**
+     * 重建指定角色的菜单快照（在事务中调用时，于事务提交后执行）
+     * @param roleId 角色ID
+     */
+    public void refresh(String roleId) {
+        afterCommit(() -> snapshots.put(roleId, load(roleId)));
+    }
+
+    /**
+     * 重建所有已缓存角色的菜单快照（在事务中调用时，于事务提交后执行）
+     */
+    public void refreshAll() {
+        afterCommit(() -> {
+            for (String roleId : new ArrayList<>(snapshots.keySet())) {
+                snapshots.put(roleId, load(roleId));
+            }
+        });
+    }
+
+    /**
+     * 移除指定角色的菜单快照
+     * @param roleId 角色ID
+     */
+    public void evict(String roleId) {
+        afterCommit(() -> snapshots.remove(roleId));
+    }
+
+    /**
+     * 从数据库加载角色菜单并生成快照
+     * @param roleId 角色ID
+     * @return 菜单快照
+     */
+    private RoleMenuSnapshotDto load(String roleId) {
+        List<String> menuIds = roleMenuRelationDAO.getRoleMenuRelationsByRoleIds(Collections.singletonList(roleId))
+                .stream()
+                .map(RoleMenuRelationEntity::getMenuId)
+                .collect(Collectors.toList());
+        List<MenuEntity> menus = new ArrayList<>(menuDAO.getMenusByIds(menuIds));
+        menus.sort(MENU_ORDER);
+        return new RoleMenuSnapshotDto(roleId, menus, computeEtag(menus));
+    }
+
+    /**
+     * 根据菜单内容计算 ETag
+     * @param menus 已排序的菜单列表
+     * @return ETag（带引号）
+     */
+    private String computeEtag(List<MenuEntity> menus) {
+        StringBuilder content = new StringBuilder();
+        for (MenuEntity menu : menus) {
+            content.append(menu.getId()).append('|')
+                    .append(menu.getParentId()).append('|')
+                    .append(menu.getMenuName()).append('|')
+                    .append(menu.getMenuCode()).append('|')
+                    .append(menu.getPath()).append('|')
+                    .append(menu.getMenuType()).append('|')
+                    .append(menu.getSort()).append('|')
+                    .append(menu.getUpdateTime() != null ? menu.getUpdateTime().getTime() : null).append('\n');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * 存在活动事务时在提交后执行，否则立即执行，避免快照读取到未提交或已回滚的数据
+     * @param action 执行动作
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
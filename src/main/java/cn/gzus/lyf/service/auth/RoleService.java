@@ -27,6 +27,8 @@ public class RoleService {
     private RoleMenuRelationDAO roleMenuRelationDAO;
     private MenuDAO menuDAO;
     private UserDAO userDAO;
+    private UserDetailsCache userDetailsCache;
+    private RoleMenuCache roleMenuCache;
 
     @Autowired
     public void setRoleDAO(RoleDAO roleDAO) {
@@ -48,6 +50,16 @@ public class RoleService {
         this.userDAO = userDAO;
     }
 
+    @Autowired
+    public void setUserDetailsCache(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @Autowired
+    public void setRoleMenuCache(RoleMenuCache roleMenuCache) {
+        this.roleMenuCache = roleMenuCache;
+    }
+
     /**
      * 新增角色
      * @param roleEntity 角色实体
@@ -68,7 +80,10 @@ public class RoleService {
     public boolean updateRole(RoleEntity roleEntity) {
         Objects.requireNonNull(roleEntity, "角色实体不能为空");
         Objects.requireNonNull(roleEntity.getId(), "角色ID不能为空");
-        return roleDAO.updateById(roleEntity);
+        boolean result = roleDAO.updateById(roleEntity);
+        // 角色变更影响该角色下所有用户的权限信息
+        userDetailsCache.invalidateAll();
+        return result;
     }
 
     /**
@@ -89,7 +104,10 @@ public class RoleService {
         roleMenuRelationDAO.deleteRoleMenuRelationsByRoleId(roleId);
 
         // 再删除角色
-        return roleDAO.deleteRole(roleId);
+        boolean result = roleDAO.deleteRole(roleId);
+        userDetailsCache.invalidateAll();
+        roleMenuCache.evict(roleId);
+        return result;
     }
 
     /**
@@ -133,6 +151,8 @@ public class RoleService {
 
         // 先删除该角色的所有菜单关联
         roleMenuRelationDAO.deleteRoleMenuRelationsByRoleId(roleId);
+        // 事务提交后重建该角色的菜单快照
+        roleMenuCache.refresh(roleId);
 
         // 如果有菜单ID，则重新关联
         if (menuIds != null && !menuIds.trim().isEmpty()) {
@@ -0,0 +1,70 @@
+package cn.gzus.lyf.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token吊销服务
+ * 以用户为粒度记录吊销时间点（epoch），签发时间早于该时间点的Token均视为失效。
+ * 记录只需保留一个Token有效期，之后旧Token已自然过期。
+ */
+@Service
+public class TokenRevocationService {
+
+    @Value("${jwt.expire}")
+    private long expire;
+
+    /**
+     * 吊销记录容量
+     */
+    @Value("${jwt.revocation-cache-size:100000}")
+    private long revocationCacheSize;
+
+    /**
+     * 用户ID -> 吊销时间点（毫秒，按秒取整，与Token签发时间精度一致）
+     */
+    private Cache<String, Long> revokedAt;
+
+    @PostConstruct
+    public void init() {
+        this.revokedAt = Caffeine.newBuilder()
+                .maximumSize(revocationCacheSize)
+                .expireAfterWrite(expire, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * 吊销用户当前已签发的所有Token
+     * @param userId 用户ID
+     */
+    public void revokeUserTokens(String userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedAt.put(userId, now - now % 1000);
+    }
+
+    /**
+     * 判断Token是否已被吊销
+     * @param userId 用户ID
+     * @param issuedAt Token签发时间
+     * @return 是否已吊销
+     */
+    public boolean isRevoked(String userId, Date issuedAt) {
+        if (userId == null) {
+            return false;
+        }
+        Long epoch = revokedAt.getIfPresent(userId);
+        if (epoch == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.getTime() < epoch;
+    }
+}
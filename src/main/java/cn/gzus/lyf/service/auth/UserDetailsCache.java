@@ -0,0 +1,81 @@
+package cn.gzus.lyf.service.auth;
+
+import cn.gzus.lyf.common.dto.CacheStatsDto;
+import cn.gzus.lyf.common.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 登录用户信息缓存（用户名 -> UserDetails）
+ * 用户、角色变更时由 UserService / RoleService 同步失效
+ */
+@Component
+public class UserDetailsCache {
+
+    private static final String CACHE_NAME = "userDetails";
+
+    /**
+     * 缓存容量
+     */
+    @Value("${ems.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    /**
+     * 缓存有效期（秒）
+     */
+    @Value("${ems.user-cache.expire-seconds:300}")
+    private long expireSeconds;
+
+    private Cache<String, UserDto> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取用户信息，未命中时通过 loader 加载并缓存
+     * 返回缓存实例的副本，避免认证后擦除密码影响缓存内容
+     * @param username 用户名
+     * @param loader 加载函数（抛出异常时不缓存）
+     * @return 用户信息
+     */
+    public UserDto get(String username, Function<String, UserDto> loader) {
+        return cache.get(username, loader).copy();
+    }
+
+    /**
+     * 失效指定用户
+     * @param username 用户名
+     */
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    /**
+     * 失效全部用户
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 获取缓存统计信息
+     * @return 缓存统计
+     */
+    public CacheStatsDto getStats() {
+        return CacheStatsDto.of(CACHE_NAME, cache.estimatedSize(), cache.stats());
+    }
+}
@@ -1,7 +1,9 @@
 package cn.gzus.lyf.service.auth;
 
+import cn.gzus.lyf.common.dto.CacheStatsDto;
 import cn.gzus.lyf.common.enums.UserStatusEnum;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.dto.RoleMenuSnapshotDto;
 import cn.gzus.lyf.common.dto.SimpleUserDto;
 import cn.gzus.lyf.common.dto.UserDto;
 import cn.gzus.lyf.common.dto.UserQueryDto;
@@ -27,9 +29,10 @@ public class UserService implements UserDetailsService {
 
     private UserDAO userDAO;
     private RoleDAO roleDAO;
-    private RoleMenuRelationDAO roleMenuRelationDAO;
-    private MenuDAO menuDAO;
     private PasswordEncoder passwordEncoder;
+    private TokenRevocationService tokenRevocationService;
+    private UserDetailsCache userDetailsCache;
+    private RoleMenuCache roleMenuCache;
 
     @Autowired
     public void setUserDAO(UserDAO userDAO) {
@@ -42,22 +45,37 @@ public class UserService implements UserDetailsService {
     }
 
     @Autowired
-    public void setRoleMenuRelationDAO(RoleMenuRelationDAO roleMenuRelationDAO) {
-        this.roleMenuRelationDAO = roleMenuRelationDAO;
+    public void setPasswordEncoder(PasswordEncoder passwordEncoder) {
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Autowired
-    public void setMenuDAO(MenuDAO menuDAO) {
-        this.menuDAO = menuDAO;
+    public void setTokenRevocationService(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Autowired
-    public void setPasswordEncoder(PasswordEncoder passwordEncoder) {
-        this.passwordEncoder = passwordEncoder;
+    public void setUserDetailsCache(UserDetailsCache userDetailsCache) {
+        this.userDetailsCache = userDetailsCache;
+    }
+
+    @Autowired
+    public void setRoleMenuCache(RoleMenuCache roleMenuCache) {
+        this.roleMenuCache = roleMenuCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String userName) throws UsernameNotFoundException {
+        // 优先从缓存获取，未命中时查询数据库（用户不存在或未激活时抛出异常，不缓存）
+        return userDetailsCache.get(userName, this::buildUserDetails);
+    }
+
+    /**
+     * 查询数据库构建登录用户信息
+     * @param userName 用户名
+     * @return 登录用户信息
+     */
+    private UserDto buildUserDetails(String userName) {
         // 1. 查询用户信息
         UserEntity userEntity = userDAO.getUserByName(userName);
         if (userEntity == null) {
@@ -92,10 +110,17 @@ public class UserService implements UserDetailsService {
         if (roleId == null || roleId.isEmpty()) {
             return new java.util.LinkedList<>();
         }
-        List<RoleMenuRelationEntity> roleMenuRelationEntityList = roleMenuRelationDAO.getRoleMenuRelationsByRoleIds(java.util.Collections.singletonList(roleId));
-        return menuDAO.getMenusByIds(roleMenuRelationEntityList.stream()
-                .map(RoleMenuRelationEntity::getMenuId)
-                .collect(Collectors.toList()));
+        return roleMenuCache.get(roleId).getMenus();
+    }
+
+    /**
+     * 根据角色ID获取菜单快照（已排序，带ETag）
+     * @param roleId 角色ID
+     * @return 菜单快照
+     */
+    public RoleMenuSnapshotDto getMenuSnapshot(String roleId) {
+        Objects.requireNonNull(roleId, "角色ID不能为空");
+        return roleMenuCache.get(roleId);
     }
 
     /**
@@ -122,10 +147,33 @@ public class UserService implements UserDetailsService {
      */
     public boolean updateUser(UserEntity userEntity) {
         Objects.requireNonNull(userEntity, "用户实体不能为空");
-        Objects.requireNonNull(userDAO.getById(userEntity.getId()), "用户id不存在");
+        UserEntity existUser = Objects.requireNonNull(userDAO.getById(userEntity.getId()), "用户id不存在");
         // 更新用户信息不允许同时更新用户密码
         userEntity.setPassword(null);
-        return userDAO.updateUser(userEntity);
+        boolean result = userDAO.updateUser(userEntity);
+        if (!result) {
+            return false;
+        }
+        // Token中携带了用户名、角色，状态决定能否登录；这些信息变更后旧Token失效，修改显示名称等不影响已登录的会话
+        if (isChanged(userEntity.getUsername(), existUser.getUsername())
+                || isChanged(userEntity.getRoleId(), existUser.getRoleId())
+                || isChanged(userEntity.getStatus(), existUser.getStatus())) {
+            tokenRevocationService.revokeUserTokens(userEntity.getId());
+        }
+        // 用户名可能被修改，新旧用户名的缓存均需失效
+        userDetailsCache.invalidate(existUser.getUsername());
+        userDetailsCache.invalidate(userEntity.getUsername());
+        return true;
+    }
+
+    /**
+     * 判断字段是否被修改（未传入的字段不修改）
+     * @param newValue 传入的值
+     * @param oldValue 原值
+     * @return 是否被修改
+     */
+    private static boolean isChanged(Object newValue, Object oldValue) {
+        return newValue != null && !newValue.equals(oldValue);
     }
 
     /**
@@ -135,11 +183,17 @@ public class UserService implements UserDetailsService {
      */
     public boolean resetPassword(UserEntity userEntity) {
         Objects.requireNonNull(userEntity, "用户实体不能为空");
-        Objects.requireNonNull(userDAO.getById(userEntity.getId()), "用户id不存在");
+        UserEntity existUser = Objects.requireNonNull(userDAO.getById(userEntity.getId()), "用户id不存在");
         // 对新密码进行加密
         String encryptedPassword = passwordEncoder.encode(userEntity.getPassword());
         userEntity.setPassword(encryptedPassword);
-        return userDAO.updateUser(userEntity);
+        boolean result = userDAO.updateUser(userEntity);
+        if (result) {
+            tokenRevocationService.revokeUserTokens(userEntity.getId());
+        }
+        userDetailsCache.invalidate(existUser.getUsername());
+        userDetailsCache.invalidate(userEntity.getUsername());
+        return result;
     }
 
     /**
@@ -148,10 +202,15 @@ public class UserService implements UserDetailsService {
      * @return 是否成功
      */
     public boolean deleteUser(String userId) {
-        Objects.requireNonNull(userDAO.getById(userId), "用户id不存在");
+        UserEntity existUser = Objects.requireNonNull(userDAO.getById(userId), "用户id不存在");
 
         // 再删除用户
-        return userDAO.deleteUser(userId);
+        boolean result = userDAO.deleteUser(userId);
+        if (result) {
+            tokenRevocationService.revokeUserTokens(userId);
+        }
+        userDetailsCache.invalidate(existUser.getUsername());
+        return result;
     }
 
     /**
@@ -165,6 +224,14 @@ public class UserService implements UserDetailsService {
         return userDAO.getUserPage(current, size, userQueryDto);
     }
 
+    /**
+     * 获取登录用户缓存统计信息
+     * @return 缓存统计
+     */
+    public CacheStatsDto getUserCacheStats() {
+        return userDetailsCache.getStats();
+    }
+
     /**
      * 获取简单用户列表（仅包含ID、用户名、显示名称）
      */
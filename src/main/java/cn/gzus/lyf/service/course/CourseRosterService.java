@@ -0,0 +1,169 @@
+package cn.gzus.lyf.service.course;
+
+import cn.gzus.lyf.common.dto.RosterImportResultDto;
+import cn.gzus.lyf.common.enums.UserStatusEnum;
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.dao.CourseDAO;
+import cn.gzus.lyf.dao.CourseUserRelationDAO;
+import cn.gzus.lyf.dao.UserDAO;
+import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
+import cn.gzus.lyf.dao.entity.UserEntity;
+import org.apache.commons.lang3.ObjectUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 课程名单导入服务
+ * 逐行读取CSV名单（第一列为用户名/学号），按批次查询用户并绑定到课程，内存占用与文件大小无关；
+ * 绑定可重复执行，跨批次重复的用户名不会重复绑定或重复计数
+ */
+@Service
+public class CourseRosterService {
+
+    /**
+     * 每批查询、绑定的行数
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * 可识别的表头（首个非空行第一列为以下值时跳过）
+     */
+    private static final Set<String> HEADER_NAMES = new HashSet<>(Arrays.asList("username", "用户名", "账号", "学号"));
+
+    private UserDAO userDAO;
+    private CourseDAO courseDAO;
+    private CourseUserRelationDAO courseUserRelationDAO;
+
+    @Autowired
+    public void setUserDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    @Autowired
+    public void setCourseDAO(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
+    }
+
+    @Autowired
+    public void setCourseUserRelationDAO(CourseUserRelationDAO courseUserRelationDAO) {
+        this.courseUserRelationDAO = courseUserRelationDAO;
+    }
+
+    /**
+     * 从CSV导入课程名单
+     * 每批绑定在独立事务中完成，某一行出错不影响其他行
+     * @param courseId 课程ID
+     * @param userType 用户类型（1-管理者，2-学生）
+     * @param inputStream CSV输入流（UTF-8）
+     * @return 导入结果（含错误行明细）
+     */
+    public RosterImportResultDto importRoster(String courseId, int userType, InputStream inputStream) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        Objects.requireNonNull(courseDAO.getCourseById(courseId), "课程不存在");
+        if (userType != CourseUserRelationEntity.USER_TYPE_TEACHER && userType != CourseUserRelationEntity.USER_TYPE_STUDENT) {
+            throw new BusinessException("用户类型不正确");
+        }
+
+        RosterImportResultDto result = new RosterImportResultDto();
+        // 当前批次：用户名 -> 行号
+        Map<String, Long> batch = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            long lineNumber = 0;
+            boolean firstRow = true;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String username = firstColumn(line);
+                if (username.isEmpty()) {
+                    continue;
+                }
+                if (firstRow) {
+                    firstRow = false;
+                    if (HEADER_NAMES.contains(username.toLowerCase())) {
+                        continue;
+                    }
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+                if (batch.putIfAbsent(username, lineNumber) != null) {
+                    result.addError(lineNumber, username, "用户名重复");
+                    continue;
+                }
+                if (batch.size() >= BATCH_SIZE) {
+                    bindBatch(courseId, userType, batch, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                bindBatch(courseId, userType, batch, result);
+            }
+        } catch (IOException e) {
+            throw new BusinessException("名单文件读取失败: " + e.getMessage());
+        } finally {
+            // 已提交的批次可能新增绑定或变更用户类型，均需更新课程统计数量
+            courseDAO.refreshCounts(courseId);
+        }
+        return result;
+    }
+
+    /**
+     * 批量查询并绑定一批用户
+     * @param courseId 课程ID
+     * @param userType 用户类型
+     * @param batch 用户名 -> 行号
+     * @param result 导入结果
+     */
+    private void bindBatch(String courseId, int userType, Map<String, Long> batch, RosterImportResultDto result) {
+        Map<String, UserEntity> userMap = new HashMap<>();
+        for (UserEntity user : userDAO.getUsersByNames(batch.keySet())) {
+            userMap.put(user.getUsername(), user);
+        }
+
+        List<String> userIds = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : batch.entrySet()) {
+            UserEntity user = userMap.get(entry.getKey());
+            if (user == null) {
+                result.addError(entry.getValue(), entry.getKey(), "用户不存在");
+            } else if (ObjectUtils.notEqual(user.getStatus(), UserStatusEnum.ACTIVE.getCode())) {
+                result.addError(entry.getValue(), entry.getKey(), "用户未激活");
+            } else {
+                userIds.add(user.getId());
+            }
+        }
+        if (!userIds.isEmpty()) {
+            int bound = courseUserRelationDAO.bindUsersCountingNew(courseId, userIds, userType);
+            result.setBoundCount(result.getBoundCount() + bound);
+        }
+    }
+
+    /**
+     * 取CSV行的第一列（去除BOM、首尾空白和引号）
+     * @param line CSV行
+     * @return 第一列的值
+     */
+    private String firstColumn(String line) {
+        if (!line.isEmpty() && line.charAt(0) == '\uFEFF') {
+            line = line.substring(1);
+        }
+        int comma = line.indexOf(',');
+        String value = (comma >= 0 ? line.substring(0, comma) : line).trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+}
@@ -1,5 +1,6 @@
 package cn.gzus.lyf.service.course;
 
+import cn.gzus.lyf.common.dto.CourseCountDriftDto;
 import cn.gzus.lyf.common.dto.CourseQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.dao.CourseDAO;
@@ -7,7 +8,10 @@ import cn.gzus.lyf.dao.CourseTemplateRelationDAO;
 import cn.gzus.lyf.dao.CourseUserRelationDAO;
 import cn.gzus.lyf.dao.entity.CourseEntity;
 import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +20,8 @@ import java.util.List;
 @Service
 public class CourseService {
 
+    private static final Logger log = LoggerFactory.getLogger(CourseService.class);
+
     private CourseDAO courseDAO;
 
     private CourseUserRelationDAO courseUserRelationDAO;
@@ -129,12 +135,12 @@ public class CourseService {
      * @param userIds 用户ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean bindUsers(String courseId, List<String> userIds) {
         boolean result = courseUserRelationDAO.bindUsers(courseId, userIds, CourseUserRelationEntity.USER_TYPE_STUDENT);
         if (result) {
-            // 更新学生数量
-            int count = courseUserRelationDAO.getStudentIdsByCourseId(courseId).size();
-            courseDAO.updateStudentCount(courseId, count);
+            // 更新统计数量（已绑定的管理者可能转为学生，管理者数量一并更新）
+            courseDAO.refreshCounts(courseId);
         }
         return result;
     }
@@ -145,12 +151,12 @@ public class CourseService {
      * @param userIds 用户ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean bindAdmins(String courseId, List<String> userIds) {
         boolean result = courseUserRelationDAO.bindUsers(courseId, userIds, CourseUserRelationEntity.USER_TYPE_TEACHER);
         if (result) {
-            // 更新管理者数量
-            int count = courseUserRelationDAO.getAdminIdsByCourseId(courseId).size();
-            courseDAO.updateAdminCount(courseId, count);
+            // 更新统计数量（已绑定的学生可能转为管理者，学生数量一并更新）
+            courseDAO.refreshCounts(courseId);
         }
         return result;
     }
@@ -161,13 +167,12 @@ public class CourseService {
      * @param userIds 用户ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean unbindUsers(String courseId, List<String> userIds) {
         boolean result = courseUserRelationDAO.unbindUsers(courseId, userIds);
         if (result) {
             // 重新计算管理者和学生数量
-            int adminCount = courseUserRelationDAO.getAdminIdsByCourseId(courseId).size();
-            int studentCount = courseUserRelationDAO.getStudentIdsByCourseId(courseId).size();
-            courseDAO.updateCounts(courseId, adminCount, studentCount, null);
+            courseDAO.refreshCounts(courseId);
         }
         return result;
     }
@@ -248,12 +253,12 @@ public class CourseService {
      * @param templateIds 实验模板ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean bindTemplates(String courseId, List<String> templateIds) {
         boolean result = courseTemplateRelationDAO.bindTemplates(courseId, templateIds);
         if (result) {
             // 更新模板数量
-            int count = courseTemplateRelationDAO.getTemplateIdsByCourseId(courseId).size();
-            courseDAO.updateTemplateCount(courseId, count);
+            courseDAO.refreshCounts(courseId);
         }
         return result;
     }
@@ -264,12 +269,12 @@ public class CourseService {
      * @param templateIds 实验模板ID列表
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean unbindTemplates(String courseId, List<String> templateIds) {
         boolean result = courseTemplateRelationDAO.unbindTemplates(courseId, templateIds);
         if (result) {
             // 更新模板数量
-            int count = courseTemplateRelationDAO.getTemplateIdsByCourseId(courseId).size();
-            courseDAO.updateTemplateCount(courseId, count);
+            courseDAO.refreshCounts(courseId);
         }
         return result;
     }
@@ -338,4 +343,32 @@ public class CourseService {
     public long getManagedCourseCount(String userId) {
         return getManagedCourseIds(userId).size();
     }
+
+    /**
+     * 检查课程统计数量与关联表是否一致
+     * @param repair 是否修复不一致的课程
+     * @return 数量不一致的课程列表（修复前的数据）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<CourseCountDriftDto> checkCounts(boolean repair) {
+        List<CourseCountDriftDto> drifts = courseDAO.getCountDrift();
+        if (repair) {
+            for (CourseCountDriftDto drift : drifts) {
+                courseDAO.refreshCounts(drift.getCourseId());
+            }
+        }
+        return drifts;
+    }
+
+    /**
+     * 定时检查并修复课程统计数量偏差
+     */
+    @Scheduled(cron = "${ems.course-counter.reconcile-cron:0 40 3 * * ?}")
+    @Transactional(rollbackFor = Exception.class)
+    public void reconcileCounts() {
+        List<CourseCountDriftDto> drifts = checkCounts(true);
+        if (!drifts.isEmpty()) {
+            log.warn("课程统计数量存在偏差，已修复{}门课程", drifts.size());
+        }
+    }
 }
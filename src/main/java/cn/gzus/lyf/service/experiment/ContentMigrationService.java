@@ -0,0 +1,165 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.dto.ContentMigrationResultDto;
+import cn.gzus.lyf.common.dto.StoredContentDto;
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.common.util.ContentCodec;
+import cn.gzus.lyf.dao.ExperimentReportDAO;
+import cn.gzus.lyf.dao.ExperimentTemplateDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 内容编码迁移服务
+ * 按ID顺序分批读取报告、模板内容的存储字节，按当前编码配置重新编码，与原存储不同的行逐条重写；
+ * 重写时比对原存储字节，迁移期间被修改的行跳过（新写入已按当前编码保存）。可重复执行。
+ * 开启 ems.content-codec.migrate-on-startup 时在启动完成后由后台线程执行，同一时间只执行一次迁移
+ */
+@Service
+public class ContentMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentMigrationService.class);
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * 启动后是否在后台执行迁移
+     */
+    @Value("${ems.content-codec.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    /**
+     * 迁移时每批读取的行数
+     */
+    @Value("${ems.content-codec.migrate-batch-size:200}")
+    private int migrateBatchSize;
+
+    private ExperimentReportDAO reportDAO;
+    private ExperimentTemplateDAO templateDAO;
+    private ContentCodec contentCodec;
+
+    /**
+     * 迁移正在执行
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public void setReportDAO(ExperimentReportDAO reportDAO) {
+        this.reportDAO = reportDAO;
+    }
+
+    @Autowired
+    public void setTemplateDAO(ExperimentTemplateDAO templateDAO) {
+        this.templateDAO = templateDAO;
+    }
+
+    @Autowired
+    public void setContentCodec(ContentCodec contentCodec) {
+        this.contentCodec = contentCodec;
+    }
+
+    /**
+     * 启动完成后在后台线程执行迁移（不阻塞启动和请求处理）
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateInBackground() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                migrate(migrateBatchSize);
+            } catch (Exception e) {
+                log.error("内容编码迁移失败", e);
+            }
+        }, "content-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 迁移报告表和模板表的内容编码（已有迁移在执行时直接报错）
+     * @param batchSize 每批读取的行数
+     * @return 各表的迁移结果
+     */
+    public List<ContentMigrationResultDto> migrate(int batchSize) {
+        if (batchSize <= 0 || batchSize > MAX_BATCH_SIZE) {
+            throw new BusinessException("每批行数应在1到" + MAX_BATCH_SIZE + "之间");
+        }
+        if (!running.compareAndSet(false, true)) {
+            throw new BusinessException("内容编码迁移正在执行");
+        }
+        try {
+            ContentMigrationResultDto templates = migrateTable("experiment_template", batchSize,
+                    templateDAO::getStoredContentChunk, templateDAO::updateStoredContent);
+            ContentMigrationResultDto reports = migrateTable("experiment_report", batchSize,
+                    reportDAO::getStoredContentChunk, reportDAO::updateStoredContent);
+            return Arrays.asList(templates, reports);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 迁移单张表
+     * @param tableName 表名
+     * @param batchSize 每批行数
+     * @param reader 分块读取
+     * @param writer 重写
+     * @return 迁移结果
+     */
+    private ContentMigrationResultDto migrateTable(String tableName, int batchSize, ChunkReader reader, ContentWriter writer) {
+        ContentMigrationResultDto result = new ContentMigrationResultDto(tableName);
+        String afterId = "";
+        List<StoredContentDto> chunk;
+        do {
+            chunk = reader.read(afterId, batchSize);
+            for (StoredContentDto row : chunk) {
+                byte[] stored = row.getContent();
+                byte[] encoded = contentCodec.encode(contentCodec.decode(stored));
+                result.setScannedRows(result.getScannedRows() + 1);
+                result.setBytesBefore(result.getBytesBefore() + stored.length);
+                if (Arrays.equals(stored, encoded)) {
+                    result.setBytesAfter(result.getBytesAfter() + stored.length);
+                } else if (writer.write(row.getId(), stored, encoded)) {
+                    result.setRewrittenRows(result.getRewrittenRows() + 1);
+                    result.setBytesAfter(result.getBytesAfter() + encoded.length);
+                } else {
+                    result.setSkippedRows(result.getSkippedRows() + 1);
+                    result.setBytesAfter(result.getBytesAfter() + stored.length);
+                }
+                afterId = row.getId();
+            }
+        } while (chunk.size() == batchSize);
+
+        log.info("内容编码迁移完成：{}，扫描 {} 行，重写 {} 行，跳过 {} 行，{} -> {} 字节", tableName,
+                result.getScannedRows(), result.getRewrittenRows(), result.getSkippedRows(),
+                result.getBytesBefore(), result.getBytesAfter());
+        return result;
+    }
+
+    /**
+     * 分块读取存储内容
+     */
+    @FunctionalInterface
+    private interface ChunkReader {
+        List<StoredContentDto> read(String afterId, int limit);
+    }
+
+    /**
+     * 重写存储内容
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        boolean write(String id, byte[] oldContent, byte[] newContent);
+    }
+}
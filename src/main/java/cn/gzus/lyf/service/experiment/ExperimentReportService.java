@@ -1,22 +1,19 @@
 package cn.gzus.lyf.service.experiment;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.PageDto;
+import cn.gzus.lyf.common.dto.ReportGradeItemDto;
+import cn.gzus.lyf.common.dto.ReportGradeResultDto;
 import cn.gzus.lyf.common.dto.ReportOverviewDto;
+import cn.gzus.lyf.common.dto.ReportSummaryDto;
 import cn.gzus.lyf.common.enums.ReportStatusEnum;
-import cn.gzus.lyf.dao.CourseDAO;
-import cn.gzus.lyf.dao.CourseTemplateRelationDAO;
-import cn.gzus.lyf.dao.CourseUserRelationDAO;
+import cn.gzus.lyf.common.enums.ResultCode;
+import cn.gzus.lyf.common.exception.BusinessException;
 import cn.gzus.lyf.dao.ExperimentReportDAO;
-import cn.gzus.lyf.dao.ExperimentTemplateDAO;
-import cn.gzus.lyf.dao.entity.CourseEntity;
-import cn.gzus.lyf.dao.entity.CourseTemplateRelationEntity;
-import cn.gzus.lyf.dao.entity.CourseUserRelationEntity;
 import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
-import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,12 +21,17 @@ import java.util.stream.Collectors;
 @Service
 public class ExperimentReportService {
 
+    /**
+     * 单次批量评分的最大报告数
+     */
+    private static final int MAX_BATCH_GRADE_SIZE = 500;
+
     private ExperimentReportDAO reportDAO;
-    private CourseUserRelationDAO courseUserRelationDAO;
-    private CourseTemplateRelationDAO courseTemplateRelationDAO;
-    private CourseDAO courseDAO;
-    private ExperimentTemplateDAO templateDAO;
-    private ObjectMapper objectMapper = new ObjectMapper();
+    private ReportCounterService reportCounterService;
+    private ReportMarkdownWriter reportMarkdownWriter;
+    private ReportPdfService reportPdfService;
+    private ReportDeltaStore reportDeltaStore;
+    private ReportAutosaveService reportAutosaveService;
 
     @Autowired
     public void setReportDAO(ExperimentReportDAO reportDAO) {
@@ -37,23 +39,28 @@ public class ExperimentReportService {
     }
 
     @Autowired
-    public void setCourseUserRelationDAO(CourseUserRelationDAO courseUserRelationDAO) {
-        this.courseUserRelationDAO = courseUserRelationDAO;
+    public void setReportMarkdownWriter(ReportMarkdownWriter reportMarkdownWriter) {
+        this.reportMarkdownWriter = reportMarkdownWriter;
+    }
+
+    @Autowired
+    public void setReportDeltaStore(ReportDeltaStore reportDeltaStore) {
+        this.reportDeltaStore = reportDeltaStore;
     }
 
     @Autowired
-    public void setCourseTemplateRelationDAO(CourseTemplateRelationDAO courseTemplateRelationDAO) {
-        this.courseTemplateRelationDAO = courseTemplateRelationDAO;
+    public void setReportAutosaveService(ReportAutosaveService reportAutosaveService) {
+        this.reportAutosaveService = reportAutosaveService;
     }
 
     @Autowired
-    public void setCourseDAO(CourseDAO courseDAO) {
-        this.courseDAO = courseDAO;
+    public void setReportPdfService(ReportPdfService reportPdfService) {
+        this.reportPdfService = reportPdfService;
     }
 
     @Autowired
-    public void setTemplateDAO(ExperimentTemplateDAO templateDAO) {
-        this.templateDAO = templateDAO;
+    public void setReportCounterService(ReportCounterService reportCounterService) {
+        this.reportCounterService = reportCounterService;
     }
 
     /**
@@ -61,8 +68,12 @@ public class ExperimentReportService {
      * @param reportEntity 报告实体
      * @return 新增报告的ID
      */
+    @Transactional(rollbackFor = Exception.class)
     public String addReport(ExperimentReportEntity reportEntity) {
-        return reportDAO.addReport(reportEntity);
+        compactContent(reportEntity);
+        String reportId = reportDAO.addReport(reportEntity);
+        reportCounterService.onReportAdded(reportEntity);
+        return reportId;
     }
 
     /**
@@ -70,8 +81,16 @@ public class ExperimentReportService {
      * @param reportId 报告ID
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean deleteReport(String reportId) {
-        return reportDAO.deleteReport(reportId);
+        reportAutosaveService.flush(reportId);
+        ExperimentReportEntity report = reportDAO.getReportById(reportId);
+        boolean result = reportDAO.deleteReport(reportId);
+        if (result && report != null) {
+            reportCounterService.onReportDeleted(report);
+            reportPdfService.discard(report.getRenderedPdfUrl());
+        }
+        return result;
     }
 
     /**
@@ -80,37 +99,146 @@ public class ExperimentReportService {
      * @return 是否成功
      */
     public boolean updateReport(ExperimentReportEntity reportEntity) {
+        reportAutosaveService.flush(reportEntity.getId());
+        compactContent(reportEntity);
         return reportDAO.updateReport(reportEntity);
     }
 
     /**
-     * 提交报告
+     * 将报告内容转换为存储内容（模板 JSON 格式的报告只保存模板版本引用和填写数据）
+     * @param reportEntity 报告实体
+     */
+    private void compactContent(ExperimentReportEntity reportEntity) {
+        String content = reportEntity.getReportContent();
+        reportDeltaStore.checkContent(content);
+        if (content == null || !content.trim().startsWith("{")) {
+            return;
+        }
+        String templateId = reportEntity.getTemplateId();
+        if (templateId == null && reportEntity.getId() != null) {
+            ExperimentReportEntity existReport = reportDAO.getReportById(reportEntity.getId());
+            templateId = existReport != null ? existReport.getTemplateId() : null;
+        }
+        reportEntity.setReportContent(reportDeltaStore.compact(templateId, content));
+    }
+
+    /**
+     * 提交报告（草稿、已退回 -> 已提交）
      * @param reportId 报告ID
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean submitReport(String reportId) {
-        return reportDAO.submitReport(reportId);
+        reportAutosaveService.flush(reportId);
+        ExperimentReportEntity report = Objects.requireNonNull(reportDAO.getReportState(reportId), "报告不存在");
+        if (!ReportStatusEnum.isEditable(report.getStatus())) {
+            throw new BusinessException("报告已提交，不能重复提交");
+        }
+        checkTransition(reportDAO.submitReport(reportId, report.getVersion()));
+        reportCounterService.onStatusChanged(report, report.getStatus(), ReportStatusEnum.SUBMITTED.getCode());
+        reportPdfService.requestRender(reportId);
+        return true;
     }
 
     /**
-     * 评分
+     * 评分（已提交 -> 已评价）
      * @param reportId 报告ID
      * @param score 分数
      * @param comment 评语
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean gradeReport(String reportId, Integer score, String comment) {
-        return reportDAO.gradeReport(reportId, score, comment);
+        ExperimentReportEntity report = Objects.requireNonNull(reportDAO.getReportState(reportId), "报告不存在");
+        if (!ReportStatusEnum.SUBMITTED.getCode().equals(report.getStatus())) {
+            throw new BusinessException("只有已提交的报告才能进行评价");
+        }
+        checkTransition(reportDAO.gradeReport(reportId, report.getVersion(), score, comment));
+        reportCounterService.onStatusChanged(report, report.getStatus(), ReportStatusEnum.GRADED.getCode());
+        return true;
     }
 
     /**
-     * 退回报告
+     * 批量评分（已提交 -> 已评价）
+     * 在一个事务中锁定并校验全部报告，可评分的报告用一条语句更新，计数按汇总后的增量批量更新；
+     * 单项校验失败不影响其他项
+     * @param items 评分项
+     * @return 各评分项的结果（与请求顺序一致）
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public List<ReportGradeResultDto> batchGradeReports(List<ReportGradeItemDto> items) {
+        Objects.requireNonNull(items, "评分项不能为空");
+        if (items.size() > MAX_BATCH_GRADE_SIZE) {
+            throw new BusinessException("单次最多评分 " + MAX_BATCH_GRADE_SIZE + " 份报告");
+        }
+
+        Set<String> reportIds = items.stream()
+                .map(ReportGradeItemDto::getReportId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<String, ExperimentReportEntity> reports = reportDAO.lockReportStates(reportIds).stream()
+                .collect(Collectors.toMap(ExperimentReportEntity::getId, report -> report));
+
+        List<ReportGradeResultDto> results = new ArrayList<>(items.size());
+        List<ReportGradeItemDto> accepted = new ArrayList<>();
+        List<ExperimentReportEntity> gradedReports = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (ReportGradeItemDto item : items) {
+            String reportId = item.getReportId();
+            ExperimentReportEntity report = reportId != null ? reports.get(reportId) : null;
+            if (reportId == null) {
+                results.add(ReportGradeResultDto.fail(null, "报告ID不能为空"));
+            } else if (item.getScore() == null) {
+                results.add(ReportGradeResultDto.fail(reportId, "分数不能为空"));
+            } else if (!seen.add(reportId)) {
+                results.add(ReportGradeResultDto.fail(reportId, "报告重复评分"));
+            } else if (report == null) {
+                results.add(ReportGradeResultDto.fail(reportId, "报告不存在"));
+            } else if (!ReportStatusEnum.SUBMITTED.getCode().equals(report.getStatus())) {
+                results.add(ReportGradeResultDto.fail(reportId, "只有已提交的报告才能进行评价"));
+            } else {
+                results.add(ReportGradeResultDto.success(reportId));
+                accepted.add(item);
+                gradedReports.add(report);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            // 报告已加锁，更新数与校验通过数不一致说明数据异常，整体回滚
+            if (reportDAO.gradeReports(accepted) != accepted.size()) {
+                throw new BusinessException(ResultCode.CONFLICT, "报告状态已被修改，请刷新后重试");
+            }
+            reportCounterService.onStatusChanged(gradedReports, ReportStatusEnum.GRADED.getCode());
+        }
+        return results;
+    }
+
+    /**
+     * 退回报告（已提交、已评价 -> 已退回）
      * @param reportId 报告ID
      * @param comment 退回意见
      * @return 是否成功
      */
+    @Transactional(rollbackFor = Exception.class)
     public boolean returnReport(String reportId, String comment) {
-        return reportDAO.returnReport(reportId, comment);
+        ExperimentReportEntity report = Objects.requireNonNull(reportDAO.getReportState(reportId), "报告不存在");
+        if (!ReportStatusEnum.isReturnable(report.getStatus())) {
+            throw new BusinessException("只有已提交或已评价的报告才能退回");
+        }
+        checkTransition(reportDAO.returnReport(reportId, report.getVersion(), comment));
+        reportCounterService.onStatusChanged(report, report.getStatus(), ReportStatusEnum.RETURNED.getCode());
+        reportPdfService.discard(report.getRenderedPdfUrl());
+        return true;
+    }
+
+    /**
+     * 校验状态变更已执行（读取状态后报告被并发修改时条件更新不生效）
+     * @param applied 条件更新是否生效
+     */
+    private void checkTransition(boolean applied) {
+        if (!applied) {
+            throw new BusinessException(ResultCode.CONFLICT, "报告状态已被修改，请刷新后重试");
+        }
     }
 
     /**
@@ -119,7 +247,8 @@ public class ExperimentReportService {
      * @return 报告实体
      */
     public ExperimentReportEntity getReportById(String reportId) {
-        return reportDAO.getReportById(reportId);
+        reportAutosaveService.flush(reportId);
+        return reportDeltaStore.expand(reportDAO.getReportById(reportId));
     }
 
     /**
@@ -127,7 +256,7 @@ public class ExperimentReportService {
      * @param templateId 模板ID
      * @return 报告列表
      */
-    public List<ExperimentReportEntity> getReportsByTemplateId(String templateId) {
+    public List<ReportSummaryDto> getReportsByTemplateId(String templateId) {
         return reportDAO.getReportsByTemplateId(templateId);
     }
 
@@ -138,119 +267,37 @@ public class ExperimentReportService {
      * @param studentId 学生ID
      * @return 分页结果
      */
-    public PageDto<ExperimentReportEntity> getReportPage(Integer current, Integer size, String studentId) {
+    public PageDto<ReportSummaryDto> getReportPage(Integer current, Integer size, String studentId) {
         return reportDAO.getReportPage(current, size, studentId);
     }
 
     /**
-     * 导出报告为Markdown格式
+     * 游标分页查询报告（按更新时间倒序）
+     * @param studentId 学生ID（可选）
+     * @param courseId 课程ID（可选）
+     * @param status 报告状态（可选）
+     * @param cursor 上一页返回的游标（首页为空）
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 游标分页结果
+     */
+    public CursorPageDto<ReportSummaryDto> getReportCursorPage(String studentId, String courseId, String status,
+                                                                     String cursor, Integer size, boolean withTotal) {
+        return reportDAO.getReportCursorPage(studentId, courseId, status, cursor, size, withTotal);
+    }
+
+    /**
+     * 准备报告的Markdown导出（只加载一次报告，内容在写出时流式转换）
      * @param reportId 报告ID
-     * @return Markdown内容
+     * @return 导出对象，报告不存在时返回 null
      */
-    public String exportToMarkdown(String reportId) {
-        ExperimentReportEntity report = reportDAO.getReportById(reportId);
+    public ReportMarkdownWriter.Export prepareMarkdownExport(String reportId) {
+        reportAutosaveService.flush(reportId);
+        ExperimentReportEntity report = reportDeltaStore.expand(reportDAO.getReportById(reportId));
         if (report == null) {
-            return "";
+            return null;
         }
-
-        StringBuilder markdown = new StringBuilder();
-        markdown.append("# ").append(report.getReportName()).append("\n\n");
-
-        try {
-            JsonNode content = objectMapper.readTree(report.getReportContent());
-            JsonNode components = content.get("components");
-            JsonNode inputData = content.get("inputData");
-
-            if (components != null && components.isArray()) {
-                for (int i = 0; i < components.size(); i++) {
-                    JsonNode component = components.get(i);
-                    String type = component.has("type") ? component.get("type").asText() : "";
-                    JsonNode data = component.get("data");
-
-                    switch (type) {
-                        case "text":
-                            if (data != null && data.has("content")) {
-                                String textContent = data.get("content").asText();
-                                if (!textContent.isEmpty()) {
-                                    markdown.append(textContent).append("\n\n");
-                                }
-                            }
-                            break;
-
-                        case "table":
-                            if (data != null) {
-                                int rows = data.has("rows") ? data.get("rows").asInt() : 0;
-                                int cols = data.has("cols") ? data.get("cols").asInt() : 0;
-
-                                if (rows > 0 && cols > 0) {
-                                    markdown.append("|");
-                                    for (int j = 0; j < cols; j++) {
-                                        markdown.append("   |");
-                                    }
-                                    markdown.append("\n|");
-                                    for (int j = 0; j < cols; j++) {
-                                        markdown.append("---|");
-                                    }
-                                    markdown.append("\n");
-
-                                    // 如果有输入数据，则使用输入数据
-                                    if (inputData != null && inputData.has(String.valueOf(i))) {
-                                        JsonNode cellData = inputData.get(String.valueOf(i));
-                                        for (int r = 0; r < rows; r++) {
-                                            markdown.append("|");
-                                            for (int c = 0; c < cols; c++) {
-                                                String cellKey = "cell_" + r + "_" + c;
-                                                String cellValue = "";
-                                                if (cellData != null && cellData.has(cellKey)) {
-                                                    cellValue = cellData.get(cellKey).asText();
-                                                }
-                                                markdown.append(" ").append(cellValue).append(" |");
-                                            }
-                                            markdown.append("\n");
-                                        }
-                                    } else {
-                                        for (int r = 0; r < rows; r++) {
-                                            markdown.append("|");
-                                            for (int c = 0; c < cols; c++) {
-                                                markdown.append("   |");
-                                            }
-                                            markdown.append("\n");
-                                        }
-                                    }
-                                    markdown.append("\n");
-                                }
-                            }
-                            break;
-
-                        case "input":
-                            if (data != null) {
-                                String label = data.has("label") ? data.get("label").asText() : "";
-                                String placeholder = data.has("placeholder") ? data.get("placeholder").asText() : "";
-
-                                if (!label.isEmpty()) {
-                                    markdown.append("### ").append(label).append("\n\n");
-                                }
-                                if (inputData != null && inputData.has(String.valueOf(i))) {
-                                    JsonNode inputNode = inputData.get(String.valueOf(i));
-                                    String inputText = inputNode != null && inputNode.has("value") ? 
-                                        inputNode.get("value").asText() : "";
-                                    if (!inputText.isEmpty()) {
-                                        markdown.append(inputText).append("\n\n");
-                                    }
-                                } else {
-                                    markdown.append("*").append(placeholder.isEmpty() ? "待填写" : placeholder).append("*\n\n");
-                                }
-                            }
-                            break;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-            return "";
-        }
-
-        return markdown.toString();
+        return reportMarkdownWriter.prepare(report);
     }
 
     /**
@@ -272,118 +319,7 @@ public class ExperimentReportService {
      * @return 报告概览列表
      */
     public List<ReportOverviewDto> getReportOverviewByStatus(String userId, String status, Integer current, Integer size) {
-        List<ReportOverviewDto> result = new ArrayList<>();
-
-        // 1. 获取用户以学生身份参与的课堂ID列表
-        List<String> courseIds = courseUserRelationDAO.getStudentCourseIdsByUserId(userId);
-        if (courseIds.isEmpty()) {
-            return result;
-        }
-
-        // 2. 获取课堂信息
-        List<CourseEntity> courses = courseDAO.listByIds(courseIds);
-        Map<String, CourseEntity> courseMap = courses.stream()
-                .collect(Collectors.toMap(CourseEntity::getId, c -> c));
-
-        // 3. 获取课堂-模板关联
-        List<CourseTemplateRelationEntity> relations = courseTemplateRelationDAO.getByCourseIds(courseIds);
-
-        // 按课堂分组模板ID
-        Map<String, List<String>> courseTemplateMap = new HashMap<>();
-        for (CourseTemplateRelationEntity relation : relations) {
-            courseTemplateMap.computeIfAbsent(relation.getCourseId(), k -> new ArrayList<>())
-                    .add(relation.getTemplateId());
-        }
-
-        // 收集所有模板ID
-        List<String> allTemplateIds = relations.stream()
-                .map(CourseTemplateRelationEntity::getTemplateId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        if (allTemplateIds.isEmpty()) {
-            return result;
-        }
-
-        // 4. 获取模板信息
-        List<ExperimentTemplateEntity> templates = templateDAO.listByIds(allTemplateIds);
-        Map<String, ExperimentTemplateEntity> templateMap = templates.stream()
-                .collect(Collectors.toMap(ExperimentTemplateEntity::getId, t -> t));
-
-        // 5. 构建结果
-        for (CourseTemplateRelationEntity relation : relations) {
-            String courseId = relation.getCourseId();
-            String templateId = relation.getTemplateId();
-
-            CourseEntity course = courseMap.get(courseId);
-            ExperimentTemplateEntity template = templateMap.get(templateId);
-            ExperimentReportEntity report = reportDAO.getReportByStudentIdAndCourseIdAndTemplateId(userId, courseId, templateId);
-
-            if (template == null) {
-                continue;
-            }
-
-            ReportOverviewDto dto = new ReportOverviewDto();
-            dto.setTemplateId(templateId);
-            dto.setTemplateName(template.getTemplateName());
-            dto.setTemplateDescription(template.getDescription());
-            dto.setCourseId(courseId);
-            dto.setCourseName(course != null ? course.getCourseName() : "");
-
-            if (report != null) {
-                dto.setReportId(report.getId());
-                dto.setReportName(report.getReportName());
-                dto.setSubmitTime(report.getSubmitTime());
-                dto.setScore(report.getScore());
-                dto.setComment(report.getComment());
-                dto.setReportContent(report.getReportContent());
-
-                // 使用数据库中的状态，如果状态为空则根据提交和评分情况推断
-                if (report.getStatus() != null && !report.getStatus().isEmpty()) {
-                    dto.setStatus(report.getStatus());
-                } else if (report.getSubmitTime() != null) {
-                    if (report.getScore() != null) {
-                        dto.setStatus(ReportStatusEnum.GRADED.getCode());
-                    } else {
-                        dto.setStatus(ReportStatusEnum.SUBMITTED.getCode());
-                    }
-                } else {
-                    // 有数据库记录但没有提交时间，说明是草稿
-                    dto.setStatus(ReportStatusEnum.DRAFT.getCode());
-                }
-            } else {
-                // 没有数据库记录，说明从未编辑过
-                dto.setStatus(ReportStatusEnum.PENDING.getCode());
-            }
-
-            // 如果指定了状态，则只返回符合状态的记录
-            if (status != null && !status.isEmpty() && !status.equals(dto.getStatus())) {
-                continue;
-            }
-
-            result.add(dto);
-        }
-
-        // 按提交时间和更新时间降序排序
-        result.sort((a, b) -> {
-            Date timeA = a.getSubmitTime();
-            Date timeB = b.getSubmitTime();
-            if (timeA == null) timeA = new Date(0);
-            if (timeB == null) timeB = new Date(0);
-            return timeB.compareTo(timeA);
-        });
-
-        // 分页处理
-        if (current != null && size != null && current > 0 && size > 0) {
-            int fromIndex = (current - 1) * size;
-            if (fromIndex >= result.size()) {
-                return new ArrayList<>();
-            }
-            int toIndex = Math.min(fromIndex + size, result.size());
-            return result.subList(fromIndex, toIndex);
-        }
-
-        return result;
+        return reportDAO.getReportOverview(userId, status, current, size);
     }
 
     /**
@@ -415,7 +351,7 @@ public class ExperimentReportService {
      * @param courseId 课程ID
      * @return 报告列表
      */
-    public List<ExperimentReportEntity> getReportsByCourseId(String courseId) {
+    public List<ReportSummaryDto> getReportsByCourseId(String courseId) {
         return reportDAO.getReportsByCourseId(courseId);
     }
 }
@@ -0,0 +1,256 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.dao.CourseDAO;
+import cn.gzus.lyf.dao.ExperimentReportDAO;
+import cn.gzus.lyf.dao.ExperimentTemplateDAO;
+import cn.gzus.lyf.dao.UserDAO;
+import cn.gzus.lyf.dao.entity.CourseEntity;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
+import cn.gzus.lyf.dao.entity.UserEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 课程报告打包导出服务
+ * 按ID顺序分块读取课程下已提交、已评价的报告，逐条写入 ZIP 输出流（每份报告一个 Markdown 文件，另附成绩表 CSV），
+ * 不在内存或磁盘中生成完整的压缩包
+ */
+@Service
+public class ReportArchiveService {
+
+    /**
+     * 每块读取的报告数
+     */
+    private static final int CHUNK_SIZE = 50;
+
+    /**
+     * 成绩表文件名
+     */
+    private static final String GRADE_SHEET_NAME = "成绩表.csv";
+
+    /**
+     * 成绩表中以这些字符开头的值会被表格软件当作公式，写出时加 ' 前缀
+     */
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    /**
+     * 导出的报告状态
+     */
+    private static final List<String> EXPORT_STATUSES = Arrays.asList(
+            ReportStatusEnum.SUBMITTED.getCode(), ReportStatusEnum.GRADED.getCode());
+
+    private ExperimentReportDAO reportDAO;
+    private ExperimentTemplateDAO templateDAO;
+    private UserDAO userDAO;
+    private CourseDAO courseDAO;
+    private ReportMarkdownWriter reportMarkdownWriter;
+    private ReportDeltaStore reportDeltaStore;
+
+    @Autowired
+    public void setReportDAO(ExperimentReportDAO reportDAO) {
+        this.reportDAO = reportDAO;
+    }
+
+    @Autowired
+    public void setTemplateDAO(ExperimentTemplateDAO templateDAO) {
+        this.templateDAO = templateDAO;
+    }
+
+    @Autowired
+    public void setUserDAO(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    @Autowired
+    public void setCourseDAO(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
+    }
+
+    @Autowired
+    public void setReportDeltaStore(ReportDeltaStore reportDeltaStore) {
+        this.reportDeltaStore = reportDeltaStore;
+    }
+
+    @Autowired
+    public void setReportMarkdownWriter(ReportMarkdownWriter reportMarkdownWriter) {
+        this.reportMarkdownWriter = reportMarkdownWriter;
+    }
+
+    /**
+     * 获取待导出的课程
+     * @param courseId 课程ID
+     * @return 课程实体，不存在时返回 null
+     */
+    public CourseEntity getExportCourse(String courseId) {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        return courseDAO.getCourseById(courseId);
+    }
+
+    /**
+     * 将课程下已提交、已评价的报告打包写出到输出流
+     * 先写成绩表（不加载报告内容），再逐块加载报告内容写出 Markdown 文件
+     * @param courseId 课程ID
+     * @param outputStream 输出流（不关闭）
+     */
+    public void exportCourseArchive(String courseId, OutputStream outputStream) throws IOException {
+        Objects.requireNonNull(courseId, "课程ID不能为空");
+        ZipOutputStream zip = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        Writer out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8));
+        // 模板ID -> 模板名称（课程下模板数量有限，整个导出过程共用）
+        Map<String, String> templateNames = new HashMap<>();
+
+        zip.putNextEntry(new ZipEntry(GRADE_SHEET_NAME));
+        // BOM：Excel 按 UTF-8 识别中文
+        out.write('\uFEFF');
+        out.write("用户名,姓名,实验,状态,分数,提交时间,评价时间,评语\r\n");
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        String afterId = null;
+        List<ExperimentReportEntity> chunk;
+        do {
+            chunk = reportDAO.getCourseReportChunk(courseId, EXPORT_STATUSES, afterId, CHUNK_SIZE, false);
+            Map<String, UserEntity> students = loadStudents(chunk);
+            loadTemplateNames(chunk, templateNames);
+            for (ExperimentReportEntity report : chunk) {
+                UserEntity student = students.get(report.getStudentId());
+                ReportStatusEnum status = ReportStatusEnum.fromCode(report.getStatus());
+                writeCsvRow(out,
+                        student != null ? student.getUsername() : report.getStudentId(),
+                        student != null ? student.getDisplayName() : null,
+                        templateNames.get(report.getTemplateId()),
+                        status != null ? status.getDescription() : report.getStatus(),
+                        report.getScore() != null ? String.valueOf(report.getScore()) : null,
+                        report.getSubmitTime() != null ? dateFormat.format(report.getSubmitTime()) : null,
+                        report.getGradeTime() != null ? dateFormat.format(report.getGradeTime()) : null,
+                        report.getComment());
+                afterId = report.getId();
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+        out.flush();
+        zip.closeEntry();
+
+        Set<String> entryNames = new HashSet<>();
+        afterId = null;
+        do {
+            chunk = reportDAO.getCourseReportChunk(courseId, EXPORT_STATUSES, afterId, CHUNK_SIZE, true);
+            Map<String, UserEntity> students = loadStudents(chunk);
+            loadTemplateNames(chunk, templateNames);
+            for (ExperimentReportEntity report : chunk) {
+                UserEntity student = students.get(report.getStudentId());
+                String templateName = templateNames.getOrDefault(report.getTemplateId(), report.getReportName());
+                String studentName = student != null
+                        ? student.getUsername() + (student.getDisplayName() != null ? "_" + student.getDisplayName() : "")
+                        : report.getStudentId();
+                String entryName = uniqueEntryName(safeName(templateName) + "/" + safeName(studentName), entryNames);
+                zip.putNextEntry(new ZipEntry(entryName));
+                reportMarkdownWriter.prepare(reportDeltaStore.expand(report)).writeTo(out);
+                out.flush();
+                zip.closeEntry();
+                afterId = report.getId();
+            }
+        } while (chunk.size() == CHUNK_SIZE);
+
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * 批量查询本块报告的学生
+     * @param chunk 报告列表
+     * @return 学生ID -> 用户
+     */
+    private Map<String, UserEntity> loadStudents(List<ExperimentReportEntity> chunk) {
+        Set<String> studentIds = chunk.stream()
+                .map(ExperimentReportEntity::getStudentId)
+                .collect(Collectors.toSet());
+        return userDAO.getUsersByIds(studentIds).stream()
+                .collect(Collectors.toMap(UserEntity::getId, user -> user));
+    }
+
+    /**
+     * 补充查询本块报告中尚未加载的模板名称
+     * @param chunk 报告列表
+     * @param templateNames 模板ID -> 模板名称
+     */
+    private void loadTemplateNames(List<ExperimentReportEntity> chunk, Map<String, String> templateNames) {
+        List<String> missingIds = chunk.stream()
+                .map(ExperimentReportEntity::getTemplateId)
+                .filter(templateId -> !templateNames.containsKey(templateId))
+                .distinct()
+                .collect(Collectors.toList());
+        for (ExperimentTemplateEntity template : templateDAO.getTemplatesByIds(missingIds)) {
+            templateNames.put(template.getId(), template.getTemplateName());
+        }
+    }
+
+    /**
+     * 写出一行CSV（按需加引号转义）
+     * @param out 输出
+     * @param values 列值
+     */
+    private void writeCsvRow(Writer out, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            String value = values[i] != null ? values[i] : "";
+            if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+                // 防止表格软件把学生填写的内容当作公式执行
+                value = "'" + value;
+            }
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * 去除文件名中的非法字符，以及开头的“.”（避免 “.”、“..” 成为路径中的目录跳转）
+     * @param name 名称
+     * @return 可用作文件名的名称
+     */
+    private String safeName(String name) {
+        String value = name != null
+                ? name.trim().replaceAll("[\\\\/:*?\"<>|\\r\\n\\t]", "_").replaceFirst("^\\.+", "").trim()
+                : "";
+        return value.isEmpty() ? "未命名" : value;
+    }
+
+    /**
+     * 生成不重复的条目名称（同一学生同一模板有多份报告时追加序号）
+     * @param baseName 条目名称（不含扩展名）
+     * @param entryNames 已使用的条目名称
+     * @return 条目名称
+     */
+    private String uniqueEntryName(String baseName, Set<String> entryNames) {
+        String entryName = baseName + ".md";
+        for (int i = 2; !entryNames.add(entryName); i++) {
+            entryName = baseName + "(" + i + ").md";
+        }
+        return entryName;
+    }
+}
@@ -0,0 +1,401 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.dto.ReportPatchDto;
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.common.enums.ResultCode;
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.dao.ExperimentReportDAO;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 报告增量保存服务
+ * 客户端只提交修改的部分（文本替换或修改的填写数据）和持有的版本号，版本号不一致时拒绝（乐观锁）。
+ * 修改先合并到内存中的草稿，停止修改一段时间后或距首次修改超过最长间隔时才写入数据库，
+ * 连续的自动保存合并为一次写入；读取、修改、提交报告前先写入该报告未保存的修改。
+ * 写入时数据库中的报告已被修改或已提交则保留草稿，该报告下一次增量保存或读取时返回冲突（409）后丢弃草稿；
+ * 写入出错（如数据库不可用）时保留草稿，下一次定时写入时重试。在调用方事务中写入（如提交、删除报告前）时，
+ * 事务提交后才移除草稿，事务回滚时草稿恢复为未写入，不会因状态变更失败丢失修改。
+ * 草稿只保存在本实例内存中，只支持单实例部署：多实例时同一报告的修改会落在不同实例，互相冲突
+ */
+@Service
+public class ReportAutosaveService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportAutosaveService.class);
+
+    private static final String INPUT_DATA = "inputData";
+
+    /**
+     * 停止修改多久后写入数据库（毫秒）
+     */
+    @Value("${ems.report-autosave.coalesce-ms:2000}")
+    private long coalesceMillis;
+
+    /**
+     * 首次修改后最长多久写入数据库（毫秒）
+     */
+    @Value("${ems.report-autosave.max-delay-ms:10000}")
+    private long maxDelayMillis;
+
+    /**
+     * 写入冲突的草稿最长保留多久（毫秒），期间无人读取或修改该报告时丢弃
+     */
+    @Value("${ems.report-autosave.conflict-retention-ms:1800000}")
+    private long conflictRetentionMillis;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExperimentReportDAO reportDAO;
+    private ReportDeltaStore reportDeltaStore;
+
+    /**
+     * 有未写入修改的草稿：报告ID -> 草稿
+     */
+    private final Map<String, Draft> drafts = new ConcurrentHashMap<>();
+
+    public ReportAutosaveService() {
+    }
+
+    public ReportAutosaveService(ExperimentReportDAO reportDAO, ReportDeltaStore reportDeltaStore) {
+        this.reportDAO = reportDAO;
+        this.reportDeltaStore = reportDeltaStore;
+    }
+
+    @Autowired
+    public void setReportDAO(ExperimentReportDAO reportDAO) {
+        this.reportDAO = reportDAO;
+    }
+
+    @Autowired
+    public void setReportDeltaStore(ReportDeltaStore reportDeltaStore) {
+        this.reportDeltaStore = reportDeltaStore;
+    }
+
+    /**
+     * 增量保存报告
+     * @param patch 修改内容
+     * @return 保存后的版本号
+     */
+    public int patch(ReportPatchDto patch) {
+        Objects.requireNonNull(patch, "修改内容不能为空");
+        Objects.requireNonNull(patch.getId(), "报告ID不能为空");
+        Objects.requireNonNull(patch.getVersion(), "版本号不能为空");
+
+        while (true) {
+            Draft draft = drafts.computeIfAbsent(patch.getId(), this::loadDraft);
+            synchronized (draft) {
+                if (draft.closed) {
+                    // 草稿刚写入数据库并移除，重新加载
+                    continue;
+                }
+                if (draft.conflicted) {
+                    discard(draft);
+                    throw new BusinessException(ResultCode.CONFLICT, "报告已在其他位置修改，请刷新后重试");
+                }
+                if (draft.version != patch.getVersion()) {
+                    throw new BusinessException(ResultCode.CONFLICT, "报告已在其他位置修改，请刷新后重试");
+                }
+                String content = applyEdits(draft.content, patch);
+                content = applyInputData(content, patch);
+                reportDeltaStore.checkContent(content);
+                draft.content = content;
+                if (patch.getReportName() != null) {
+                    draft.reportName = patch.getReportName();
+                }
+                draft.version++;
+                long now = System.currentTimeMillis();
+                if (!draft.dirty) {
+                    draft.dirty = true;
+                    draft.firstModified = now;
+                }
+                draft.lastModified = now;
+                if (patch.isFlush() && !flush(draft)) {
+                    discard(draft);
+                    throw new BusinessException(ResultCode.CONFLICT, "报告已在其他位置修改，请刷新后重试");
+                }
+                return draft.version;
+            }
+        }
+    }
+
+    /**
+     * 写入报告未保存的修改（读取、修改、提交报告前调用）
+     * 未保存的修改无法写入（报告已在其他位置修改或已提交）时丢弃草稿并抛出冲突异常
+     * @param reportId 报告ID
+     */
+    public void flush(String reportId) {
+        if (reportId == null) {
+            return;
+        }
+        Draft draft = drafts.get(reportId);
+        if (draft != null) {
+            synchronized (draft) {
+                if (!draft.closed && (draft.conflicted || !flush(draft))) {
+                    discard(draft);
+                    throw new BusinessException(ResultCode.CONFLICT, "报告已在其他位置修改，请刷新后重试");
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入已停止修改或等待时间过长的草稿
+     */
+    @Scheduled(fixedDelayString = "${ems.report-autosave.flush-poll-ms:1000}")
+    public void flushDue() {
+        long now = System.currentTimeMillis();
+        for (Draft draft : drafts.values()) {
+            synchronized (draft) {
+                if (draft.closed) {
+                    continue;
+                }
+                if (draft.conflicted) {
+                    // 冲突的草稿不再写入，长时间无人读取时丢弃
+                    if (now - draft.lastModified >= conflictRetentionMillis) {
+                        discard(draft);
+                    }
+                } else if (now - draft.lastModified >= coalesceMillis || now - draft.firstModified >= maxDelayMillis) {
+                    tryFlush(draft);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Draft draft : drafts.values()) {
+            synchronized (draft) {
+                if (!draft.closed && !draft.conflicted) {
+                    tryFlush(draft);
+                }
+            }
+        }
+    }
+
+    /**
+     * 写入草稿，出错时保留草稿等待下次重试（调用方持有草稿锁）
+     * @param draft 草稿
+     */
+    private void tryFlush(Draft draft) {
+        try {
+            flush(draft);
+        } catch (Exception e) {
+            log.error("报告增量保存写入出错，稍后重试：{}", draft.reportId, e);
+        }
+    }
+
+    /**
+     * 从数据库加载草稿
+     * @param reportId 报告ID
+     * @return 草稿
+     */
+    private Draft loadDraft(String reportId) {
+        ExperimentReportEntity report = reportDeltaStore.expand(reportDAO.getReportById(reportId));
+        if (report == null) {
+            throw new BusinessException("报告不存在");
+        }
+        if (!ReportStatusEnum.isEditable(report.getStatus())) {
+            throw new BusinessException("报告已提交，不能修改");
+        }
+        Draft draft = new Draft();
+        draft.reportId = reportId;
+        draft.templateId = report.getTemplateId();
+        draft.reportName = report.getReportName();
+        draft.content = report.getReportContent() != null ? report.getReportContent() : "";
+        draft.version = report.getVersion() != null ? report.getVersion() : 1;
+        draft.storedVersion = draft.version;
+        return draft;
+    }
+
+    /**
+     * 写入草稿并从内存中移除（调用方持有草稿锁）
+     * 数据库中的报告已被其他请求修改或已提交时写入失败，草稿标记为冲突并保留，由下一次读取或修改报告冲突后丢弃；
+     * 在事务中写入时保留草稿到事务结束
+     * @param draft 草稿
+     * @return 是否写入成功
+     */
+    private boolean flush(Draft draft) {
+        if (draft.dirty) {
+            String storedContent = reportDeltaStore.compact(draft.templateId, draft.content);
+            boolean success = reportDAO.saveDraftContent(draft.reportId, draft.reportName, storedContent,
+                    draft.storedVersion, draft.version);
+            if (!success) {
+                log.warn("报告增量保存写入失败，报告已被修改或已提交：{}，版本 {} 至 {} 的修改未写入",
+                        draft.reportId, draft.storedVersion + 1, draft.version);
+                draft.conflicted = true;
+                return false;
+            }
+            if (!draft.awaitingCommit && TransactionSynchronizationManager.isSynchronizationActive()) {
+                awaitCommit(draft);
+            }
+            draft.storedVersion = draft.version;
+            draft.dirty = false;
+        }
+        if (!draft.awaitingCommit) {
+            discard(draft);
+        }
+        return true;
+    }
+
+    /**
+     * 写入在调用方事务中：事务提交后移除草稿，回滚时恢复为未写入（调用方持有草稿锁）
+     * @param draft 草稿
+     */
+    private void awaitCommit(Draft draft) {
+        draft.awaitingCommit = true;
+        int rollbackVersion = draft.storedVersion;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (draft) {
+                    draft.awaitingCommit = false;
+                    if (draft.closed || draft.conflicted) {
+                        return;
+                    }
+                    if (status != STATUS_COMMITTED) {
+                        // 写入已回滚，数据库中仍是写入前的版本
+                        draft.storedVersion = rollbackVersion;
+                        draft.dirty = true;
+                        draft.firstModified = System.currentTimeMillis();
+                    } else if (!draft.dirty) {
+                        discard(draft);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * 从内存中移除草稿（调用方持有草稿锁）
+     * @param draft 草稿
+     */
+    private void discard(Draft draft) {
+        draft.closed = true;
+        drafts.remove(draft.reportId, draft);
+    }
+
+    /**
+     * 应用文本替换
+     * @param content 报告内容
+     * @param patch 修改内容
+     * @return 修改后的内容
+     */
+    String applyEdits(String content, ReportPatchDto patch) {
+        if (patch.getEdits() == null || patch.getEdits().isEmpty()) {
+            return content;
+        }
+        StringBuilder builder = new StringBuilder(content);
+        for (ReportPatchDto.TextEdit edit : patch.getEdits()) {
+            if (edit.getStart() < 0 || edit.getStart() > edit.getEnd() || edit.getEnd() > builder.length()) {
+                throw new BusinessException("文本替换范围无效：[" + edit.getStart() + ", " + edit.getEnd() + ")");
+            }
+            builder.replace(edit.getStart(), edit.getEnd(), edit.getText() != null ? edit.getText() : "");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 应用修改的填写数据（模板 JSON 格式的报告）
+     * @param content 报告内容
+     * @param patch 修改内容
+     * @return 修改后的内容
+     */
+    String applyInputData(String content, ReportPatchDto patch) {
+        if (patch.getInputData() == null || patch.getInputData().isEmpty()) {
+            return content;
+        }
+        JsonNode root;
+        try {
+            root = content.trim().startsWith("{") ? objectMapper.readTree(content) : null;
+        } catch (JsonProcessingException e) {
+            root = null;
+        }
+        if (root == null || !root.isObject()) {
+            throw new BusinessException("报告不是模板 JSON 格式，不能按填写数据修改");
+        }
+        JsonNode inputData = root.get(INPUT_DATA);
+        if (inputData == null || inputData.isNull()) {
+            inputData = ((ObjectNode) root).putObject(INPUT_DATA);
+        } else if (!inputData.isObject()) {
+            throw new BusinessException("报告的 inputData 格式无效");
+        }
+        for (Map.Entry<String, Map<String, String>> component : patch.getInputData().entrySet()) {
+            if (component.getValue() == null) {
+                ((ObjectNode) inputData).remove(component.getKey());
+                continue;
+            }
+            JsonNode data = inputData.get(component.getKey());
+            ObjectNode cells = data != null && data.isObject()
+                    ? (ObjectNode) data
+                    : ((ObjectNode) inputData).putObject(component.getKey());
+            for (Map.Entry<String, String> cell : component.getValue().entrySet()) {
+                if (cell.getValue() == null) {
+                    cells.remove(cell.getKey());
+                } else {
+                    cells.put(cell.getKey(), cell.getValue());
+                }
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(root);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException("报告内容序列化失败：" + e.getMessage());
+        }
+    }
+
+    /**
+     * 内存中的草稿（字段由草稿锁保护）
+     */
+    private static final class Draft {
+
+        private String reportId;
+        private String templateId;
+        private String reportName;
+        private String content;
+
+        /**
+         * 当前版本号（含未写入的修改）
+         */
+        private int version;
+
+        /**
+         * 数据库中的版本号
+         */
+        private int storedVersion;
+
+        private boolean dirty;
+        private long firstModified;
+        private long lastModified;
+
+        /**
+         * 写入时报告已被其他请求修改或已提交，未写入的修改等待冲突提示后丢弃
+         */
+        private boolean conflicted;
+
+        /**
+         * 已在调用方事务中写入，等待事务结束
+         */
+        private boolean awaitingCommit;
+
+        /**
+         * 已写入并从内存中移除
+         */
+        private boolean closed;
+    }
+}
@@ -0,0 +1,200 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.dto.ReportCounterDeltaDto;
+import cn.gzus.lyf.common.dto.ReportStatusCountDto;
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.dao.ReportCourseCounterDAO;
+import cn.gzus.lyf.dao.ReportStudentCounterDAO;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 实验报告计数服务
+ * 维护 (课程, 模板, 状态) 和 (学生, 课程, 状态) 两个维度的报告数量，
+ * 报告新增、状态流转、删除时增量更新，并定时根据报告表重建以修正偏差
+ */
+@Service
+public class ReportCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportCounterService.class);
+
+    private ReportCourseCounterDAO courseCounterDAO;
+    private ReportStudentCounterDAO studentCounterDAO;
+
+    @Autowired
+    public void setCourseCounterDAO(ReportCourseCounterDAO courseCounterDAO) {
+        this.courseCounterDAO = courseCounterDAO;
+    }
+
+    @Autowired
+    public void setStudentCounterDAO(ReportStudentCounterDAO studentCounterDAO) {
+        this.studentCounterDAO = studentCounterDAO;
+    }
+
+    /**
+     * 报告新增后更新计数
+     * @param report 新增的报告
+     */
+    public void onReportAdded(ExperimentReportEntity report) {
+        increment(report, normalizeStatus(report.getStatus()), 1);
+    }
+
+    /**
+     * 报告状态变更后更新计数
+     * @param report 报告（需包含课程ID、模板ID、学生ID）
+     * @param oldStatus 变更前状态
+     * @param newStatus 变更后状态
+     */
+    public void onStatusChanged(ExperimentReportEntity report, String oldStatus, String newStatus) {
+        String from = normalizeStatus(oldStatus);
+        String to = normalizeStatus(newStatus);
+        if (from.equals(to)) {
+            return;
+        }
+        increment(report, from, -1);
+        increment(report, to, 1);
+    }
+
+    /**
+     * 批量状态变更后更新计数（按计数行汇总增量，两个维度各用一条语句更新）
+     * @param reports 报告（需包含课程ID、模板ID、学生ID，status 为变更前状态）
+     * @param newStatus 变更后状态
+     */
+    public void onStatusChanged(List<ExperimentReportEntity> reports, String newStatus) {
+        String to = normalizeStatus(newStatus);
+        Map<String, ReportCounterDeltaDto> courseDeltas = new LinkedHashMap<>();
+        Map<String, ReportCounterDeltaDto> studentDeltas = new LinkedHashMap<>();
+        for (ExperimentReportEntity report : reports) {
+            String from = normalizeStatus(report.getStatus());
+            if (from.equals(to)) {
+                continue;
+            }
+            if (report.getCourseId() != null && report.getTemplateId() != null) {
+                addDelta(courseDeltas, report.getCourseId(), report.getTemplateId(), null, from, -1);
+                addDelta(courseDeltas, report.getCourseId(), report.getTemplateId(), null, to, 1);
+            }
+            if (report.getStudentId() != null) {
+                String courseId = report.getCourseId() != null ? report.getCourseId() : "";
+                addDelta(studentDeltas, courseId, null, report.getStudentId(), from, -1);
+                addDelta(studentDeltas, courseId, null, report.getStudentId(), to, 1);
+            }
+        }
+        courseCounterDAO.incrementCounts(new ArrayList<>(courseDeltas.values()));
+        studentCounterDAO.incrementCounts(new ArrayList<>(studentDeltas.values()));
+    }
+
+    /**
+     * 报告删除后更新计数
+     * @param report 被删除的报告
+     */
+    public void onReportDeleted(ExperimentReportEntity report) {
+        increment(report, normalizeStatus(report.getStatus()), -1);
+    }
+
+    /**
+     * 按状态汇总课程下的报告数量
+     * @param courseIds 课程ID列表
+     * @return 状态 -> 报告数量
+     */
+    public Map<String, Long> getCourseStatusCounts(List<String> courseIds) {
+        return toStatusCountMap(courseCounterDAO.sumByCourseIds(courseIds));
+    }
+
+    /**
+     * 按状态汇总学生在指定课程（所学课程）下的报告数量
+     * @param studentId 学生ID
+     * @param courseIds 课程ID列表
+     * @return 状态 -> 报告数量
+     */
+    public Map<String, Long> getStudentStatusCounts(String studentId, List<String> courseIds) {
+        return toStatusCountMap(studentCounterDAO.sumByStudentIdAndCourseIds(studentId, courseIds));
+    }
+
+    /**
+     * 根据报告表重建全部计数（定时对账，修正增量维护过程中产生的偏差）
+     */
+    @Scheduled(cron = "${ems.report-counter.reconcile-cron:0 30 3 * * ?}")
+    @Transactional(rollbackFor = Exception.class)
+    public void rebuild() {
+        long negativeRows = courseCounterDAO.countNegative() + studentCounterDAO.countNegative();
+        if (negativeRows > 0) {
+            log.warn("报告计数存在偏差：{}行计数为负数，按报告表重建修正", negativeRows);
+        }
+        int courseRows = courseCounterDAO.rebuild();
+        int studentRows = studentCounterDAO.rebuild();
+        log.info("报告计数重建完成：课程计数{}行，学生计数{}行", courseRows, studentRows);
+    }
+
+    /**
+     * 同时更新课程维度和学生维度的计数
+     * @param report 报告
+     * @param status 报告状态
+     * @param delta 增量
+     */
+    private void increment(ExperimentReportEntity report, String status, int delta) {
+        Objects.requireNonNull(report, "报告不存在");
+        if (report.getCourseId() != null && report.getTemplateId() != null) {
+            courseCounterDAO.incrementCount(report.getCourseId(), report.getTemplateId(), status, delta);
+        }
+        if (report.getStudentId() != null) {
+            studentCounterDAO.incrementCount(report.getStudentId(), report.getCourseId(), status, delta);
+        }
+    }
+
+    /**
+     * 累加计数行的增量
+     * @param deltas 计数行 -> 增量
+     */
+    private void addDelta(Map<String, ReportCounterDeltaDto> deltas, String courseId, String templateId,
+                          String studentId, String status, int delta) {
+        String key = courseId + "|" + templateId + "|" + studentId + "|" + status;
+        ReportCounterDeltaDto counterDelta = deltas.computeIfAbsent(key, k -> {
+            ReportCounterDeltaDto created = new ReportCounterDeltaDto();
+            created.setCourseId(courseId);
+            created.setTemplateId(templateId);
+            created.setStudentId(studentId);
+            created.setStatus(status);
+            return created;
+        });
+        counterDelta.setDelta(counterDelta.getDelta() + delta);
+    }
+
+    /**
+     * 规范化报告状态，状态为空的历史数据按草稿计
+     * @param status 报告状态
+     * @return 规范化后的状态
+     */
+    private String normalizeStatus(String status) {
+        if (status == null || status.isEmpty()) {
+            return ReportStatusEnum.DRAFT.getCode();
+        }
+        return status.toLowerCase();
+    }
+
+    /**
+     * 将分组统计结果转换为 状态 -> 数量 映射
+     * @param statusCounts 分组统计结果
+     * @return 状态 -> 报告数量
+     */
+    private Map<String, Long> toStatusCountMap(List<ReportStatusCountDto> statusCounts) {
+        Map<String, Long> result = new HashMap<>();
+        for (ReportStatusCountDto statusCount : statusCounts) {
+            if (statusCount.getStatus() != null && statusCount.getReportCount() != null) {
+                result.merge(statusCount.getStatus().toLowerCase(), statusCount.getReportCount(), Long::sum);
+            }
+        }
+        return result;
+    }
+}
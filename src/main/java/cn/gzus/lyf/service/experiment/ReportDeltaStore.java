@@ -0,0 +1,213 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.dao.ExperimentTemplateDAO;
+import cn.gzus.lyf.dao.ExperimentTemplateVersionDAO;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import cn.gzus.lyf.dao.entity.ExperimentTemplateEntity;
+import cn.gzus.lyf.dao.entity.ExperimentTemplateVersionEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * 报告内容增量存储
+ * 模板 JSON 格式的报告（components + inputData）中 components 与所用模板版本完全一致时，
+ * 只保存模板版本引用和填写数据：{"$template":{"id":模板ID,"version":版本},"inputData":{...}}；
+ * 读取时用缓存的模板版本组件还原为完整内容。模板版本内容只增不改，缓存无需失效。
+ * Markdown 格式的报告、组件与模板不一致的报告按原内容保存。
+ * 模板版本引用只能由服务端生成，客户端提交的内容不能是增量格式
+ */
+@Component
+public class ReportDeltaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportDeltaStore.class);
+
+    /**
+     * 增量格式的内容前缀
+     */
+    private static final String DELTA_PREFIX = "{\"$template\":";
+
+    private static final String COMPONENTS = "components";
+    private static final String INPUT_DATA = "inputData";
+
+    /**
+     * 模板版本组件缓存容量
+     */
+    @Value("${ems.report-delta.template-cache-size:1000}")
+    private long templateCacheSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExperimentTemplateDAO templateDAO;
+    private ExperimentTemplateVersionDAO templateVersionDAO;
+
+    /**
+     * 模板版本组件缓存：模板ID#版本 -> 组件
+     */
+    private Cache<String, TemplateComponents> templateCache;
+
+    @Autowired
+    public void setTemplateDAO(ExperimentTemplateDAO templateDAO) {
+        this.templateDAO = templateDAO;
+    }
+
+    @Autowired
+    public void setTemplateVersionDAO(ExperimentTemplateVersionDAO templateVersionDAO) {
+        this.templateVersionDAO = templateVersionDAO;
+    }
+
+    @PostConstruct
+    public void init() {
+        templateCache = Caffeine.newBuilder()
+                .maximumSize(templateCacheSize)
+                .build();
+    }
+
+    /**
+     * 转换为存储内容：组件与模板当前版本一致时只保存模板版本引用和填写数据
+     * @param templateId 模板ID
+     * @param content 报告内容
+     * @return 存储内容
+     */
+    public String compact(String templateId, String content) {
+        checkContent(content);
+        if (templateId == null || content == null || !content.trim().startsWith("{")) {
+            return content;
+        }
+        JsonNode root;
+        try {
+            root = objectMapper.readTree(content);
+        } catch (JsonProcessingException e) {
+            return content;
+        }
+        // 只有 components 和 inputData 两个字段时才能无损还原
+        if (root == null || !root.isObject() || root.size() != 2
+                || !root.path(COMPONENTS).isArray() || !root.path(INPUT_DATA).isObject()) {
+            return content;
+        }
+
+        ExperimentTemplateEntity template = templateDAO.getTemplateById(templateId);
+        if (template == null || template.getVersion() == null || template.getTemplateContent() == null) {
+            return content;
+        }
+        TemplateComponents components = templateCache.get(cacheKey(templateId, template.getVersion()), key -> {
+            // 模板版本在首次被引用时保存，内容与版本号来自同一次读取
+            templateVersionDAO.saveVersionIfAbsent(templateId, template.getVersion(), template.getTemplateContent());
+            return parse(template.getTemplateContent());
+        });
+        if (components.node == null || !components.node.equals(root.get(COMPONENTS))) {
+            return content;
+        }
+
+        ObjectNode delta = objectMapper.createObjectNode();
+        delta.putObject("$template")
+                .put("id", templateId)
+                .put("version", template.getVersion());
+        delta.set(INPUT_DATA, root.get(INPUT_DATA));
+        try {
+            return objectMapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            return content;
+        }
+    }
+
+    /**
+     * 校验客户端提交的报告内容不是增量格式，防止引用其他模板或版本的组件
+     * @param content 报告内容
+     */
+    public void checkContent(String content) {
+        if (content != null && content.startsWith(DELTA_PREFIX)) {
+            throw new BusinessException("报告内容格式不正确");
+        }
+    }
+
+    /**
+     * 还原存储内容为完整报告内容
+     * @param content 存储内容
+     * @return 完整报告内容
+     */
+    public String expand(String content) {
+        if (content == null || !content.startsWith(DELTA_PREFIX)) {
+            return content;
+        }
+        try {
+            JsonNode delta = objectMapper.readTree(content);
+            JsonNode reference = delta.path("$template");
+            String templateId = reference.path("id").asText();
+            int version = reference.path("version").asInt();
+            TemplateComponents components = templateCache.get(cacheKey(templateId, version), key -> {
+                ExperimentTemplateVersionEntity templateVersion = templateVersionDAO.getVersion(templateId, version);
+                return templateVersion != null ? parse(templateVersion.getTemplateContent()) : null;
+            });
+            if (components == null || components.json == null) {
+                log.warn("报告引用的模板版本不存在：{}#{}", templateId, version);
+                return content;
+            }
+            return "{\"" + COMPONENTS + "\":" + components.json
+                    + ",\"" + INPUT_DATA + "\":" + objectMapper.writeValueAsString(delta.get(INPUT_DATA)) + "}";
+        } catch (JsonProcessingException e) {
+            log.warn("报告增量内容解析失败：{}", e.getMessage());
+            return content;
+        }
+    }
+
+    /**
+     * 还原报告实体的内容（就地修改）
+     * @param report 报告实体
+     * @return 报告实体
+     */
+    public ExperimentReportEntity expand(ExperimentReportEntity report) {
+        if (report != null) {
+            report.setReportContent(expand(report.getReportContent()));
+        }
+        return report;
+    }
+
+    /**
+     * 解析模板内容中的组件
+     * @param templateContent 模板内容
+     * @return 组件（模板不是 JSON 组件格式时为空组件）
+     */
+    private TemplateComponents parse(String templateContent) {
+        if (templateContent != null && templateContent.trim().startsWith("{")) {
+            try {
+                JsonNode node = objectMapper.readTree(templateContent).get(COMPONENTS);
+                if (node != null && node.isArray()) {
+                    return new TemplateComponents(node, objectMapper.writeValueAsString(node));
+                }
+            } catch (JsonProcessingException e) {
+                // 不是 JSON 组件格式的模板，不做增量存储
+            }
+        }
+        return new TemplateComponents(null, null);
+    }
+
+    private static String cacheKey(String templateId, int version) {
+        return templateId + "#" + version;
+    }
+
+    /**
+     * 模板版本的组件（解析后的节点及其序列化结果）
+     */
+    private static final class TemplateComponents {
+
+        private final JsonNode node;
+        private final String json;
+
+        private TemplateComponents(JsonNode node, String json) {
+            this.node = node;
+            this.json = json;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 实验报告 Markdown 导出
+ * 报告内容为模板 JSON（components + inputData）时，使用 JsonParser 分两遍扫描：
+ * 第一遍只收集组件结构并校验格式，第二遍按组件顺序边读 inputData 边写出，不构建完整的 JSON 树和中间字符串；
+ * 报告内容为 Markdown（编辑器保存的格式）时直接写出
+ */
+@Component
+public class ReportMarkdownWriter {
+
+    private static final String COMPONENTS = "components";
+    private static final String INPUT_DATA = "inputData";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    /**
+     * 准备导出：扫描报告内容并收集组件结构，不输出任何内容
+     * @param report 报告实体
+     * @return 可写出的导出对象
+     */
+    public Export prepare(ExperimentReportEntity report) {
+        String content = report.getReportContent() != null ? report.getReportContent() : "";
+        Layout layout = null;
+        if (content.trim().startsWith("{")) {
+            try {
+                layout = scan(content);
+            } catch (IOException e) {
+                // 不是合法的模板 JSON，按 Markdown 原样导出
+                layout = null;
+            }
+        }
+        return new Export(report.getReportName(), content, layout);
+    }
+
+    /**
+     * 第一遍扫描：收集组件结构、记录 inputData 的键顺序
+     * @param content 报告内容
+     * @return 组件结构
+     */
+    private Layout scan(String content) throws IOException {
+        Layout layout = new Layout();
+        try (JsonParser parser = jsonFactory.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "报告内容不是JSON对象");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (COMPONENTS.equals(name) && layout.components == null) {
+                    layout.components = token == JsonToken.START_ARRAY ? readComponents(parser) : Collections.emptyList();
+                    if (token != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                } else if (INPUT_DATA.equals(name) && !layout.hasInputData && token == JsonToken.START_OBJECT) {
+                    layout.hasInputData = true;
+                    layout.inputKeysAscending = scanInputKeys(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            // 读到文档末尾，确保内容完整合法
+            while (parser.nextToken() != null) {
+                parser.skipChildren();
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * 读取组件结构（类型、表格行列数、标签等，不含填写数据）
+     */
+    private List<ComponentInfo> readComponents(JsonParser parser) throws IOException {
+        List<ComponentInfo> components = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            ComponentInfo component = new ComponentInfo();
+            if (token == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    JsonToken valueToken = parser.nextToken();
+                    if ("type".equals(name)) {
+                        component.type = readText(parser);
+                    } else if ("data".equals(name)) {
+                        // data 不是对象时组件仍会输出（如输入框的占位提示）
+                        component.hasData = true;
+                        if (valueToken == JsonToken.START_OBJECT) {
+                            readComponentData(parser, component);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
+    /**
+     * 读取组件 data 中导出需要的字段
+     */
+    private void readComponentData(JsonParser parser, ComponentInfo component) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            switch (name) {
+                case "content":
+                    component.content = readText(parser);
+                    break;
+                case "label":
+                    component.label = readText(parser);
+                    break;
+                case "placeholder":
+                    component.placeholder = readText(parser);
+                    break;
+                case "rows":
+                    component.rows = readInt(parser);
+                    break;
+                case "cols":
+                    component.cols = readInt(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * 扫描 inputData 的键，判断组件序号是否递增（递增时第二遍可以边读边写）
+     */
+    private boolean scanInputKeys(JsonParser parser) throws IOException {
+        boolean ascending = true;
+        int previous = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            int index = componentIndex(parser.getCurrentName());
+            parser.nextToken();
+            parser.skipChildren();
+            if (index >= 0) {
+                if (index <= previous) {
+                    ascending = false;
+                }
+                previous = index;
+            }
+        }
+        return ascending;
+    }
+
+    /**
+     * 第二遍扫描：按组件顺序写出 Markdown
+     */
+    private void write(String reportName, String content, Layout layout, Writer out) throws IOException {
+        out.write("# ");
+        out.write(String.valueOf(reportName));
+        out.write("\n\n");
+        if (layout == null) {
+            out.write(content);
+            return;
+        }
+        if (layout.components == null) {
+            return;
+        }
+
+        int next = 0;
+        if (layout.hasInputData) {
+            try (JsonParser parser = jsonFactory.createParser(content)) {
+                moveToInputData(parser);
+                if (layout.inputKeysAscending) {
+                    // 键递增：读到第 k 个组件的数据时，k 之前的组件都没有填写数据
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        int index = componentIndex(parser.getCurrentName());
+                        parser.nextToken();
+                        if (index < next || index >= layout.components.size()) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        for (; next < index; next++) {
+                            writeComponent(layout.components.get(next), null, out);
+                        }
+                        writeComponent(layout.components.get(index), readEntry(parser), out);
+                        next = index + 1;
+                    }
+                } else {
+                    // 键无序：先读取全部填写数据（仅保留扁平的字符串值）
+                    Map<Integer, Map<String, String>> entries = new HashMap<>();
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        int index = componentIndex(parser.getCurrentName());
+                        parser.nextToken();
+                        if (index < 0 || index >= layout.components.size() || entries.containsKey(index)) {
+                            parser.skipChildren();
+                        } else {
+                            entries.put(index, readEntry(parser));
+                        }
+                    }
+                    for (; next < layout.components.size(); next++) {
+                        writeComponent(layout.components.get(next), entries.get(next), out);
+                    }
+                }
+            }
+        }
+        for (; next < layout.components.size(); next++) {
+            writeComponent(layout.components.get(next), null, out);
+        }
+    }
+
+    /**
+     * 将解析器定位到顶层 inputData 对象内部
+     */
+    private void moveToInputData(JsonParser parser) throws IOException {
+        parser.nextToken();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (INPUT_DATA.equals(name) && token == JsonToken.START_OBJECT) {
+                return;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * 写出单个组件
+     * @param component 组件结构
+     * @param entry 组件的填写数据，未填写时为 null
+     * @param out 输出
+     */
+    private void writeComponent(ComponentInfo component, Map<String, String> entry, Writer out) throws IOException {
+        if (!component.hasData) {
+            return;
+        }
+        switch (component.type) {
+            case "text":
+                if (component.content != null && !component.content.isEmpty()) {
+                    out.write(component.content);
+                    out.write("\n\n");
+                }
+                break;
+
+            case "table":
+                if (component.rows > 0 && component.cols > 0) {
+                    out.write('|');
+                    for (int c = 0; c < component.cols; c++) {
+                        out.write("   |");
+                    }
+                    out.write("\n|");
+                    for (int c = 0; c < component.cols; c++) {
+                        out.write("---|");
+                    }
+                    out.write('\n');
+                    for (int r = 0; r < component.rows; r++) {
+                        out.write('|');
+                        for (int c = 0; c < component.cols; c++) {
+                            if (entry != null) {
+                                String cellValue = entry.get("cell_" + r + "_" + c);
+                                out.write(' ');
+                                out.write(cellValue != null ? cellValue : "");
+                                out.write(" |");
+                            } else {
+                                out.write("   |");
+                            }
+                        }
+                        out.write('\n');
+                    }
+                    out.write('\n');
+                }
+                break;
+
+            case "input":
+                String label = component.label != null ? component.label : "";
+                String placeholder = component.placeholder != null ? component.placeholder : "";
+                if (!label.isEmpty()) {
+                    out.write("### ");
+                    out.write(label);
+                    out.write("\n\n");
+                }
+                if (entry != null) {
+                    String inputText = entry.getOrDefault("value", "");
+                    if (!inputText.isEmpty()) {
+                        out.write(inputText);
+                        out.write("\n\n");
+                    }
+                } else {
+                    out.write('*');
+                    out.write(placeholder.isEmpty() ? "待填写" : placeholder);
+                    out.write("*\n\n");
+                }
+                break;
+
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 读取单个组件的填写数据（字段 -> 文本值）
+     */
+    private Map<String, String> readEntry(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return Collections.emptyMap();
+        }
+        Map<String, String> entry = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            entry.put(name, readText(parser));
+        }
+        return entry;
+    }
+
+    /**
+     * 读取当前值的文本形式（与 JsonNode.asText 一致：对象、数组为空字符串，null 为 "null"）
+     */
+    private String readText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return "";
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return "null";
+        }
+        return parser.getText();
+    }
+
+    /**
+     * 读取当前值的整数形式（与 JsonNode.asInt 一致，无法转换时为 0）
+     */
+    private int readInt(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return 0;
+        }
+        return parser.getValueAsInt(0);
+    }
+
+    /**
+     * 解析 inputData 的键为组件序号，非规范的整数键返回 -1
+     */
+    private int componentIndex(String key) {
+        try {
+            int index = Integer.parseInt(key);
+            return index >= 0 && String.valueOf(index).equals(key) ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 组件结构
+     */
+    private static final class ComponentInfo {
+        private String type = "";
+        private boolean hasData;
+        private String content;
+        private String label;
+        private String placeholder;
+        private int rows;
+        private int cols;
+    }
+
+    /**
+     * 报告内容结构（第一遍扫描结果）
+     */
+    private static final class Layout {
+        private List<ComponentInfo> components;
+        private boolean hasInputData;
+        private boolean inputKeysAscending = true;
+    }
+
+    /**
+     * 已准备好的导出，可写出到输出流
+     */
+    public final class Export {
+
+        private final String reportName;
+        private final String content;
+        private final Layout layout;
+
+        private Export(String reportName, String content, Layout layout) {
+            this.reportName = reportName;
+            this.content = content;
+            this.layout = layout;
+        }
+
+        /**
+         * 获取报告名称
+         * @return 报告名称
+         */
+        public String getReportName() {
+            return reportName;
+        }
+
+        /**
+         * 写出 Markdown 到字符输出（不关闭输出）
+         * @param out 字符输出
+         */
+        public void writeTo(Writer out) throws IOException {
+            write(reportName, content, layout, out);
+        }
+
+        /**
+         * 以 UTF-8 写出 Markdown 到输出流（不关闭输出流）
+         * @param outputStream 输出流
+         */
+        public void writeTo(OutputStream outputStream) throws IOException {
+            Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            writeTo(out);
+            out.flush();
+        }
+    }
+}
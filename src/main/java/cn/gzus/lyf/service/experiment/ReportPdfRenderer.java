@@ -0,0 +1,273 @@
+package cn.gzus.lyf.service.experiment;
+
+import org.apache.fontbox.ttf.TrueTypeCollection;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 报告 PDF 渲染
+ * 将导出的 Markdown 按行排版为 A4 PDF（标题、表格行、正文分别使用不同字号，按页面宽度自动换行）；
+ * 中文需要 TrueType 字体，优先使用 ems.report-pdf.font-path，其次查找系统常见中文字体，均不可用时无法显示的字符以 ? 代替
+ */
+@Component
+public class ReportPdfRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportPdfRenderer.class);
+
+    /**
+     * 系统常见中文字体（TrueType / TrueType 集合）
+     */
+    private static final List<String> FONT_CANDIDATES = Arrays.asList(
+            "/usr/share/fonts/truetype/wqy/wqy-microhei.ttc",
+            "/usr/share/fonts/truetype/wqy/wqy-zenhei.ttc",
+            "/usr/share/fonts/wqy-microhei/wqy-microhei.ttc",
+            "/usr/share/fonts/wqy-zenhei/wqy-zenhei.ttc",
+            "C:/Windows/Fonts/simhei.ttf",
+            "C:/Windows/Fonts/msyh.ttc",
+            "C:/Windows/Fonts/simsun.ttc",
+            "/Library/Fonts/Arial Unicode.ttf");
+
+    private static final float MARGIN = 50;
+    private static final float TITLE_SIZE = 18;
+    private static final float HEADING_SIZE = 14;
+    private static final float BODY_SIZE = 11;
+    private static final float TABLE_SIZE = 9;
+    private static final float LINE_SPACING = 1.5f;
+
+    /**
+     * 配置的字体路径（为空时查找系统字体）
+     */
+    @Value("${ems.report-pdf.font-path:}")
+    private String fontPath;
+
+    /**
+     * 实际使用的字体文件（首次渲染时确定，null 表示使用内置字体）
+     */
+    private volatile File fontFile;
+    private volatile boolean fontResolved;
+
+    /**
+     * 渲染 Markdown 为 PDF
+     * @param markdown Markdown 内容
+     * @param out 输出流（不关闭）
+     */
+    public void render(String markdown, OutputStream out) throws IOException {
+        List<Closeable> resources = new ArrayList<>();
+        try (PDDocument document = new PDDocument()) {
+            PDFont font = loadFont(document, resources);
+            PageWriter writer = new PageWriter(document, font);
+            try (BufferedReader reader = new BufferedReader(new StringReader(markdown))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        writer.skip(BODY_SIZE / 2);
+                    } else if (line.startsWith("# ")) {
+                        writer.paragraph(line.substring(2), TITLE_SIZE);
+                    } else if (line.startsWith("## ") || line.startsWith("### ")) {
+                        writer.paragraph(line.substring(line.indexOf(' ') + 1), HEADING_SIZE);
+                    } else if (line.startsWith("|")) {
+                        // 表格分隔行不输出
+                        if (!line.replace("|", "").replace("-", "").trim().isEmpty()) {
+                            writer.paragraph(line, TABLE_SIZE);
+                        }
+                    } else if (line.length() > 2 && line.startsWith("*") && line.endsWith("*")) {
+                        writer.paragraph(line.substring(1, line.length() - 1), BODY_SIZE);
+                    } else {
+                        writer.paragraph(line, BODY_SIZE);
+                    }
+                }
+            }
+            if (document.getNumberOfPages() == 0) {
+                writer.newPage();
+            }
+            writer.close();
+            document.save(out);
+        } finally {
+            for (Closeable resource : resources) {
+                resource.close();
+            }
+        }
+    }
+
+    /**
+     * 加载字体（每个文档需单独加载，嵌入子集）
+     * @param document PDF 文档
+     * @param resources 文档保存后需要关闭的资源
+     * @return 字体
+     */
+    private PDFont loadFont(PDDocument document, List<Closeable> resources) throws IOException {
+        File file = resolveFontFile();
+        if (file == null) {
+            return PDType1Font.HELVETICA;
+        }
+        if (file.getName().toLowerCase().endsWith(".ttc")) {
+            TrueTypeCollection collection = new TrueTypeCollection(file);
+            resources.add(collection);
+            TrueTypeFont[] first = new TrueTypeFont[1];
+            collection.processAllFonts(ttf -> {
+                if (first[0] == null) {
+                    first[0] = ttf;
+                }
+            });
+            return PDType0Font.load(document, first[0], true);
+        }
+        return PDType0Font.load(document, file);
+    }
+
+    /**
+     * 确定使用的字体文件
+     * @return 字体文件，没有可用中文字体时返回 null
+     */
+    private File resolveFontFile() {
+        if (!fontResolved) {
+            synchronized (this) {
+                if (!fontResolved) {
+                    List<String> candidates = new ArrayList<>();
+                    if (fontPath != null && !fontPath.trim().isEmpty()) {
+                        candidates.add(fontPath.trim());
+                    }
+                    candidates.addAll(FONT_CANDIDATES);
+                    for (String candidate : candidates) {
+                        File file = new File(candidate);
+                        if (file.isFile()) {
+                            fontFile = file;
+                            break;
+                        }
+                    }
+                    if (fontFile == null) {
+                        log.warn("未找到可用的中文字体，PDF中的中文将无法显示，请配置 ems.report-pdf.font-path");
+                    }
+                    fontResolved = true;
+                }
+            }
+        }
+        return fontFile;
+    }
+
+    /**
+     * 逐行排版，写满一页后自动换页
+     */
+    private static final class PageWriter {
+
+        private final PDDocument document;
+        private final PDFont font;
+        private final float width;
+        private PDPageContentStream stream;
+        private float y;
+
+        private PageWriter(PDDocument document, PDFont font) {
+            this.document = document;
+            this.font = font;
+            this.width = PDRectangle.A4.getWidth() - 2 * MARGIN;
+        }
+
+        /**
+         * 输出一段文字（超出页面宽度时换行，英文单词尽量在空格处断开）
+         */
+        private void paragraph(String text, float fontSize) throws IOException {
+            StringBuilder line = new StringBuilder();
+            float lineWidth = 0;
+            // 当前行最后一个空格的位置及其之后内容的宽度
+            int lastSpace = -1;
+            float widthAfterSpace = 0;
+            for (int i = 0; i < text.length(); ) {
+                int codePoint = text.codePointAt(i);
+                i += Character.charCount(codePoint);
+                String glyph = printable(new String(Character.toChars(codePoint)));
+                float glyphWidth = font.getStringWidth(glyph) / 1000 * fontSize;
+                if (lineWidth + glyphWidth > width && line.length() > 0) {
+                    if (lastSpace > 0) {
+                        showLine(line.substring(0, lastSpace), fontSize);
+                        line.delete(0, lastSpace + 1);
+                        lineWidth = widthAfterSpace;
+                    } else {
+                        showLine(line.toString(), fontSize);
+                        line.setLength(0);
+                        lineWidth = 0;
+                    }
+                    lastSpace = -1;
+                    widthAfterSpace = lineWidth;
+                }
+                if (" ".equals(glyph)) {
+                    lastSpace = line.length();
+                    widthAfterSpace = 0;
+                } else {
+                    widthAfterSpace += glyphWidth;
+                }
+                line.append(glyph);
+                lineWidth += glyphWidth;
+            }
+            showLine(line.toString(), fontSize);
+        }
+
+        /**
+         * 留出空白
+         */
+        private void skip(float height) {
+            y -= height;
+        }
+
+        private void showLine(String text, float fontSize) throws IOException {
+            float lineHeight = fontSize * LINE_SPACING;
+            if (stream == null || y - lineHeight < MARGIN) {
+                newPage();
+            }
+            y -= lineHeight;
+            stream.beginText();
+            stream.setFont(font, fontSize);
+            stream.newLineAtOffset(MARGIN, y);
+            stream.showText(text);
+            stream.endText();
+        }
+
+        private void newPage() throws IOException {
+            close();
+            PDPage page = new PDPage(PDRectangle.A4);
+            document.addPage(page);
+            stream = new PDPageContentStream(document, page);
+            y = PDRectangle.A4.getHeight() - MARGIN;
+        }
+
+        /**
+         * 字体无法编码的字符以 ? 代替（制表符等控制字符以空格代替）
+         */
+        private String printable(String glyph) {
+            if (Character.isISOControl(glyph.codePointAt(0))) {
+                return " ";
+            }
+            try {
+                font.encode(glyph);
+                return glyph;
+            } catch (IllegalArgumentException | IOException e) {
+                return "?";
+            }
+        }
+
+        private void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+                stream = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.dao.ExperimentReportDAO;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import cn.gzus.lyf.service.file.FileService;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 报告PDF异步生成服务
+ * 报告提交后在后台线程池中将导出的 Markdown 渲染为 PDF，上传到文件存储并记录到 experiment_report.rendered_pdf_url
+ * （学生上传的 pdf_url 不受影响），下载 PDF 时直接读取已存储的文件。线程数、队列容量可配置；渲染失败或队列已满时
+ * 放入重试队列延迟重试，超过最大次数记录一轮失败，由定时任务兜底补生成，失败轮数达到上限后不再补生成
+ */
+@Service
+public class ReportPdfService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportPdfService.class);
+
+    /**
+     * 兜底补生成每次处理的最大报告数
+     */
+    private static final int RECONCILE_LIMIT = 500;
+
+    /**
+     * 渲染并发数（工作线程数）
+     */
+    @Value("${ems.report-pdf.concurrency:2}")
+    private int concurrency;
+
+    /**
+     * 待渲染队列容量
+     */
+    @Value("${ems.report-pdf.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * 最大渲染次数（含首次）
+     */
+    @Value("${ems.report-pdf.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * 重试间隔（秒），第 n 次重试等待 n 倍间隔
+     */
+    @Value("${ems.report-pdf.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    /**
+     * 失败轮数上限，达到后定时任务不再补生成（退回后重新提交时清零）
+     */
+    @Value("${ems.report-pdf.max-failed-rounds:3}")
+    private int maxFailedRounds;
+
+    private ExperimentReportDAO reportDAO;
+    private FileService fileService;
+    private ReportMarkdownWriter reportMarkdownWriter;
+    private ReportDeltaStore reportDeltaStore;
+    private ReportPdfRenderer reportPdfRenderer;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * 已排队尚未开始渲染的报告ID（避免同一报告重复排队）
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 重试队列
+     */
+    private final DelayQueue<RetryTask> retryQueue = new DelayQueue<>();
+
+    @Autowired
+    public void setReportDAO(ExperimentReportDAO reportDAO) {
+        this.reportDAO = reportDAO;
+    }
+
+    @Autowired
+    public void setFileService(FileService fileService) {
+        this.fileService = fileService;
+    }
+
+    @Autowired
+    public void setReportDeltaStore(ReportDeltaStore reportDeltaStore) {
+        this.reportDeltaStore = reportDeltaStore;
+    }
+
+    @Autowired
+    public void setReportMarkdownWriter(ReportMarkdownWriter reportMarkdownWriter) {
+        this.reportMarkdownWriter = reportMarkdownWriter;
+    }
+
+    @Autowired
+    public void setReportPdfRenderer(ReportPdfRenderer reportPdfRenderer) {
+        this.reportPdfRenderer = reportPdfRenderer;
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-pdf-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 未完成的报告 rendered_pdf_url 仍为空，重启后由兜底任务补生成
+        executor.shutdownNow();
+    }
+
+    /**
+     * 请求生成报告PDF（有事务时在提交后排队）
+     * @param reportId 报告ID
+     */
+    public void requestRender(String reportId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(reportId, 1);
+                }
+            });
+        } else {
+            submit(reportId, 1);
+        }
+    }
+
+    /**
+     * 删除已失效的报告PDF（有事务时在提交后删除，删除失败只记录日志）
+     * @param pdfUrl PDF文件对象名称
+     */
+    public void discard(String pdfUrl) {
+        if (StringUtils.isEmpty(pdfUrl)) {
+            return;
+        }
+        Runnable action = () -> {
+            try {
+                fileService.delete(pdfUrl);
+            } catch (Exception e) {
+                log.warn("删除失效的报告PDF失败：{}，{}", pdfUrl, e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 将到期的重试任务重新放入渲染队列
+     */
+    @Scheduled(fixedDelayString = "${ems.report-pdf.retry-poll-ms:5000}")
+    public void drainRetryQueue() {
+        RetryTask task;
+        while ((task = retryQueue.poll()) != null) {
+            submit(task.reportId, task.attempt);
+        }
+    }
+
+    /**
+     * 兜底补生成：已提交、已评价但没有PDF的报告（重试次数用尽、服务重启丢失的任务），失败轮数达到上限的报告除外
+     */
+    @Scheduled(cron = "${ems.report-pdf.reconcile-cron:0 50 3 * * ?}")
+    public void reconcile() {
+        int count = 0;
+        for (String reportId : reportDAO.getReportIdsWithoutRenderedPdf(maxFailedRounds, RECONCILE_LIMIT)) {
+            if (submit(reportId, 1)) {
+                count++;
+            }
+        }
+        if (count > 0) {
+            log.info("报告PDF兜底补生成：已排队 {} 份报告", count);
+        }
+    }
+
+    /**
+     * 放入渲染队列，队列已满时放入重试队列（不计渲染次数）
+     * @param reportId 报告ID
+     * @param attempt 第几次渲染
+     * @return 是否新排队
+     */
+    private boolean submit(String reportId, int attempt) {
+        if (!pending.add(reportId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> run(reportId, attempt));
+            return true;
+        } catch (RejectedExecutionException e) {
+            pending.remove(reportId);
+            if (!executor.isShutdown()) {
+                retryQueue.add(new RetryTask(reportId, attempt, retryDelaySeconds));
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 执行一次渲染，失败时按次数延迟重试
+     * @param reportId 报告ID
+     * @param attempt 第几次渲染
+     */
+    private void run(String reportId, int attempt) {
+        // 开始渲染后允许重新排队：渲染期间报告被重新提交时，需要按新内容再渲染一次
+        pending.remove(reportId);
+        try {
+            render(reportId);
+        } catch (Exception e) {
+            if (attempt < maxAttempts) {
+                log.warn("报告PDF生成失败，将第 {} 次重试：{}，{}", attempt, reportId, e.getMessage());
+                retryQueue.add(new RetryTask(reportId, attempt + 1, retryDelaySeconds * attempt));
+            } else {
+                log.error("报告PDF生成失败，已达最大次数：{}", reportId, e);
+                recordFailure(reportId);
+            }
+        }
+    }
+
+    /**
+     * 记录一轮生成失败，失败轮数达到上限后定时任务不再补生成
+     * @param reportId 报告ID
+     */
+    private void recordFailure(String reportId) {
+        try {
+            reportDAO.incrementPdfRenderFailures(reportId);
+        } catch (Exception e) {
+            log.warn("记录报告PDF生成失败次数失败：{}，{}", reportId, e.getMessage());
+        }
+    }
+
+    /**
+     * 渲染报告PDF并记录
+     * @param reportId 报告ID
+     */
+    private void render(String reportId) throws Exception {
+        ExperimentReportEntity report = reportDeltaStore.expand(reportDAO.getReportById(reportId));
+        if (report == null || report.getRenderedPdfUrl() != null
+                || !(ReportStatusEnum.SUBMITTED.getCode().equals(report.getStatus())
+                || ReportStatusEnum.GRADED.getCode().equals(report.getStatus()))) {
+            return;
+        }
+
+        StringWriter markdown = new StringWriter();
+        reportMarkdownWriter.prepare(report).writeTo(markdown);
+        ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+        reportPdfRenderer.render(markdown.toString(), pdf);
+
+        String fileName = (report.getReportName() != null ? report.getReportName() : "实验报告") + ".pdf";
+        String objectName = fileService.upload(new ByteArrayInputStream(pdf.toByteArray()), pdf.size(),
+                fileName, "application/pdf", report.getStudentId());
+        if (!reportDAO.updateRenderedPdfUrl(reportId, report.getSubmitTime(), objectName)) {
+            // 渲染期间报告已被退回或重新提交，本次结果作废
+            discard(objectName);
+        }
+    }
+
+    /**
+     * 重试任务
+     */
+    private static final class RetryTask implements Delayed {
+
+        private final String reportId;
+        private final int attempt;
+        private final long dueNanos;
+
+        private RetryTask(String reportId, int attempt, long delaySeconds) {
+            this.reportId = reportId;
+            this.attempt = attempt;
+            this.dueNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(delaySeconds);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
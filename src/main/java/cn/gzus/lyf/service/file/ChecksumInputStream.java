@@ -0,0 +1,106 @@
+package cn.gzus.lyf.service.file;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 校验 MD5 的输入流
+ * 读到声明的字节数时比较摘要，不一致或内容不足时读取抛出 {@link ChecksumException}，
+ * 存储在读取出错时不保存内容，因此校验失败的分片不会写入存储。
+ * 不读取超出声明字节数的内容
+ */
+class ChecksumInputStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private final byte[] expectedMd5;
+    private long remaining;
+
+    ChecksumInputStream(InputStream in, long size, byte[] expectedMd5) {
+        super(in);
+        try {
+            this.digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        this.expectedMd5 = expectedMd5;
+        this.remaining = size;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (remaining <= 0) {
+            return -1;
+        }
+        int b = in.read();
+        if (b < 0) {
+            throw new ChecksumException("内容不完整，还差 " + remaining + " 字节");
+        }
+        digest.update((byte) b);
+        consumed(1);
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (remaining <= 0) {
+            return -1;
+        }
+        int n = in.read(b, off, (int) Math.min(len, remaining));
+        if (n < 0) {
+            throw new ChecksumException("内容不完整，还差 " + remaining + " 字节");
+        }
+        digest.update(b, off, n);
+        consumed(n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("不支持跳过");
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (int) Math.min(in.available(), remaining);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("不支持重置");
+    }
+
+    /**
+     * 记录已读取的字节数，读完时比较摘要
+     */
+    private void consumed(int n) throws ChecksumException {
+        remaining -= n;
+        if (remaining == 0 && !MessageDigest.isEqual(digest.digest(), expectedMd5)) {
+            throw new ChecksumException("MD5 不一致");
+        }
+    }
+
+    /**
+     * 校验失败
+     */
+    static class ChecksumException extends IOException {
+
+        ChecksumException(String message) {
+            super(message);
+        }
+    }
+}
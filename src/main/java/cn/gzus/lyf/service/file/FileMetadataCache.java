@@ -0,0 +1,73 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.CacheStatsDto;
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.function.Function;
+
+/**
+ * 文件元数据缓存（对象名称 -> 元数据，LRU 淘汰）
+ * 对象名称唯一且文件内容不会修改，缓存无需过期；上传时写入，删除时失效
+ */
+@Component
+public class FileMetadataCache {
+
+    private static final String CACHE_NAME = "fileMetadata";
+
+    /**
+     * 缓存容量
+     */
+    @Value("${ems.file-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, FileMetadataDto> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取文件元数据，未命中时通过 loader 加载并缓存
+     * @param objectName 文件对象名称
+     * @param loader 加载函数（抛出异常时不缓存）
+     * @return 文件元数据
+     */
+    public FileMetadataDto get(String objectName, Function<String, FileMetadataDto> loader) {
+        return cache.get(objectName, loader);
+    }
+
+    /**
+     * 写入文件元数据
+     * @param metadata 文件元数据
+     */
+    public void put(FileMetadataDto metadata) {
+        cache.put(metadata.getObjectName(), metadata);
+    }
+
+    /**
+     * 失效指定文件
+     * @param objectName 文件对象名称
+     */
+    public void invalidate(String objectName) {
+        if (objectName != null) {
+            cache.invalidate(objectName);
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     * @return 缓存统计
+     */
+    public CacheStatsDto getStats() {
+        return CacheStatsDto.of(CACHE_NAME, cache.estimatedSize(), cache.stats());
+    }
+}
@@ -1,33 +1,53 @@
 package cn.gzus.lyf.service.file;
 
-import cn.gzus.lyf.common.config.MinioConfig;
+import cn.gzus.lyf.common.dto.CacheStatsDto;
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.PresignedUrlDto;
 import cn.gzus.lyf.common.exception.BusinessException;
 import cn.gzus.lyf.dao.FileDAO;
 import cn.gzus.lyf.dao.entity.FileEntity;
-import io.minio.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.NoSuchFileException;
 import java.util.Date;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class FileService {
 
-    private MinioClient minioClient;
-    private MinioConfig minioConfig;
+    private ObjectStorage objectStorage;
     private FileDAO fileDAO;
+    private FileMetadataCache fileMetadataCache;
+    private PresignedUrlCache presignedUrlCache;
 
-    @Autowired
-    public void setMinioClient(MinioClient minioClient) {
-        this.minioClient = minioClient;
-    }
+    /**
+     * 是否以预签名地址重定向的方式访问文件
+     */
+    @Value("${ems.file-redirect.enabled:false}")
+    private boolean redirectEnabled;
+
+    /**
+     * 预签名地址有效期（秒）
+     */
+    @Value("${ems.file-redirect.expire-seconds:600}")
+    private int redirectExpireSeconds;
+
+    /**
+     * 预签名地址在失效前多久停止复用（秒）
+     */
+    @Value("${ems.file-redirect.renew-before-seconds:120}")
+    private int redirectRenewBeforeSeconds;
 
     @Autowired
-    public void setMinioConfig(MinioConfig minioConfig) {
-        this.minioConfig = minioConfig;
+    public void setObjectStorage(ObjectStorage objectStorage) {
+        this.objectStorage = objectStorage;
     }
 
     @Autowired
@@ -35,6 +55,16 @@ public class FileService {
         this.fileDAO = fileDAO;
     }
 
+    @Autowired
+    public void setFileMetadataCache(FileMetadataCache fileMetadataCache) {
+        this.fileMetadataCache = fileMetadataCache;
+    }
+
+    @Autowired
+    public void setPresignedUrlCache(PresignedUrlCache presignedUrlCache) {
+        this.presignedUrlCache = presignedUrlCache;
+    }
+
     /**
      * 上传文件
      *
@@ -43,48 +73,34 @@ public class FileService {
      * @return 文件对象名称（用于后续通过 /file/access 或 /file/download 访问）
      */
     public String upload(MultipartFile file, String uploaderId) {
-        String bucketName = minioConfig.getBucketName();
-        try {
-            // 检查存储桶是否存在，不存在则创建
-            boolean bucketExists = minioClient.bucketExists(BucketExistsArgs.builder()
-                    .bucket(bucketName)
-                    .build());
-            if (!bucketExists) {
-                minioClient.makeBucket(MakeBucketArgs.builder()
-                        .bucket(bucketName)
-                        .build());
-            }
+        // 使用 try-with-resources 确保输入流正确关闭
+        try (InputStream inputStream = file.getInputStream()) {
+            return upload(inputStream, file.getSize(), file.getOriginalFilename(), file.getContentType(), uploaderId);
+        } catch (IOException e) {
+            throw new BusinessException("文件上传失败: " + e.getMessage());
+        }
+    }
 
+    /**
+     * 上传文件（输入流由调用方关闭）
+     *
+     * @param inputStream 文件内容
+     * @param size 文件大小
+     * @param originalFilename 原始文件名
+     * @param contentType 文件类型
+     * @param uploaderId 上传者ID
+     * @return 文件对象名称（用于后续通过 /file/access 或 /file/download 访问）
+     */
+    public String upload(InputStream inputStream, long size, String originalFilename, String contentType, String uploaderId) {
+        try {
             // 生成唯一文件名
-            String originalFilename = file.getOriginalFilename();
-            String extension = "";
-            if (originalFilename != null && originalFilename.contains(".")) {
-                extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            }
-            String objectName = UUID.randomUUID().toString().replace("-", "") + extension;
-
-            // 上传文件 - 使用 try-with-resources 确保输入流正确关闭
-            try (InputStream inputStream = file.getInputStream()) {
-                minioClient.putObject(PutObjectArgs.builder()
-                        .bucket(bucketName)
-                        .object(objectName)
-                        .stream(inputStream, file.getSize(), -1)
-                        .contentType(file.getContentType())
-                        .build());
-            } catch (Exception e) {
-                throw new BusinessException("文件上传失败: " + e.getMessage());
-            }
+            String objectName = newObjectName(originalFilename);
+
+            // 上传文件
+            String etag = objectStorage.put(objectName, inputStream, size, contentType);
 
             // 保存文件信息到数据库
-            FileEntity fileEntity = new FileEntity();
-            fileEntity.setId(UUID.randomUUID().toString().replace("-", ""));
-            fileEntity.setObjectName(objectName);
-            fileEntity.setOriginalName(originalFilename);
-            fileEntity.setFileSize(file.getSize());
-            fileEntity.setContentType(file.getContentType());
-            fileEntity.setUploaderId(uploaderId);
-            fileEntity.setCreateTime(new Date());
-            fileDAO.save(fileEntity);
+            saveFileInfo(objectName, originalFilename, size, contentType, etag, uploaderId);
 
             // 返回文件对象名称，通过后端 /file/access 或 /file/download 接口访问（永久有效）
             return objectName;
@@ -93,6 +109,46 @@ public class FileService {
         }
     }
 
+    /**
+     * 生成唯一的文件对象名称（保留原始文件扩展名）
+     *
+     * @param originalFilename 原始文件名
+     * @return 文件对象名称
+     */
+    String newObjectName(String originalFilename) {
+        String extension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        return UUID.randomUUID().toString().replace("-", "") + extension;
+    }
+
+    /**
+     * 保存已写入存储的文件信息，并写入元数据缓存
+     *
+     * @param objectName 文件对象名称
+     * @param originalFilename 原始文件名
+     * @param size 文件大小
+     * @param contentType 文件类型
+     * @param etag 存储返回的 ETag
+     * @param uploaderId 上传者ID
+     */
+    void saveFileInfo(String objectName, String originalFilename, long size, String contentType, String etag,
+                      String uploaderId) {
+        FileEntity fileEntity = new FileEntity();
+        fileEntity.setId(UUID.randomUUID().toString().replace("-", ""));
+        fileEntity.setObjectName(objectName);
+        fileEntity.setOriginalName(originalFilename);
+        fileEntity.setFileSize(size);
+        fileEntity.setContentType(contentType);
+        fileEntity.setEtag(etag);
+        fileEntity.setUploaderId(uploaderId);
+        // 数据库时间精确到秒，缓存中的修改时间与重新加载后保持一致
+        fileEntity.setCreateTime(new Date(System.currentTimeMillis() / 1000 * 1000));
+        fileDAO.save(fileEntity);
+        fileMetadataCache.put(toMetadata(fileEntity));
+    }
+
     /**
      * 根据对象名称获取文件信息
      *
@@ -103,7 +159,101 @@ public class FileService {
         return fileDAO.getByObjectName(objectName);
     }
 
+    /**
+     * 获取文件元数据（访问文件时使用）
+     * 优先读取缓存，未命中时读取 file_info；没有文件信息或缺少 ETag 的历史文件才查询对象存储，并补齐 ETag
+     *
+     * @param objectName 文件对象名称
+     * @return 文件元数据
+     */
+    public FileMetadataDto getFileMetadata(String objectName) {
+        return fileMetadataCache.get(objectName, this::loadFileMetadata);
+    }
+
+    /**
+     * 获取文件元数据缓存统计信息
+     *
+     * @return 缓存统计
+     */
+    public CacheStatsDto getFileMetadataCacheStats() {
+        return fileMetadataCache.getStats();
+    }
+
+    /**
+     * 获取文件的预签名访问地址（重定向模式）
+     * 同一文件、同一打开方式在停止复用时间之前返回缓存的地址
+     *
+     * @param objectName 文件对象名称（须为已存在的文件）
+     * @param disposition inline 或 attachment
+     * @param responseHeaders 存储返回文件时使用的响应头（同一文件、同一打开方式的响应头不变）
+     * @return 预签名地址，未开启重定向或存储不支持时返回 null
+     */
+    public PresignedUrlDto getPresignedUrl(String objectName, String disposition, Map<String, String> responseHeaders) {
+        if (!redirectEnabled) {
+            return null;
+        }
+        return presignedUrlCache.get(objectName, disposition, () -> {
+            long now = System.currentTimeMillis();
+            String url;
+            try {
+                url = objectStorage.presignGet(objectName, redirectExpireSeconds, responseHeaders);
+            } catch (IOException e) {
+                throw new BusinessException("获取文件访问地址失败: " + e.getMessage());
+            }
+            if (url == null) {
+                return null;
+            }
+            Date expireTime = new Date(now + redirectExpireSeconds * 1000L);
+            Date renewTime = new Date(expireTime.getTime() - redirectRenewBeforeSeconds * 1000L);
+            return new PresignedUrlDto(url, expireTime, renewTime);
+        });
+    }
+
+    /**
+     * 获取预签名地址缓存统计信息
+     *
+     * @return 缓存统计
+     */
+    public CacheStatsDto getPresignedUrlCacheStats() {
+        return presignedUrlCache.getStats();
+    }
+
+    /**
+     * 加载文件元数据
+     *
+     * @param objectName 文件对象名称
+     * @return 文件元数据
+     */
+    private FileMetadataDto loadFileMetadata(String objectName) {
+        FileEntity fileEntity = fileDAO.getByObjectName(objectName);
+        if (fileEntity != null && fileEntity.getEtag() != null && fileEntity.getFileSize() != null) {
+            return toMetadata(fileEntity);
+        }
 
+        FileMetadataDto metadata = getFileInfo(objectName);
+        metadata.setOriginalName(fileEntity != null ? fileEntity.getOriginalName() : null);
+        if (fileEntity != null && metadata.getEtag() != null) {
+            fileDAO.updateEtag(fileEntity.getId(), metadata.getEtag());
+        }
+        return metadata;
+    }
+
+    /**
+     * 根据文件信息构建元数据
+     *
+     * @param fileEntity 文件信息
+     * @return 文件元数据
+     */
+    private FileMetadataDto toMetadata(FileEntity fileEntity) {
+        FileMetadataDto metadata = new FileMetadataDto();
+        metadata.setObjectName(fileEntity.getObjectName());
+        metadata.setOriginalName(fileEntity.getOriginalName());
+        metadata.setContentType(fileEntity.getContentType());
+        metadata.setSize(fileEntity.getFileSize() != null ? fileEntity.getFileSize() : 0);
+        metadata.setEtag(fileEntity.getEtag());
+        metadata.setLastModified(fileEntity.getCreateTime());
+        return metadata;
+    }
 
     /**
      * 下载文件
@@ -112,31 +262,39 @@ public class FileService {
      * @return 文件输入流
      */
     public InputStream download(String objectName) {
-        String bucketName = minioConfig.getBucketName();
         try {
-            return minioClient.getObject(GetObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .build());
-        } catch (Exception e) {
+            return objectStorage.get(objectName, 0, -1);
+        } catch (NoSuchFileException e) {
+            throw new BusinessException("文件不存在: " + objectName);
+        } catch (IOException e) {
             throw new BusinessException("文件下载失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 将文件的指定字节范围写出到输出流（本地存储直接从文件通道写出）
+     *
+     * @param objectName 文件对象名称
+     * @param offset 起始字节
+     * @param length 字节数，小于 0 时写出到末尾
+     * @param outputStream 输出流（不关闭）
+     */
+    public void transferTo(String objectName, long offset, long length, OutputStream outputStream) throws IOException {
+        objectStorage.transferTo(objectName, offset, length, outputStream);
+    }
+
     /**
      * 获取文件信息
      *
      * @param objectName 文件对象名称
-     * @return 文件信息
+     * @return 文件元数据（不含原始文件名）
      */
-    public StatObjectResponse getFileInfo(String objectName) {
-        String bucketName = minioConfig.getBucketName();
+    public FileMetadataDto getFileInfo(String objectName) {
         try {
-            return minioClient.statObject(StatObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .build());
-        } catch (Exception e) {
+            return objectStorage.stat(objectName);
+        } catch (NoSuchFileException e) {
+            throw new BusinessException("文件不存在: " + objectName);
+        } catch (IOException e) {
             throw new BusinessException("获取文件信息失败: " + e.getMessage());
         }
     }
@@ -147,14 +305,13 @@ public class FileService {
      * @param objectName 文件对象名称
      */
     public void delete(String objectName) {
-        String bucketName = minioConfig.getBucketName();
         try {
-            minioClient.removeObject(RemoveObjectArgs.builder()
-                    .bucket(bucketName)
-                    .object(objectName)
-                    .build());
-        } catch (Exception e) {
+            objectStorage.delete(objectName);
+        } catch (IOException e) {
             throw new BusinessException("文件删除失败: " + e.getMessage());
         }
+        fileDAO.deleteByObjectName(objectName);
+        fileMetadataCache.invalidate(objectName);
+        presignedUrlCache.invalidate(objectName);
     }
-}
\ No newline at end of file
+}
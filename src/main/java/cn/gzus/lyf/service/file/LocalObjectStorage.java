@@ -0,0 +1,365 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLConnection;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 本地磁盘对象存储
+ * 对象保存为根目录下的同名文件：先写入同目录的临时文件，再原子重命名为目标文件，读取方不会看到写了一半的文件；
+ * 读取时用 FileChannel.transferTo 写出到输出流，不经过中间的字节数组。
+ * ETag 由文件大小和修改时间生成，上传返回的 ETag 与之后查询到的一致。
+ * 分片上传时每个分片保存为 .multipart/上传ID/ 下的文件，合并时依次写入临时文件后重命名为目标文件
+ */
+@Component
+@ConditionalOnProperty(name = "ems.storage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    private static final String TEMP_PREFIX = ".upload-";
+
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    /**
+     * 分片上传目录（根目录下，不能作为对象名称使用）
+     */
+    private static final String MULTIPART_DIR = ".multipart";
+
+    /**
+     * 分片上传目录中记录对象名称的文件
+     */
+    private static final String UPLOAD_OBJECT_FILE = "object";
+
+    private static final Pattern UPLOAD_ID_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    private static final Pattern PART_FILE_PATTERN = Pattern.compile("\\d{5}");
+
+    private final Path root;
+
+    @Autowired
+    public LocalObjectStorage(@Value("${ems.storage.local.root:./data/files}") String root) throws IOException {
+        this(Paths.get(root));
+    }
+
+    public LocalObjectStorage(Path root) throws IOException {
+        this.root = Files.createDirectories(root.toAbsolutePath().normalize());
+    }
+
+    @Override
+    public String put(String objectName, InputStream inputStream, long size, String contentType) throws IOException {
+        Path target = resolve(objectName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+        try {
+            long written;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                written = inputStream.transferTo(out);
+            }
+            if (size >= 0 && written != size) {
+                throw new IOException("文件大小不一致：声明 " + size + " 字节，实际 " + written + " 字节");
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return etag(Files.readAttributes(target, BasicFileAttributes.class));
+    }
+
+    @Override
+    public FileMetadataDto stat(String objectName) throws IOException {
+        Path path = resolve(objectName);
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        if (!attributes.isRegularFile()) {
+            throw new NoSuchFileException(objectName);
+        }
+        FileMetadataDto metadata = new FileMetadataDto();
+        metadata.setObjectName(objectName);
+        metadata.setContentType(contentType(path));
+        metadata.setSize(attributes.size());
+        metadata.setEtag(etag(attributes));
+        metadata.setLastModified(new Date(attributes.lastModifiedTime().toMillis()));
+        return metadata;
+    }
+
+    @Override
+    public InputStream get(String objectName, long offset, long length) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(objectName), StandardOpenOption.READ);
+        try {
+            channel.position(offset);
+            InputStream inputStream = Channels.newInputStream(channel);
+            return length < 0 ? inputStream : new BoundedInputStream(inputStream, length);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void transferTo(String objectName, long offset, long length, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(resolve(objectName), StandardOpenOption.READ)) {
+            long end = length < 0 ? channel.size() : Math.min(channel.size(), offset + length);
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = offset;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, target);
+                if (transferred <= 0) {
+                    // 文件在读取过程中被截断
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String objectName, String contentType) throws IOException {
+        resolve(objectName);
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        Path uploadDir = Files.createDirectories(root.resolve(MULTIPART_DIR).resolve(uploadId));
+        Files.write(uploadDir.resolve(UPLOAD_OBJECT_FILE), objectName.getBytes(StandardCharsets.UTF_8));
+        return uploadId;
+    }
+
+    @Override
+    public String uploadPart(String objectName, String uploadId, int partNumber, InputStream inputStream, long size) throws IOException {
+        Path uploadDir = resolveUpload(objectName, uploadId);
+        if (partNumber < 1 || partNumber > 99999) {
+            throw new IOException("分片序号无效：" + partNumber);
+        }
+        Path part = uploadDir.resolve(partFileName(partNumber));
+        Path temp = Files.createTempFile(uploadDir, TEMP_PREFIX, ".tmp");
+        try {
+            long written;
+            try (OutputStream out = Files.newOutputStream(temp, StandardOpenOption.WRITE)) {
+                written = inputStream.transferTo(out);
+            }
+            if (written != size) {
+                throw new IOException("分片大小不一致：声明 " + size + " 字节，实际 " + written + " 字节");
+            }
+            move(temp, part);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return etag(Files.readAttributes(part, BasicFileAttributes.class));
+    }
+
+    @Override
+    public List<UploadPartDto> listParts(String objectName, String uploadId) throws IOException {
+        Path uploadDir = resolveUpload(objectName, uploadId);
+        List<UploadPartDto> parts = new ArrayList<>();
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String fileName = file.getFileName().toString();
+                if (PART_FILE_PATTERN.matcher(fileName).matches()) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    parts.add(new UploadPartDto(Integer.parseInt(fileName), attributes.size(), etag(attributes)));
+                }
+            }
+        }
+        parts.sort(Comparator.comparingInt(UploadPartDto::getPartNumber));
+        return parts;
+    }
+
+    @Override
+    public String completeMultipartUpload(String objectName, String uploadId, List<UploadPartDto> parts) throws IOException {
+        Path uploadDir = resolveUpload(objectName, uploadId);
+        Path target = resolve(objectName);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (UploadPartDto part : parts) {
+                    Path partFile = uploadDir.resolve(partFileName(part.getPartNumber()));
+                    BasicFileAttributes attributes = Files.readAttributes(partFile, BasicFileAttributes.class);
+                    if (part.getEtag() != null && !part.getEtag().equals(etag(attributes))) {
+                        throw new IOException("分片 " + part.getPartNumber() + " 已被修改");
+                    }
+                    try (FileChannel in = FileChannel.open(partFile, StandardOpenOption.READ)) {
+                        long position = 0;
+                        long size = in.size();
+                        while (position < size) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteUploadDir(uploadDir);
+        return etag(Files.readAttributes(target, BasicFileAttributes.class));
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectName, String uploadId) throws IOException {
+        Path uploadDir;
+        try {
+            uploadDir = resolveUpload(objectName, uploadId);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        deleteUploadDir(uploadDir);
+    }
+
+    @Override
+    public void delete(String objectName) throws IOException {
+        Files.deleteIfExists(resolve(objectName));
+    }
+
+    /**
+     * 解析分片上传目录（校验上传ID和对象名称）
+     * @param objectName 对象名称
+     * @param uploadId 上传ID
+     * @return 分片上传目录
+     */
+    private Path resolveUpload(String objectName, String uploadId) throws IOException {
+        if (uploadId == null || !UPLOAD_ID_PATTERN.matcher(uploadId).matches()) {
+            throw new NoSuchFileException(String.valueOf(uploadId));
+        }
+        Path uploadDir = root.resolve(MULTIPART_DIR).resolve(uploadId);
+        Path objectFile = uploadDir.resolve(UPLOAD_OBJECT_FILE);
+        if (!Files.isRegularFile(objectFile)
+                || !objectName.equals(new String(Files.readAllBytes(objectFile), StandardCharsets.UTF_8))) {
+            throw new NoSuchFileException(uploadId);
+        }
+        return uploadDir;
+    }
+
+    /**
+     * 删除分片上传目录
+     */
+    private void deleteUploadDir(Path uploadDir) throws IOException {
+        try (Stream<Path> files = Files.list(uploadDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(uploadDir);
+    }
+
+    /**
+     * 分片文件名（补零，按文件名排序即按序号排序）
+     */
+    private String partFileName(int partNumber) {
+        return String.format("%05d", partNumber);
+    }
+
+    /**
+     * 原子重命名（文件系统不支持时退化为普通重命名）
+     */
+    private void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 解析对象路径（拒绝跳出根目录或位于分片上传目录的对象名称）
+     * @param objectName 对象名称
+     * @return 文件路径
+     */
+    private Path resolve(String objectName) throws IOException {
+        if (objectName == null || objectName.isEmpty()) {
+            throw new IOException("对象名称不能为空");
+        }
+        Path path = root.resolve(objectName).normalize();
+        if (!path.startsWith(root) || path.equals(root) || path.getFileName().toString().startsWith(TEMP_PREFIX)
+                || root.relativize(path).getName(0).toString().equals(MULTIPART_DIR)) {
+            throw new IOException("对象名称无效：" + objectName);
+        }
+        return path;
+    }
+
+    /**
+     * 根据文件大小和修改时间生成 ETag
+     */
+    private String etag(BasicFileAttributes attributes) {
+        return Long.toHexString(attributes.size()) + "-" + Long.toHexString(attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * 根据文件名推断内容类型
+     */
+    private String contentType(Path path) throws IOException {
+        String contentType = URLConnection.guessContentTypeFromName(path.getFileName().toString());
+        if (contentType == null) {
+            contentType = Files.probeContentType(path);
+        }
+        return contentType != null ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+
+    /**
+     * 最多读取指定字节数的输入流
+     */
+    private static final class BoundedInputStream extends InputStream {
+
+        private final InputStream in;
+        private long remaining;
+
+        private BoundedInputStream(InputStream in, long remaining) {
+            this.in = in;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = in.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = in.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.config.MinioConfig;
+import cn.gzus.lyf.common.config.MinioMultipartClient;
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinIO 对象存储
+ */
+@Component
+@ConditionalOnProperty(name = "ems.storage.type", havingValue = "minio", matchIfMissing = true)
+public class MinioObjectStorage implements ObjectStorage {
+
+    private MinioClient minioClient;
+    private MinioMultipartClient multipartClient;
+    private String bucketName;
+
+    /**
+     * 存储桶已确认存在（只在首次上传时检查）
+     */
+    private volatile boolean bucketReady;
+
+    public MinioObjectStorage() {
+    }
+
+    public MinioObjectStorage(MinioClient minioClient, MinioMultipartClient multipartClient, String bucketName) {
+        this.minioClient = minioClient;
+        this.multipartClient = multipartClient;
+        this.bucketName = bucketName;
+    }
+
+    @Autowired
+    public void setMinioClient(MinioClient minioClient) {
+        this.minioClient = minioClient;
+    }
+
+    @Autowired
+    public void setMultipartClient(MinioMultipartClient multipartClient) {
+        this.multipartClient = multipartClient;
+    }
+
+    @Autowired
+    public void setMinioConfig(MinioConfig minioConfig) {
+        this.bucketName = minioConfig.getBucketName();
+    }
+
+    @Override
+    public String put(String objectName, InputStream inputStream, long size, String contentType) throws IOException {
+        try {
+            ensureBucket();
+            return minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .stream(inputStream, size, -1)
+                    .contentType(contentType)
+                    .build())
+                    .etag()
+                    .replace("\"", "");
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public FileMetadataDto stat(String objectName) throws IOException {
+        try {
+            StatObjectResponse response = minioClient.statObject(StatObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+            FileMetadataDto metadata = new FileMetadataDto();
+            metadata.setObjectName(objectName);
+            metadata.setContentType(response.contentType());
+            metadata.setSize(response.size());
+            metadata.setEtag(response.etag() != null ? response.etag().replace("\"", "") : null);
+            metadata.setLastModified(Date.from(response.lastModified().toInstant()));
+            return metadata;
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public InputStream get(String objectName, long offset, long length) throws IOException {
+        if (length == 0) {
+            // MinIO 不接受长度为 0 的范围
+            return InputStream.nullInputStream();
+        }
+        try {
+            GetObjectArgs.Builder builder = GetObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName);
+            if (offset > 0 || length > 0) {
+                builder.offset(offset);
+            }
+            if (length > 0) {
+                builder.length(length);
+            }
+            return minioClient.getObject(builder.build());
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public String presignGet(String objectName, int expirySeconds, Map<String, String> responseHeaders) throws IOException {
+        // S3 通过 response-* 查询参数覆盖返回对象时的响应头
+        Map<String, String> queryParams = new HashMap<>();
+        if (responseHeaders != null) {
+            responseHeaders.forEach((name, value) -> queryParams.put("response-" + name.toLowerCase(), value));
+        }
+        try {
+            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .expiry(expirySeconds)
+                    .extraQueryParams(queryParams)
+                    .build());
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String objectName, String contentType) throws IOException {
+        try {
+            ensureBucket();
+            return multipartClient.createMultipartUpload(bucketName, objectName, contentType);
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    /**
+     * 上传分片：MinIO SDK 先把整个分片读入堆内存再发送，内存占用由调用方限制分片大小和并发数
+     */
+    @Override
+    public String uploadPart(String objectName, String uploadId, int partNumber, InputStream inputStream, long size) throws IOException {
+        try {
+            return multipartClient.uploadPart(bucketName, objectName, uploadId, partNumber, inputStream, size);
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public List<UploadPartDto> listParts(String objectName, String uploadId) throws IOException {
+        try {
+            return multipartClient.listParts(bucketName, objectName, uploadId);
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public String completeMultipartUpload(String objectName, String uploadId, List<UploadPartDto> parts) throws IOException {
+        try {
+            return multipartClient.completeMultipartUpload(bucketName, objectName, uploadId, parts);
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String objectName, String uploadId) throws IOException {
+        try {
+            multipartClient.abortMultipartUpload(bucketName, objectName, uploadId);
+        } catch (ErrorResponseException e) {
+            if (!"NoSuchUpload".equals(e.errorResponse().code())) {
+                throw translate(objectName, e);
+            }
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    @Override
+    public void delete(String objectName) throws IOException {
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder()
+                    .bucket(bucketName)
+                    .object(objectName)
+                    .build());
+        } catch (Exception e) {
+            throw translate(objectName, e);
+        }
+    }
+
+    /**
+     * 存储桶不存在时创建
+     */
+    private void ensureBucket() throws Exception {
+        if (!bucketReady) {
+            boolean bucketExists = minioClient.bucketExists(BucketExistsArgs.builder()
+                    .bucket(bucketName)
+                    .build());
+            if (!bucketExists) {
+                minioClient.makeBucket(MakeBucketArgs.builder()
+                        .bucket(bucketName)
+                        .build());
+            }
+            bucketReady = true;
+        }
+    }
+
+    /**
+     * 转换 MinIO 异常：对象或分片上传不存在转为 NoSuchFileException
+     */
+    private IOException translate(String objectName, Exception e) {
+        if (e instanceof ErrorResponseException) {
+            String code = ((ErrorResponseException) e).errorResponse().code();
+            if ("NoSuchKey".equals(code) || "NoSuchObject".equals(code) || "NoSuchUpload".equals(code)) {
+                return new NoSuchFileException(objectName);
+            }
+        }
+        if (e instanceof IOException) {
+            return (IOException) e;
+        }
+        return new IOException(e.getMessage(), e);
+    }
+}
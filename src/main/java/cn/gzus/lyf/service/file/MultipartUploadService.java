@@ -0,0 +1,388 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import cn.gzus.lyf.common.dto.UploadSessionDto;
+import cn.gzus.lyf.common.dto.UploadSessionInitDto;
+import cn.gzus.lyf.common.enums.ResultCode;
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.dao.FileUploadSessionDAO;
+import cn.gzus.lyf.dao.entity.FileUploadSessionEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 文件分片上传服务（断点续传）
+ * 创建会话后客户端按分片大小切分文件，逐个上传分片（请求体为分片内容，附 Content-MD5），全部上传后合并为文件；
+ * 分片边读取边校验 MD5 并写入对象存储的分片上传。MinIO SDK 上传分片前会把整个分片读入堆内存，
+ * 因此分片大小有上限，同时上传的分片数也有上限（超过时拒绝，客户端稍后重试该分片），
+ * 服务器内存占用不超过 分片大小 × 并发分片数，与文件大小无关；
+ * 连接中断后查询会话获取已上传的分片继续上传，同一分片可重复上传。过期未完成的会话定时取消
+ */
+@Service
+public class MultipartUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(MultipartUploadService.class);
+
+    private static final long MB = 1024L * 1024L;
+
+    /**
+     * 对象存储的最小分片大小（最后一个分片除外）
+     */
+    private static final long MIN_PART_SIZE = 5 * MB;
+
+    /**
+     * 对象存储的最大分片数量
+     */
+    private static final int MAX_PART_COUNT = 10000;
+
+    /**
+     * 每次清理的过期会话数
+     */
+    private static final int CLEANUP_LIMIT = 100;
+
+    /**
+     * 分片大小（MB）
+     */
+    @Value("${ems.multipart-upload.part-size-mb:8}")
+    private long partSizeMb;
+
+    /**
+     * 最大分片大小（MB），按最大分片数放大后仍超过该值的文件拒绝上传
+     */
+    @Value("${ems.multipart-upload.max-part-size-mb:64}")
+    private long maxPartSizeMb;
+
+    /**
+     * 最大文件大小（MB）
+     */
+    @Value("${ems.multipart-upload.max-file-size-mb:20480}")
+    private long maxFileSizeMb;
+
+    /**
+     * 会话有效期（小时）
+     */
+    @Value("${ems.multipart-upload.expire-hours:24}")
+    private int expireHours;
+
+    /**
+     * 同时上传的最大分片数
+     */
+    @Value("${ems.multipart-upload.max-concurrent-parts:4}")
+    private int maxConcurrentParts;
+
+    private FileUploadSessionDAO sessionDAO;
+    private ObjectStorage objectStorage;
+    private FileService fileService;
+
+    /**
+     * 正在上传的分片许可
+     */
+    private Semaphore partPermits;
+
+    @PostConstruct
+    public void init() {
+        this.partPermits = new Semaphore(maxConcurrentParts);
+    }
+
+    @Autowired
+    public void setSessionDAO(FileUploadSessionDAO sessionDAO) {
+        this.sessionDAO = sessionDAO;
+    }
+
+    @Autowired
+    public void setObjectStorage(ObjectStorage objectStorage) {
+        this.objectStorage = objectStorage;
+    }
+
+    @Autowired
+    public void setFileService(FileService fileService) {
+        this.fileService = fileService;
+    }
+
+    /**
+     * 创建上传会话
+     * @param initDto 文件信息
+     * @param uploaderId 上传者ID
+     * @return 上传会话
+     */
+    public UploadSessionDto init(UploadSessionInitDto initDto, String uploaderId) {
+        Objects.requireNonNull(initDto, "文件信息不能为空");
+        Objects.requireNonNull(initDto.getFileSize(), "文件大小不能为空");
+        long fileSize = initDto.getFileSize();
+        if (fileSize <= 0) {
+            throw new BusinessException("文件不能为空");
+        }
+        if (fileSize > maxFileSizeMb * MB) {
+            throw new BusinessException("文件大小不能超过 " + maxFileSizeMb + "MB");
+        }
+        // 分片数量超过存储上限时按 MB 向上取整放大分片
+        long partSize = Math.max(Math.max(partSizeMb * MB, MIN_PART_SIZE),
+                (fileSize + MAX_PART_COUNT - 1) / MAX_PART_COUNT);
+        partSize = (partSize + MB - 1) / MB * MB;
+        if (partSize > maxPartSizeMb * MB) {
+            throw new BusinessException("文件过大，分片大小超过 " + maxPartSizeMb + "MB");
+        }
+        int partCount = (int) ((fileSize + partSize - 1) / partSize);
+
+        String objectName = fileService.newObjectName(initDto.getFileName());
+        String uploadId;
+        try {
+            uploadId = objectStorage.createMultipartUpload(objectName, initDto.getContentType());
+        } catch (IOException e) {
+            throw new BusinessException("创建上传会话失败: " + e.getMessage());
+        }
+
+        Date now = new Date();
+        FileUploadSessionEntity session = new FileUploadSessionEntity();
+        session.setId(UUID.randomUUID().toString().replace("-", ""));
+        session.setObjectName(objectName);
+        session.setUploadId(uploadId);
+        session.setOriginalName(initDto.getFileName());
+        session.setContentType(initDto.getContentType());
+        session.setFileSize(fileSize);
+        session.setPartSize(partSize);
+        session.setPartCount(partCount);
+        session.setUploaderId(uploaderId);
+        session.setCreateTime(now);
+        session.setExpireTime(new Date(now.getTime() + expireHours * 3600_000L));
+        sessionDAO.addSession(session);
+        return toDto(session, List.of());
+    }
+
+    /**
+     * 查询上传会话及已上传的分片（断点续传）
+     * @param sessionId 会话ID
+     * @param uploaderId 上传者ID
+     * @return 上传会话
+     */
+    public UploadSessionDto getSession(String sessionId, String uploaderId) {
+        FileUploadSessionEntity session = getOwnSession(sessionId, uploaderId);
+        return toDto(session, listParts(session));
+    }
+
+    /**
+     * 上传分片（同一分片重复上传时覆盖）
+     * @param sessionId 会话ID
+     * @param partNumber 分片序号（从 1 开始）
+     * @param contentMd5 分片内容 MD5 的 Base64 编码（Content-MD5 请求头）
+     * @param inputStream 分片内容（由调用方关闭）
+     * @param contentLength 请求体长度，未知时小于 0
+     * @param uploaderId 上传者ID
+     * @return 已上传的分片
+     */
+    public UploadPartDto uploadPart(String sessionId, int partNumber, String contentMd5, InputStream inputStream,
+                                    long contentLength, String uploaderId) {
+        Objects.requireNonNull(inputStream, "分片内容不能为空");
+        FileUploadSessionEntity session = getOwnSession(sessionId, uploaderId);
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new BusinessException("分片序号无效：" + partNumber + "，应为 1 至 " + session.getPartCount());
+        }
+        long size = expectedPartSize(session, partNumber);
+        if (contentLength >= 0 && contentLength != size) {
+            throw new BusinessException("分片 " + partNumber + " 大小应为 " + size + " 字节，实际为 " + contentLength + " 字节");
+        }
+        byte[] md5 = decodeMd5(contentMd5);
+        if (!partPermits.tryAcquire()) {
+            throw new BusinessException("上传繁忙，请稍后重试分片 " + partNumber);
+        }
+
+        String etag;
+        try {
+            etag = objectStorage.uploadPart(session.getObjectName(), session.getUploadId(), partNumber,
+                    new ChecksumInputStream(inputStream, size, md5), size);
+        } catch (IOException e) {
+            if (isChecksumFailure(e)) {
+                throw new BusinessException("分片 " + partNumber + " 校验失败，请重新上传：" + e.getMessage());
+            }
+            if (e instanceof NoSuchFileException) {
+                throw new BusinessException("上传会话已失效，请重新上传");
+            }
+            throw new BusinessException("分片上传失败: " + e.getMessage());
+        } finally {
+            partPermits.release();
+        }
+        return new UploadPartDto(partNumber, size, etag);
+    }
+
+    /**
+     * 完成上传：校验全部分片已上传后合并为文件，保存文件信息并删除会话（保存失败时删除合并后的文件）
+     * @param sessionId 会话ID
+     * @param uploaderId 上传者ID
+     * @return 上传会话（objectName 为合并后的文件对象名称）
+     */
+    public UploadSessionDto complete(String sessionId, String uploaderId) {
+        FileUploadSessionEntity session = getOwnSession(sessionId, uploaderId);
+        List<UploadPartDto> parts = listParts(session);
+        if (parts.size() != session.getPartCount()) {
+            throw new BusinessException("还有 " + (session.getPartCount() - parts.size()) + " 个分片未上传");
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            UploadPartDto part = parts.get(i);
+            if (part.getPartNumber() != i + 1 || part.getSize() != expectedPartSize(session, i + 1)) {
+                throw new BusinessException("分片 " + (i + 1) + " 缺失或大小不正确，请重新上传该分片");
+            }
+        }
+
+        String etag;
+        try {
+            etag = objectStorage.completeMultipartUpload(session.getObjectName(), session.getUploadId(), parts);
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(ResultCode.CONFLICT, "上传会话已完成或已取消");
+        } catch (IOException e) {
+            throw new BusinessException("合并分片失败: " + e.getMessage());
+        }
+        try {
+            fileService.saveFileInfo(session.getObjectName(), session.getOriginalName(), session.getFileSize(),
+                    session.getContentType(), etag, session.getUploaderId());
+        } catch (RuntimeException e) {
+            // 分片上传已合并，会话无法继续使用：删除没有文件信息的对象，避免存储中留下无法访问的文件
+            try {
+                objectStorage.delete(session.getObjectName());
+            } catch (IOException deleteError) {
+                log.warn("删除未保存文件信息的合并文件失败：{}，{}", session.getObjectName(), deleteError.getMessage());
+            }
+            sessionDAO.deleteSession(session.getId());
+            throw e;
+        }
+        sessionDAO.deleteSession(session.getId());
+        return toDto(session, parts);
+    }
+
+    /**
+     * 取消上传并删除已上传的分片
+     * @param sessionId 会话ID
+     * @param uploaderId 上传者ID
+     */
+    public void abort(String sessionId, String uploaderId) {
+        abort(getOwnSession(sessionId, uploaderId));
+    }
+
+    /**
+     * 定时取消过期未完成的上传会话
+     */
+    @Scheduled(cron = "${ems.multipart-upload.cleanup-cron:0 20 * * * ?}")
+    public void cleanupExpired() {
+        int count = 0;
+        for (FileUploadSessionEntity session : sessionDAO.getExpiredSessions(new Date(), CLEANUP_LIMIT)) {
+            try {
+                abort(session);
+                count++;
+            } catch (BusinessException e) {
+                log.warn("取消过期上传会话失败：{}，{}", session.getId(), e.getMessage());
+            }
+        }
+        if (count > 0) {
+            log.info("已取消 {} 个过期的分片上传会话", count);
+        }
+    }
+
+    /**
+     * 取消上传会话
+     */
+    private void abort(FileUploadSessionEntity session) {
+        try {
+            objectStorage.abortMultipartUpload(session.getObjectName(), session.getUploadId());
+        } catch (IOException e) {
+            throw new BusinessException("取消上传失败: " + e.getMessage());
+        }
+        sessionDAO.deleteSession(session.getId());
+    }
+
+    /**
+     * 获取当前用户的有效上传会话
+     * @param sessionId 会话ID
+     * @param uploaderId 上传者ID
+     * @return 上传会话
+     */
+    private FileUploadSessionEntity getOwnSession(String sessionId, String uploaderId) {
+        Objects.requireNonNull(sessionId, "会话ID不能为空");
+        FileUploadSessionEntity session = sessionDAO.getSessionById(sessionId);
+        if (session == null || session.getExpireTime().before(new Date())) {
+            throw new BusinessException("上传会话不存在或已过期");
+        }
+        if (!Objects.equals(session.getUploaderId(), uploaderId)) {
+            throw new BusinessException("无权操作该上传会话");
+        }
+        return session;
+    }
+
+    /**
+     * 列出会话已上传的分片
+     */
+    private List<UploadPartDto> listParts(FileUploadSessionEntity session) {
+        try {
+            return objectStorage.listParts(session.getObjectName(), session.getUploadId());
+        } catch (NoSuchFileException e) {
+            throw new BusinessException("上传会话已失效，请重新上传");
+        } catch (IOException e) {
+            throw new BusinessException("查询已上传分片失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 分片应有的大小（最后一个分片为剩余字节数）
+     */
+    private long expectedPartSize(FileUploadSessionEntity session, int partNumber) {
+        long offset = (partNumber - 1) * session.getPartSize();
+        return Math.min(session.getPartSize(), session.getFileSize() - offset);
+    }
+
+    /**
+     * 解析 Content-MD5 请求头
+     */
+    private byte[] decodeMd5(String contentMd5) {
+        if (contentMd5 == null || contentMd5.isEmpty()) {
+            throw new BusinessException("缺少分片校验值（Content-MD5）");
+        }
+        byte[] md5;
+        try {
+            md5 = Base64.getDecoder().decode(contentMd5.trim());
+        } catch (IllegalArgumentException e) {
+            md5 = null;
+        }
+        if (md5 == null || md5.length != 16) {
+            throw new BusinessException("分片校验值（Content-MD5）格式无效，应为 MD5 摘要的 Base64 编码");
+        }
+        return md5;
+    }
+
+    /**
+     * 判断是否为分片校验失败（存储可能包装读取异常）
+     */
+    private boolean isChecksumFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ChecksumInputStream.ChecksumException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private UploadSessionDto toDto(FileUploadSessionEntity session, List<UploadPartDto> parts) {
+        UploadSessionDto dto = new UploadSessionDto();
+        dto.setSessionId(session.getId());
+        dto.setObjectName(session.getObjectName());
+        dto.setFileName(session.getOriginalName());
+        dto.setFileSize(session.getFileSize());
+        dto.setPartSize(session.getPartSize());
+        dto.setPartCount(session.getPartCount());
+        dto.setExpireTime(session.getExpireTime());
+        dto.setUploadedParts(parts);
+        return dto;
+    }
+}
@@ -0,0 +1,118 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.UploadPartDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 对象存储
+ * 由 ems.storage.type 选择实现：minio（默认）或 local（本地磁盘，单机部署、测试环境不需要 MinIO）。
+ * 对象不存在时读取、查询抛出 {@link java.nio.file.NoSuchFileException}。
+ * 分片上传：创建后逐个上传分片（同一序号重复上传时覆盖），全部上传后按序号合并为对象；合并前对象不可见
+ */
+public interface ObjectStorage {
+
+    /**
+     * 保存对象（同名对象被覆盖）
+     * @param objectName 对象名称
+     * @param inputStream 内容（由调用方关闭）
+     * @param size 内容字节数
+     * @param contentType 内容类型
+     * @return ETag（不含引号）
+     */
+    String put(String objectName, InputStream inputStream, long size, String contentType) throws IOException;
+
+    /**
+     * 查询对象元数据
+     * @param objectName 对象名称
+     * @return 元数据（不含原始文件名）
+     */
+    FileMetadataDto stat(String objectName) throws IOException;
+
+    /**
+     * 读取对象的指定字节范围
+     * @param objectName 对象名称
+     * @param offset 起始字节
+     * @param length 字节数，小于 0 时读取到末尾
+     * @return 输入流（由调用方关闭）
+     */
+    InputStream get(String objectName, long offset, long length) throws IOException;
+
+    /**
+     * 将对象的指定字节范围写出到输出流
+     * @param objectName 对象名称
+     * @param offset 起始字节
+     * @param length 字节数，小于 0 时写出到末尾
+     * @param outputStream 输出流（不关闭）
+     */
+    default void transferTo(String objectName, long offset, long length, OutputStream outputStream) throws IOException {
+        try (InputStream inputStream = get(objectName, offset, length)) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+
+    /**
+     * 签发限时的读取地址，客户端直接从存储读取对象，不经过应用服务器
+     * @param objectName 对象名称
+     * @param expirySeconds 有效期（秒）
+     * @param responseHeaders 存储返回对象时使用的响应头（Content-Type、Content-Disposition、Cache-Control）
+     * @return 读取地址，存储不支持时返回 null
+     */
+    default String presignGet(String objectName, int expirySeconds, Map<String, String> responseHeaders) throws IOException {
+        return null;
+    }
+
+    /**
+     * 创建分片上传
+     * @param objectName 对象名称
+     * @param contentType 内容类型
+     * @return 上传ID
+     */
+    String createMultipartUpload(String objectName, String contentType) throws IOException;
+
+    /**
+     * 上传分片
+     * @param objectName 对象名称
+     * @param uploadId 上传ID
+     * @param partNumber 分片序号（从 1 开始）
+     * @param inputStream 分片内容（由调用方关闭，读取出错时不保存该分片）
+     * @param size 分片字节数
+     * @return 分片 ETag（不含引号）
+     */
+    String uploadPart(String objectName, String uploadId, int partNumber, InputStream inputStream, long size) throws IOException;
+
+    /**
+     * 列出已上传的分片
+     * @param objectName 对象名称
+     * @param uploadId 上传ID
+     * @return 分片列表（按序号排序）
+     */
+    List<UploadPartDto> listParts(String objectName, String uploadId) throws IOException;
+
+    /**
+     * 按序号合并分片为对象
+     * @param objectName 对象名称
+     * @param uploadId 上传ID
+     * @param parts 参与合并的分片（按序号排序）
+     * @return 对象 ETag（不含引号）
+     */
+    String completeMultipartUpload(String objectName, String uploadId, List<UploadPartDto> parts) throws IOException;
+
+    /**
+     * 取消分片上传并删除已上传的分片（上传不存在时不报错）
+     * @param objectName 对象名称
+     * @param uploadId 上传ID
+     */
+    void abortMultipartUpload(String objectName, String uploadId) throws IOException;
+
+    /**
+     * 删除对象（对象不存在时不报错）
+     * @param objectName 对象名称
+     */
+    void delete(String objectName) throws IOException;
+}
@@ -0,0 +1,94 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.CacheStatsDto;
+import cn.gzus.lyf.common.dto.PresignedUrlDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 预签名地址缓存（对象名称 + 打开方式 -> 预签名地址）
+ * 同一文件在停止复用时间之前返回同一地址，减少签名计算，浏览器也能按同一地址命中缓存
+ */
+@Component
+public class PresignedUrlCache {
+
+    private static final String CACHE_NAME = "presignedUrl";
+
+    private static final String KEY_SEPARATOR = ":";
+
+    /**
+     * 缓存容量
+     */
+    @Value("${ems.file-redirect.maximum-size:10000}")
+    private long maximumSize;
+
+    private Cache<String, PresignedUrlDto> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<String, PresignedUrlDto>() {
+                    @Override
+                    public long expireAfterCreate(String key, PresignedUrlDto url, long currentTime) {
+                        return remainingNanos(url);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, PresignedUrlDto url, long currentTime, long currentDuration) {
+                        return remainingNanos(url);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, PresignedUrlDto url, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取预签名地址，未命中或已到停止复用时间时通过 loader 签发并缓存
+     * @param objectName 文件对象名称
+     * @param disposition inline 或 attachment
+     * @param loader 签发函数（返回 null 或抛出异常时不缓存）
+     * @return 预签名地址
+     */
+    public PresignedUrlDto get(String objectName, String disposition, Supplier<PresignedUrlDto> loader) {
+        return cache.get(objectName + KEY_SEPARATOR + disposition, key -> loader.get());
+    }
+
+    /**
+     * 失效指定文件的全部地址
+     * @param objectName 文件对象名称
+     */
+    public void invalidate(String objectName) {
+        if (objectName != null) {
+            cache.asMap().keySet().removeIf(key -> key.startsWith(objectName + KEY_SEPARATOR));
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     * @return 缓存统计
+     */
+    public CacheStatsDto getStats() {
+        return CacheStatsDto.of(CACHE_NAME, cache.estimatedSize(), cache.stats());
+    }
+
+    /**
+     * 距停止复用时间的剩余纳秒数
+     */
+    private long remainingNanos(PresignedUrlDto url) {
+        long remainingMillis = url.getRenewTime().getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+}
@@ -1,5 +1,6 @@
 package cn.gzus.lyf.service.notice;
 
+import cn.gzus.lyf.common.dto.CursorPageDto;
 import cn.gzus.lyf.common.dto.MessageQueryDto;
 import cn.gzus.lyf.common.dto.PageDto;
 import cn.gzus.lyf.dao.MessageDAO;
@@ -33,6 +34,19 @@ public class MessageService {
         return messageDAO.getMessagePage(current, size, messageQueryDto);
     }
 
+    /**
+     * 游标分页查询消息（未读优先，时间倒序）
+     * @param messageQueryDto 查询条件
+     * @param cursor 上一页返回的游标（首页为空）
+     * @param size 每页大小
+     * @param withTotal 是否统计总数
+     * @return 游标分页结果
+     */
+    public CursorPageDto<MessageEntity> getMessageCursorPage(MessageQueryDto messageQueryDto, String cursor,
+                                                            Integer size, boolean withTotal) {
+        return messageDAO.getMessageCursorPage(messageQueryDto, cursor, size, withTotal);
+    }
+
     public boolean addMessage(MessageEntity messageEntity) {
         Objects.requireNonNull(messageEntity, "消息实体不能为空");
         Objects.requireNonNull(messageEntity.getTitle(), "消息标题不能为空");
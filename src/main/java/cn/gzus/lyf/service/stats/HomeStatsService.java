@@ -0,0 +1,107 @@
+package cn.gzus.lyf.service.stats;
+
+import cn.gzus.lyf.common.dto.HomeStatsDto;
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.dao.CourseDAO;
+import cn.gzus.lyf.dao.CourseTemplateRelationDAO;
+import cn.gzus.lyf.dao.CourseUserRelationDAO;
+import cn.gzus.lyf.dao.ExperimentTemplateDAO;
+import cn.gzus.lyf.service.experiment.ReportCounterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 首页统计服务
+ * 报告数量读取自报告计数表（见 ReportCounterService），不扫描报告表
+ */
+@Service
+public class HomeStatsService {
+
+    private CourseDAO courseDAO;
+    private CourseUserRelationDAO courseUserRelationDAO;
+    private CourseTemplateRelationDAO courseTemplateRelationDAO;
+    private ExperimentTemplateDAO templateDAO;
+    private ReportCounterService reportCounterService;
+
+    @Autowired
+    public void setCourseDAO(CourseDAO courseDAO) {
+        this.courseDAO = courseDAO;
+    }
+
+    @Autowired
+    public void setCourseUserRelationDAO(CourseUserRelationDAO courseUserRelationDAO) {
+        this.courseUserRelationDAO = courseUserRelationDAO;
+    }
+
+    @Autowired
+    public void setCourseTemplateRelationDAO(CourseTemplateRelationDAO courseTemplateRelationDAO) {
+        this.courseTemplateRelationDAO = courseTemplateRelationDAO;
+    }
+
+    @Autowired
+    public void setTemplateDAO(ExperimentTemplateDAO templateDAO) {
+        this.templateDAO = templateDAO;
+    }
+
+    @Autowired
+    public void setReportCounterService(ReportCounterService reportCounterService) {
+        this.reportCounterService = reportCounterService;
+    }
+
+    /**
+     * 获取老师（管理员）首页统计
+     * @param userId 用户ID
+     * @param stats 统计数据
+     */
+    public void fillTeacherStats(String userId, HomeStatsDto stats) {
+        // 管理的课程 = 创建的课程 + 作为管理者参与的课程
+        Set<String> managedCourseIds = new LinkedHashSet<>(courseDAO.getCourseIdsByCreator(userId));
+        managedCourseIds.addAll(courseUserRelationDAO.getAdminCourseIdsByUserId(userId));
+        List<String> courseIds = new ArrayList<>(managedCourseIds);
+
+        stats.setManagedCourseCount(courseIds.size());
+        stats.setMaintainedTemplateCount((int) templateDAO.getTemplateCountByCreator(userId));
+
+        Map<String, Long> statusCounts = reportCounterService.getCourseStatusCounts(courseIds);
+        stats.setGradedReportCount(getCount(statusCounts, ReportStatusEnum.GRADED));
+        stats.setPendingGradeReportCount(getCount(statusCounts, ReportStatusEnum.SUBMITTED));
+    }
+
+    /**
+     * 获取学生首页统计
+     * @param userId 用户ID
+     * @param stats 统计数据
+     */
+    public void fillStudentStats(String userId, HomeStatsDto stats) {
+        List<String> courseIds = courseUserRelationDAO.getStudentCourseIdsByUserId(userId);
+        stats.setEnrolledCourseCount(courseIds.size());
+
+        // 课程所有报告总和 = 所学课程绑定的实验模板总数
+        int totalTemplateCount = (int) courseTemplateRelationDAO.countByCourseIds(courseIds);
+        stats.setTotalTemplateCount(totalTemplateCount);
+
+        // 已提交（包含已提交和已评价，只统计所学课程下的报告）
+        Map<String, Long> statusCounts = reportCounterService.getStudentStatusCounts(userId, courseIds);
+        int submittedCount = getCount(statusCounts, ReportStatusEnum.SUBMITTED) + getCount(statusCounts, ReportStatusEnum.GRADED);
+        stats.setSubmittedReportCount(submittedCount);
+
+        // 待提交数 = 课程所有报告总和 - 已提交数
+        stats.setPendingSubmitReportCount(totalTemplateCount - submittedCount);
+    }
+
+    /**
+     * 从状态统计结果中取出指定状态的数量
+     * @param statusCounts 状态 -> 报告数量
+     * @param status 报告状态
+     * @return 报告数量
+     */
+    private int getCount(Map<String, Long> statusCounts, ReportStatusEnum status) {
+        return statusCounts.getOrDefault(status.getCode(), 0L).intValue();
+    }
+}
@@ -407,7 +407,9 @@ CREATE TABLE message
     creator_id    VARCHAR(64)                        NOT NULL COMMENT '创建人ID',
     creator_name  VARCHAR(50)                        NOT NULL COMMENT '创建人名称',
     create_time   DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
-    update_time   DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间'
+    update_time   DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
+    INDEX idx_receiver_status_create (receiver_id, status, create_time DESC, id DESC),
+    INDEX idx_creator_status_create (creator_id, status, create_time DESC, id DESC)
 ) COMMENT '消息表';
 
 -- 插入消息数据：教师用户10000（李老师）的消息
@@ -484,7 +486,8 @@ CREATE TABLE experiment_template
 (
     id          VARCHAR(64) PRIMARY KEY COMMENT '模板ID',
     template_name VARCHAR(100) NOT NULL COMMENT '模板名称',
-    template_content TEXT NOT NULL COMMENT '模板内容',
+    template_content MEDIUMBLOB NOT NULL COMMENT '模板内容（首字节为编码格式，见 ContentCodec）',
+    version     INT DEFAULT 1 NOT NULL COMMENT '模板版本（内容每次修改加1）',
     description VARCHAR(500) COMMENT '模板描述',
     creator_id  VARCHAR(64) NOT NULL COMMENT '创建者ID',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
@@ -505,6 +508,17 @@ VALUES ('2026675154007404545', '甲醇燃烧实验',
         '验证活细胞的细胞膜具有控制物质进出的作用', '10000', '2026-03-05 00:27:28', '2026-03-05 00:27:28');
 
 
+-- 11.1 实验模板版本表（模板各版本内容，只增不改，报告增量存储时引用）
+CREATE TABLE experiment_template_version
+(
+    template_id      VARCHAR(64) NOT NULL COMMENT '模板ID',
+    version          INT NOT NULL COMMENT '模板版本',
+    template_content MEDIUMBLOB NOT NULL COMMENT '该版本的模板内容（首字节为编码格式，见 ContentCodec）',
+    create_time      DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
+    PRIMARY KEY (template_id, version)
+) COMMENT '实验模板版本表';
+
+
 -- 12. 实验报告表
 CREATE TABLE experiment_report
 (
@@ -512,20 +526,26 @@ CREATE TABLE experiment_report
     template_id VARCHAR(64) NOT NULL COMMENT '使用的模板ID',
     course_id   VARCHAR(36) COMMENT '课程ID',
     report_name VARCHAR(100) NOT NULL COMMENT '报告名称',
-    report_content TEXT NOT NULL COMMENT '报告内容',
+    report_content MEDIUMBLOB NOT NULL COMMENT '报告内容（首字节为编码格式，见 ContentCodec）',
     student_id  VARCHAR(64) NOT NULL COMMENT '学生ID',
     submit_time DATETIME COMMENT '提交时间',
     status      VARCHAR(20) DEFAULT 'draft' COMMENT '报告状态：draft-待提交, submitted-已提交, graded-已评价',
     score       INT COMMENT '分数',
     comment     TEXT COMMENT '评语',
     pdf_url     VARCHAR(500) COMMENT 'PDF报告文件URL',
+    rendered_pdf_url VARCHAR(500) COMMENT '系统生成的PDF文件对象名称（提交后异步生成）',
+    pdf_render_failures INT DEFAULT 0 NOT NULL COMMENT 'PDF生成失败轮数（每轮重试用尽计1次，退回时清零）',
     grade_time  DATETIME COMMENT '评价时间',
+    version     INT DEFAULT 1 NOT NULL COMMENT '版本号（乐观锁，内容每次修改加1）',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
     INDEX idx_template (template_id),
     INDEX idx_student (student_id),
     INDEX idx_course_id (course_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_student_course_template (student_id, course_id, template_id),
+    INDEX idx_student_update (student_id, update_time, id),
+    INDEX idx_course_status_update (course_id, status, update_time, id)
 ) COMMENT '实验报告表';
 
 
@@ -537,9 +557,50 @@ CREATE TABLE file_info
     original_name VARCHAR(255) COMMENT '原始文件名',
     file_size     BIGINT COMMENT '文件大小（字节）',
     content_type  VARCHAR(100) COMMENT '文件类型',
+    etag          VARCHAR(64) COMMENT '对象存储返回的ETag',
     uploader_id   VARCHAR(64) COMMENT '上传者ID',
     create_time   DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
     UNIQUE INDEX idx_object_name (object_name),
     INDEX idx_uploader (uploader_id)
 ) COMMENT '文件信息表';
 
+-- 13.1 文件分片上传会话表（大文件分片上传，完成或过期后删除）
+CREATE TABLE file_upload_session
+(
+    id            VARCHAR(64) PRIMARY KEY COMMENT '会话ID',
+    object_name   VARCHAR(100) NOT NULL COMMENT '文件对象名称',
+    upload_id     VARCHAR(255) NOT NULL COMMENT '对象存储的分片上传ID',
+    original_name VARCHAR(255) COMMENT '原始文件名',
+    content_type  VARCHAR(100) COMMENT '文件类型',
+    file_size     BIGINT NOT NULL COMMENT '文件大小（字节）',
+    part_size     BIGINT NOT NULL COMMENT '分片大小（字节）',
+    part_count    INT NOT NULL COMMENT '分片数量',
+    uploader_id   VARCHAR(64) COMMENT '上传者ID',
+    create_time   DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
+    expire_time   DATETIME NOT NULL COMMENT '过期时间',
+    INDEX idx_expire_time (expire_time)
+) COMMENT '文件分片上传会话表';
+
+
+-- 14. 课程报告计数表
+CREATE TABLE report_course_counter
+(
+    course_id    VARCHAR(64) NOT NULL COMMENT '课程ID',
+    template_id  VARCHAR(64) NOT NULL COMMENT '模板ID',
+    status       VARCHAR(20) NOT NULL COMMENT '报告状态',
+    report_count INT DEFAULT 0 NOT NULL COMMENT '报告数量',
+    update_time  DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (course_id, template_id, status)
+) COMMENT '课程报告计数表';
+
+
+-- 15. 学生报告计数表
+CREATE TABLE report_student_counter
+(
+    student_id   VARCHAR(64) NOT NULL COMMENT '学生ID',
+    course_id    VARCHAR(64) DEFAULT '' NOT NULL COMMENT '课程ID（未关联课程的报告为空字符串）',
+    status       VARCHAR(20) NOT NULL COMMENT '报告状态',
+    report_count INT DEFAULT 0 NOT NULL COMMENT '报告数量',
+    update_time  DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (student_id, course_id, status)
+) COMMENT '学生报告计数表';
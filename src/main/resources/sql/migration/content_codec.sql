@@ -0,0 +1,8 @@
+-- 报告、模板内容改为二进制存储（首字节为编码格式，见 ContentCodec）
+-- 已有的 TEXT 数据按 UTF-8 字节原样转换，无格式标识，读取时按原文处理；
+-- 执行后设置 ems.content-codec.migrate-on-startup=true 启动一次，由后台任务分批压缩已有数据
+ALTER TABLE experiment_template
+    MODIFY template_content MEDIUMBLOB NOT NULL COMMENT '模板内容（首字节为编码格式，见 ContentCodec）';
+
+ALTER TABLE experiment_report
+    MODIFY report_content MEDIUMBLOB NOT NULL COMMENT '报告内容（首字节为编码格式，见 ContentCodec）';
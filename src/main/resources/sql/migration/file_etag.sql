@@ -0,0 +1,3 @@
+-- 文件ETag：访问文件时从 file_info 获取元数据，不再查询对象存储（历史文件首次访问时补齐）
+ALTER TABLE file_info
+    ADD COLUMN etag VARCHAR(64) COMMENT '对象存储返回的ETag' AFTER content_type;
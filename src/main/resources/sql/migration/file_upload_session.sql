@@ -0,0 +1,16 @@
+-- 文件分片上传会话：大文件按分片上传到对象存储，连接中断后可查询已上传的分片继续上传
+CREATE TABLE file_upload_session
+(
+    id            VARCHAR(64) PRIMARY KEY COMMENT '会话ID',
+    object_name   VARCHAR(100) NOT NULL COMMENT '文件对象名称',
+    upload_id     VARCHAR(255) NOT NULL COMMENT '对象存储的分片上传ID',
+    original_name VARCHAR(255) COMMENT '原始文件名',
+    content_type  VARCHAR(100) COMMENT '文件类型',
+    file_size     BIGINT NOT NULL COMMENT '文件大小（字节）',
+    part_size     BIGINT NOT NULL COMMENT '分片大小（字节）',
+    part_count    INT NOT NULL COMMENT '分片数量',
+    uploader_id   VARCHAR(64) COMMENT '上传者ID',
+    create_time   DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
+    expire_time   DATETIME NOT NULL COMMENT '过期时间',
+    INDEX idx_expire_time (expire_time)
+) COMMENT '文件分片上传会话表';
@@ -0,0 +1,4 @@
+-- 消息游标分页索引：按 (状态升序, 创建时间降序, ID降序) 排序，索引列方向与排序一致（需 MySQL 8.0 降序索引）
+ALTER TABLE message
+    ADD INDEX idx_receiver_status_create (receiver_id, status, create_time DESC, id DESC),
+    ADD INDEX idx_creator_status_create (creator_id, status, create_time DESC, id DESC);
@@ -0,0 +1,34 @@
+-- 报告计数表：首页统计读取计数表，不再扫描报告表；报告新增、状态流转、删除时增量更新，每天按报告表重建
+-- 计数可由报告表重新生成，已存在（含旧版按 (学生, 状态) 建立的学生计数表）时直接重建
+DROP TABLE IF EXISTS report_course_counter;
+CREATE TABLE report_course_counter
+(
+    course_id    VARCHAR(64) NOT NULL COMMENT '课程ID',
+    template_id  VARCHAR(64) NOT NULL COMMENT '模板ID',
+    status       VARCHAR(20) NOT NULL COMMENT '报告状态',
+    report_count INT DEFAULT 0 NOT NULL COMMENT '报告数量',
+    update_time  DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (course_id, template_id, status)
+) COMMENT '课程报告计数表';
+
+DROP TABLE IF EXISTS report_student_counter;
+CREATE TABLE report_student_counter
+(
+    student_id   VARCHAR(64) NOT NULL COMMENT '学生ID',
+    course_id    VARCHAR(64) DEFAULT '' NOT NULL COMMENT '课程ID（未关联课程的报告为空字符串）',
+    status       VARCHAR(20) NOT NULL COMMENT '报告状态',
+    report_count INT DEFAULT 0 NOT NULL COMMENT '报告数量',
+    update_time  DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP NOT NULL COMMENT '更新时间',
+    PRIMARY KEY (student_id, course_id, status)
+) COMMENT '学生报告计数表';
+
+INSERT INTO report_course_counter (course_id, template_id, status, report_count, update_time)
+SELECT course_id, template_id, IFNULL(NULLIF(status, ''), 'draft'), COUNT(*), NOW()
+FROM experiment_report
+WHERE course_id IS NOT NULL
+GROUP BY course_id, template_id, IFNULL(NULLIF(status, ''), 'draft');
+
+INSERT INTO report_student_counter (student_id, course_id, status, report_count, update_time)
+SELECT student_id, IFNULL(course_id, ''), IFNULL(NULLIF(status, ''), 'draft'), COUNT(*), NOW()
+FROM experiment_report
+GROUP BY student_id, IFNULL(course_id, ''), IFNULL(NULLIF(status, ''), 'draft');
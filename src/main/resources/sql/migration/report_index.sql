@@ -0,0 +1,5 @@
+-- 实验报告查询索引：学生报告总览按 (学生, 课程, 模板) 查询报告；游标分页按 (更新时间, ID) 降序（同方向，索引反向扫描）
+ALTER TABLE experiment_report
+    ADD INDEX idx_student_course_template (student_id, course_id, template_id),
+    ADD INDEX idx_student_update (student_id, update_time, id),
+    ADD INDEX idx_course_status_update (course_id, status, update_time, id);
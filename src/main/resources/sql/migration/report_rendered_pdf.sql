@@ -0,0 +1,4 @@
+-- 系统生成的报告PDF与学生上传的PDF（pdf_url）分开保存；记录生成失败轮数，达到上限后定时任务不再补生成
+ALTER TABLE experiment_report
+    ADD COLUMN rendered_pdf_url VARCHAR(500) COMMENT '系统生成的PDF文件对象名称（提交后异步生成）' AFTER pdf_url,
+    ADD COLUMN pdf_render_failures INT DEFAULT 0 NOT NULL COMMENT 'PDF生成失败轮数（每轮重试用尽计1次，退回时清零）' AFTER rendered_pdf_url;
@@ -0,0 +1,3 @@
+-- 报告版本号：增量保存（/experimentReport/patch）的乐观锁
+ALTER TABLE experiment_report
+    ADD COLUMN version INT DEFAULT 1 NOT NULL COMMENT '版本号（乐观锁，内容每次修改加1）' AFTER grade_time;
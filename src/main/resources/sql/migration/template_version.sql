@@ -0,0 +1,12 @@
+-- 模板版本：报告增量存储（只保存模板版本引用和填写数据）依赖的不可变模板内容
+ALTER TABLE experiment_template
+    ADD COLUMN version INT DEFAULT 1 NOT NULL COMMENT '模板版本（内容每次修改加1）' AFTER template_content;
+
+CREATE TABLE experiment_template_version
+(
+    template_id      VARCHAR(64) NOT NULL COMMENT '模板ID',
+    version          INT NOT NULL COMMENT '模板版本',
+    template_content MEDIUMBLOB NOT NULL COMMENT '该版本的模板内容（首字节为编码格式，见 ContentCodec）',
+    create_time      DATETIME DEFAULT CURRENT_TIMESTAMP NOT NULL COMMENT '创建时间',
+    PRIMARY KEY (template_id, version)
+) COMMENT '实验模板版本表';
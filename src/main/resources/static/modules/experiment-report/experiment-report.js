@@ -4,6 +4,10 @@ let currentReport = null;
 let currentTemplateId = null;
 let currentCourseId = null;
 let currentPdfUrl = null; // 当前PDF文件URL
+let lastSavedContent = null; // 服务端当前的报告内容（增量保存的比较基准）
+let autosaveTimer = null;
+let patchQueue = Promise.resolve();
+const AUTOSAVE_DELAY = 3000; // 停止编辑多久后自动保存（毫秒）
 let pendingReports = [];
 let submittedReports = [];
 
@@ -263,6 +267,8 @@ function showReportList() {
     currentTemplateId = null;
     currentCourseId = null;
     currentPdfUrl = null;
+    lastSavedContent = null;
+    clearTimeout(autosaveTimer);
     hidePdfPreview();
     
     // 根据当前 Vue tab 状态设置正确的容器显示
@@ -286,6 +292,7 @@ window.startReport = async function(templateId, courseId) {
     currentTemplateId = templateId;
     currentReport = null;
     currentCourseId = courseId;
+    lastSavedContent = null;
 
     try {
         const result = await API.post(`/experimentTemplate/get?templateId=${templateId}`, {});
@@ -317,6 +324,7 @@ window.editReportByTemplate = async function(templateId, reportId) {
             currentReport = result.data;
             currentCourseId = result.data.courseId;
             currentPdfUrl = result.data.pdfUrl || null; // 加载已保存的PDF URL
+            lastSavedContent = result.data.reportContent || '';
             document.getElementById('reportName').value = result.data.reportName;
 
             // 调试：从数据库加载的 Markdown 内容
@@ -593,6 +601,7 @@ function showReportEditor() {
     document.getElementById('pendingContainer').style.display = 'none';
     document.getElementById('submittedContainer').style.display = 'none';
     document.getElementById('reportTabs').style.display = 'none';
+    document.getElementById('reportContent').oninput = scheduleAutosave;
 
     // 显示已上传的PDF预览（同时隐藏模板编辑区域），或显示模板编辑区域
     if (currentPdfUrl) {
@@ -687,6 +696,12 @@ window.saveReport = async function(isSubmit) {
         return;
     }
 
+    clearTimeout(autosaveTimer);
+    if (canPatchReport()) {
+        await saveReportByPatch(reportName, markdownContent, isSubmit);
+        return;
+    }
+
     const reportData = {
         id: currentReport ? currentReport.id : null,
         templateId: currentTemplateId,
@@ -716,7 +731,12 @@ window.saveReport = async function(isSubmit) {
             } else {
                 alert('草稿保存成功');
                 if (!currentReport && result.data) {
-                    currentReport = { id: result.data };
+                    // 新报告从版本1开始，之后的保存按增量提交
+                    currentReport = { id: result.data, status: 'draft', version: 1, pdfUrl: currentPdfUrl };
+                    lastSavedContent = markdownContent;
+                } else if (currentReport) {
+                    // 整体更新后服务端版本号已变化，不再按增量提交
+                    currentReport.version = null;
                 }
             }
         } else {
@@ -728,6 +748,109 @@ window.saveReport = async function(isSubmit) {
     }
 }
 
+// 是否可以增量保存（已保存过的草稿，且上传的PDF没有变化）
+function canPatchReport() {
+    return currentReport && currentReport.version != null && lastSavedContent !== null
+        && (!currentReport.status || currentReport.status === 'draft' || currentReport.status === 'returned')
+        && currentPdfUrl === (currentReport.pdfUrl || null);
+}
+
+// 计算两段文本的差异（只比较公共前缀和后缀，得到一处替换）
+function diffText(oldText, newText) {
+    if (oldText === newText) {
+        return null;
+    }
+    let start = 0;
+    const minLength = Math.min(oldText.length, newText.length);
+    while (start < minLength && oldText.charCodeAt(start) === newText.charCodeAt(start)) {
+        start++;
+    }
+    let oldEnd = oldText.length;
+    let newEnd = newText.length;
+    while (oldEnd > start && newEnd > start && oldText.charCodeAt(oldEnd - 1) === newText.charCodeAt(newEnd - 1)) {
+        oldEnd--;
+        newEnd--;
+    }
+    return { start: start, end: oldEnd, text: newText.substring(start, newEnd) };
+}
+
+// 增量提交报告内容，返回接口结果（依次发送，避免自动保存与手动保存使用同一版本号）
+function patchReport(reportName, markdownContent, flush) {
+    const run = patchQueue.then(() => sendPatch(reportName, markdownContent, flush));
+    patchQueue = run.catch(() => {});
+    return run;
+}
+
+async function sendPatch(reportName, markdownContent, flush) {
+    const edit = diffText(lastSavedContent, markdownContent);
+    const result = await API.post('/experimentReport/patch', {
+        id: currentReport.id,
+        version: currentReport.version,
+        reportName: reportName,
+        edits: edit ? [edit] : [],
+        flush: flush
+    });
+    if (result.code === 200) {
+        currentReport.version = result.data;
+        lastSavedContent = markdownContent;
+    }
+    return result;
+}
+
+// 手动保存、提交（增量提交并立即写入）
+async function saveReportByPatch(reportName, markdownContent, isSubmit) {
+    try {
+        const result = await patchReport(reportName, markdownContent, true);
+        if (result.code !== 200) {
+            alert('保存失败：' + (result.message || '未知错误'));
+            return;
+        }
+        if (isSubmit) {
+            const submitResult = await API.post('/experimentReport/submit', { id: currentReport.id });
+            if (submitResult.code === 200) {
+                alert('报告提交成功');
+                showReportList();
+            } else {
+                alert('提交失败：' + (submitResult.message || '未知错误'));
+            }
+        } else {
+            alert('草稿保存成功');
+        }
+    } catch (error) {
+        console.error('[REPORT] 保存报告失败:', error);
+        alert('保存失败');
+    }
+}
+
+// 编辑后延迟自动保存（连续编辑只保存一次）
+function scheduleAutosave() {
+    if (!canPatchReport()) {
+        return;
+    }
+    clearTimeout(autosaveTimer);
+    autosaveTimer = setTimeout(autosaveReport, AUTOSAVE_DELAY);
+}
+
+// 自动保存（静默，失败只记录日志）
+async function autosaveReport() {
+    if (!canPatchReport()) {
+        return;
+    }
+    try {
+        const reportName = document.getElementById('reportName').value;
+        const markdownContent = await convertToMarkdownAsync(document.getElementById('reportContent'));
+        if (!canPatchReport() || markdownContent === lastSavedContent) {
+            return;
+        }
+        const result = await patchReport(reportName, markdownContent, false);
+        if (result.code !== 200) {
+            console.warn('[REPORT] 自动保存失败:', result.message);
+        }
+    } catch (error) {
+        console.warn('[REPORT] 自动保存失败:', error);
+    }
+}
+
 // 预览报告
 window.previewReport = function() {
     const previewEl = document.getElementById('reportPreview');
@@ -0,0 +1,116 @@
+package cn.gzus.lyf.benchmark;
+
+import cn.gzus.lyf.common.util.ContentCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内容压缩编码基准测试：读写开销与存储大小
+ * plainEncode / plainDecode 为原文存储（UTF-8 编解码）的基线，compressedEncode / compressedDecode 为 Deflate 压缩存储；
+ * 各内容的压缩前后字节数在 setup 时输出。
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentCodecBenchmark {
+
+    /**
+     * 内容类型：template 为 Markdown 模板；report 为含表格的报告 JSON（表格行数不同）
+     */
+    @Param({"template", "report-20", "report-500"})
+    private String content;
+
+    private String text;
+    private byte[] plain;
+    private byte[] compressed;
+    private ContentCodec codec;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        text = content.startsWith("report") ? reportJson(Integer.parseInt(content.substring("report-".length())))
+                : templateMarkdown();
+        codec = new ContentCodec(true, 512);
+        plain = text.getBytes(StandardCharsets.UTF_8);
+        compressed = codec.encode(text);
+        if (!text.equals(codec.decode(compressed))) {
+            throw new IllegalStateException("解码结果与原文不一致");
+        }
+        System.out.printf("%n[%s] 原文 %d 字节，压缩后 %d 字节（%.1f%%）%n", content, plain.length, compressed.length,
+                compressed.length * 100.0 / plain.length);
+    }
+
+    @Benchmark
+    public byte[] plainEncode() {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String plainDecode() {
+        return new String(plain, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] compressedEncode() {
+        return codec.encode(text);
+    }
+
+    @Benchmark
+    public String compressedDecode() {
+        return codec.decode(compressed);
+    }
+
+    private static String templateMarkdown() {
+        StringBuilder markdown = new StringBuilder("# 一、实验目的\n\n");
+        for (int i = 1; i <= 6; i++) {
+            markdown.append(i).append("、学习用自由落体法测量当地的重力加速度，理解自由落体运动的规律。\n\n");
+        }
+        markdown.append("# 二、实验数据\n\n| 下落高度 (h) | 下落时间 (t) | 重力加速度 (g) |\n|----|----|----|\n");
+        for (int i = 0; i < 10; i++) {
+            markdown.append("|    |    |    |\n");
+        }
+        return markdown.append("\n# 三、实验结论\n\n*[请输入实验结论]*").toString();
+    }
+
+    private static String reportJson(int rows) {
+        StringBuilder json = new StringBuilder("{\"components\":[");
+        json.append("{\"type\":\"text\",\"data\":{\"content\":\"实验目的：测定甲醇燃烧的热值\"}},");
+        json.append("{\"type\":\"table\",\"data\":{\"rows\":").append(rows).append(",\"cols\":4}},");
+        json.append("{\"type\":\"input\",\"data\":{\"label\":\"实验结论\",\"placeholder\":\"请填写\"}}");
+        json.append("],\"inputData\":{\"1\":{");
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < 4; c++) {
+                if (r > 0 || c > 0) {
+                    json.append(',');
+                }
+                json.append("\"cell_").append(r).append('_').append(c).append("\":\"").append(r * 1.5 + c).append('"');
+            }
+        }
+        return json.append("},\"2\":{\"value\":\"甲醇燃烧呈淡蓝色火焰，热值约为 22.7 kJ/g\"}}}").toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ContentCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,158 @@
+package cn.gzus.lyf.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 课程批量绑定用户吞吐量基准测试（1k / 10k 选课记录）
+ * perRowBind 模拟原实现：每个用户先查询再 UPDATE 或 INSERT，逐条自动提交；
+ * batchedBind 为当前实现：单事务内按 500 条一批执行多行 INSERT ... ON DUPLICATE KEY UPDATE。
+ * 需要可访问的 MySQL（已执行 init.sql），连接信息通过系统属性 ems.bench.url / ems.bench.user / ems.bench.password 指定；
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CourseUserBindBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int USER_TYPE_STUDENT = 2;
+
+    @Param({"1000", "10000"})
+    private int enrollments;
+
+    private Connection connection;
+    private String courseId;
+    private List<String> userIds;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("ems.bench.url", "jdbc:mysql://localhost:3306/ems_old?useSSL=false&serverTimezone=Asia/Shanghai&allowPublicKeyRetrieval=true"),
+                System.getProperty("ems.bench.user", "root"),
+                System.getProperty("ems.bench.password", "Sam12345678"));
+        courseId = "bench-" + UUID.randomUUID();
+        userIds = new ArrayList<>(enrollments);
+        for (int i = 0; i < enrollments; i++) {
+            userIds.add("bench-user-" + i);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void clean() throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement("DELETE FROM course_user_relation WHERE course_id = ?")) {
+            ps.setString(1, courseId);
+            ps.executeUpdate();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        clean();
+        connection.close();
+    }
+
+    @Benchmark
+    public int perRowBind() throws SQLException {
+        connection.setAutoCommit(true);
+        int rows = 0;
+        for (String userId : userIds) {
+            String existingId = null;
+            try (PreparedStatement query = connection.prepareStatement(
+                    "SELECT id FROM course_user_relation WHERE course_id = ? AND user_id = ?")) {
+                query.setString(1, courseId);
+                query.setString(2, userId);
+                try (ResultSet rs = query.executeQuery()) {
+                    if (rs.next()) {
+                        existingId = rs.getString(1);
+                    }
+                }
+            }
+            if (existingId != null) {
+                try (PreparedStatement update = connection.prepareStatement(
+                        "UPDATE course_user_relation SET user_type = ? WHERE id = ?")) {
+                    update.setInt(1, USER_TYPE_STUDENT);
+                    update.setString(2, existingId);
+                    rows += update.executeUpdate();
+                }
+            } else {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO course_user_relation (id, course_id, user_id, user_type) VALUES (?, ?, ?, ?)")) {
+                    insert.setString(1, UUID.randomUUID().toString());
+                    insert.setString(2, courseId);
+                    insert.setString(3, userId);
+                    insert.setInt(4, USER_TYPE_STUDENT);
+                    rows += insert.executeUpdate();
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public int batchedBind() throws SQLException {
+        connection.setAutoCommit(false);
+        int rows = 0;
+        try {
+            for (int from = 0; from < userIds.size(); from += BATCH_SIZE) {
+                List<String> chunk = userIds.subList(from, Math.min(from + BATCH_SIZE, userIds.size()));
+                StringBuilder sql = new StringBuilder("INSERT INTO course_user_relation (id, course_id, user_id, user_type) VALUES ");
+                for (int i = 0; i < chunk.size(); i++) {
+                    sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+                }
+                sql.append(" ON DUPLICATE KEY UPDATE user_type = VALUES(user_type)");
+                try (PreparedStatement ps = connection.prepareStatement(sql.toString())) {
+                    int index = 1;
+                    for (String userId : chunk) {
+                        ps.setString(index++, UUID.randomUUID().toString());
+                        ps.setString(index++, courseId);
+                        ps.setString(index++, userId);
+                        ps.setInt(index++, USER_TYPE_STUDENT);
+                    }
+                    rows += ps.executeUpdate();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CourseUserBindBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
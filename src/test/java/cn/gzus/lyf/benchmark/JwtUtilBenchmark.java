@@ -0,0 +1,95 @@
+package cn.gzus.lyf.benchmark;
+
+import cn.gzus.lyf.common.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT 验证开销基准测试（每次请求的验证成本）
+ * legacyValidate 模拟原实现：每次提取都重新生成密钥和解析器，每个请求验签三次；
+ * cachedValidate 为当前实现：预生成密钥和解析器，验签结果按Token缓存。
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "xK3j9vN2m5q8w1e4r7t0y3u6i9o2p5a8s1d4f7g0h3j6k9l2n5m8q1w4e7r0t3";
+
+    private JwtUtil jwtUtil;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expire", 1800000L);
+        ReflectionTestUtils.setField(jwtUtil, "cacheSize", 10000L);
+        jwtUtil.init();
+
+        userDetails = new User("admin", "", Collections.emptyList());
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", "1");
+        claims.put("username", "admin");
+        claims.put("displayName", "超级管理员");
+        claims.put("roleId", "1");
+        token = jwtUtil.generateToken(userDetails, claims);
+    }
+
+    @Benchmark
+    public boolean legacyValidate() {
+        String username = legacyParse(token).getSubject();
+        return legacyParse(token).getSubject().equals(username)
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean cachedValidate() {
+        jwtUtil.extractUsername(token);
+        return jwtUtil.validateToken(token, userDetails);
+    }
+
+    private Claims legacyParse(String jwt) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(jwt)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtUtilBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
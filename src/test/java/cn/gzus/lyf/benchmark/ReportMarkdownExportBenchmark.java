@@ -0,0 +1,181 @@
+package cn.gzus.lyf.benchmark;
+
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import cn.gzus.lyf.service.experiment.ReportMarkdownWriter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 报告 Markdown 导出基准测试（含大表格的报告）
+ * treeExport 为原实现：readTree 构建完整 JSON 树，拼接为 String 后再写出；
+ * streamingExport 为当前实现：ReportMarkdownWriter 使用 JsonParser 两遍扫描，直接写出到输出流。
+ * 建议加 -prof gc 对比每次导出的内存分配；
+ * 运行方式：mvn test-compile 后以 test classpath 执行本类的 main 方法
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportMarkdownExportBenchmark {
+
+    private static final int TABLES = 10;
+
+    private static final int COLS = 8;
+
+    /**
+     * 每个表格的行数
+     */
+    @Param({"200", "2000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ReportMarkdownWriter writer = new ReportMarkdownWriter();
+
+    private ExperimentReportEntity report;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        StringBuilder components = new StringBuilder();
+        StringBuilder inputData = new StringBuilder();
+        int index = 0;
+        for (int t = 0; t < TABLES; t++) {
+            if (index > 0) {
+                components.append(',');
+                inputData.append(',');
+            }
+            components.append("{\"type\":\"input\",\"data\":{\"label\":\"实验步骤").append(t)
+                    .append("\",\"placeholder\":\"请填写\"}},");
+            inputData.append('"').append(index++).append("\":{\"value\":\"按要求完成第").append(t).append("组测量\"},");
+            components.append("{\"type\":\"table\",\"data\":{\"rows\":").append(rows)
+                    .append(",\"cols\":").append(COLS).append("}}");
+            inputData.append('"').append(index++).append("\":{");
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < COLS; c++) {
+                    if (r > 0 || c > 0) {
+                        inputData.append(',');
+                    }
+                    inputData.append("\"cell_").append(r).append('_').append(c).append("\":\"")
+                            .append(r * 0.25 + c).append("\"");
+                }
+            }
+            inputData.append('}');
+        }
+        report = new ExperimentReportEntity();
+        report.setReportName("基准测试报告");
+        report.setReportContent("{\"components\":[" + components + "],\"inputData\":{" + inputData + "}}");
+
+        // 两种实现的输出必须完全一致
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        writer.prepare(report).writeTo(streamed);
+        if (!treeMarkdown(report).equals(streamed.toString(StandardCharsets.UTF_8.name()))) {
+            throw new IllegalStateException("流式导出结果与原实现不一致");
+        }
+    }
+
+    @Benchmark
+    public void treeExport(Blackhole blackhole) throws IOException {
+        OutputStream out = new DiscardingOutputStream(blackhole);
+        out.write(treeMarkdown(report).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void streamingExport(Blackhole blackhole) throws IOException {
+        writer.prepare(report).writeTo(new DiscardingOutputStream(blackhole));
+    }
+
+    /**
+     * 原实现（仅保留表格和输入框的处理）
+     */
+    private String treeMarkdown(ExperimentReportEntity report) throws IOException {
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("# ").append(report.getReportName()).append("\n\n");
+        JsonNode content = objectMapper.readTree(report.getReportContent());
+        JsonNode components = content.get("components");
+        JsonNode inputData = content.get("inputData");
+        for (int i = 0; i < components.size(); i++) {
+            JsonNode component = components.get(i);
+            String type = component.get("type").asText();
+            JsonNode data = component.get("data");
+            if ("table".equals(type)) {
+                int rows = data.get("rows").asInt();
+                int cols = data.get("cols").asInt();
+                markdown.append("|");
+                for (int j = 0; j < cols; j++) {
+                    markdown.append("   |");
+                }
+                markdown.append("\n|");
+                for (int j = 0; j < cols; j++) {
+                    markdown.append("---|");
+                }
+                markdown.append("\n");
+                JsonNode cellData = inputData.get(String.valueOf(i));
+                for (int r = 0; r < rows; r++) {
+                    markdown.append("|");
+                    for (int c = 0; c < cols; c++) {
+                        String cellKey = "cell_" + r + "_" + c;
+                        String cellValue = cellData.has(cellKey) ? cellData.get(cellKey).asText() : "";
+                        markdown.append(" ").append(cellValue).append(" |");
+                    }
+                    markdown.append("\n");
+                }
+                markdown.append("\n");
+            } else if ("input".equals(type)) {
+                markdown.append("### ").append(data.get("label").asText()).append("\n\n");
+                markdown.append(inputData.get(String.valueOf(i)).get("value").asText()).append("\n\n");
+            }
+        }
+        return markdown.toString();
+    }
+
+    /**
+     * 丢弃写入内容的输出流（交给 Blackhole 防止被优化掉）
+     */
+    private static final class DiscardingOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        private DiscardingOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ReportMarkdownExportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,90 @@
+package cn.gzus.lyf.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentCodecTest {
+
+    private final ContentCodec codec = new ContentCodec(true, 512);
+
+    @Test
+    void roundTripCompressesLargeContent() {
+        String content = "{\"label\":\"实验步骤\",\"value\":\"记录数据\"},".repeat(100);
+        byte[] stored = codec.encode(content);
+
+        assertTrue(ContentCodec.isCompressed(stored));
+        assertTrue(stored.length < content.getBytes(StandardCharsets.UTF_8).length);
+        assertEquals(content, codec.decode(stored));
+    }
+
+    @Test
+    void contentBelowMinSizeIsStoredAsPlainText() {
+        String content = "短内容";
+        byte[] stored = codec.encode(content);
+
+        assertFalse(ContentCodec.isCompressed(stored));
+        assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), stored);
+        assertEquals(content, codec.decode(stored));
+    }
+
+    @Test
+    void plainContentStartingWithFormatByteKeepsPlainMarker() {
+        String content = (char) ContentCodec.FORMAT_DEFLATE + "abc";
+        byte[] stored = codec.encode(content);
+
+        assertEquals(ContentCodec.FORMAT_PLAIN, stored[0]);
+        assertEquals(content, codec.decode(stored));
+    }
+
+    @Test
+    void disabledCodecStoresPlainText() {
+        String content = "重复内容".repeat(500);
+        byte[] stored = new ContentCodec(false, 512).encode(content);
+
+        assertArrayEquals(content.getBytes(StandardCharsets.UTF_8), stored);
+        assertEquals(content, codec.decode(stored));
+    }
+
+    @Test
+    void legacyRowsWithoutHeaderAreReadAsUtf8() {
+        String content = "# 实验报告\n历史数据没有格式标识";
+        assertEquals(content, codec.decode(content.getBytes(StandardCharsets.UTF_8)));
+        assertEquals("", codec.decode(new byte[0]));
+        assertNull(codec.decode(null));
+    }
+
+    @Test
+    void truncatedHeaderIsRejected() {
+        assertThrows(IllegalStateException.class, () -> codec.decode(new byte[]{ContentCodec.FORMAT_DEFLATE}));
+        assertThrows(IllegalStateException.class, () -> codec.decode(new byte[]{ContentCodec.FORMAT_DEFLATE, 0, 0, 1}));
+    }
+
+    @Test
+    void negativeOrOversizedLengthIsRejected() {
+        assertThrows(IllegalStateException.class,
+                () -> codec.decode(new byte[]{ContentCodec.FORMAT_DEFLATE, (byte) 0x80, 0, 0, 0, 1, 2, 3}));
+        assertThrows(IllegalStateException.class,
+                () -> codec.decode(new byte[]{ContentCodec.FORMAT_DEFLATE, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 1, 2, 3}));
+    }
+
+    @Test
+    void corruptOrTruncatedDataIsRejected() {
+        byte[] stored = codec.encode("实验数据".repeat(500));
+
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+        assertThrows(IllegalStateException.class, () -> codec.decode(truncated));
+
+        byte[] garbage = Arrays.copyOf(stored, stored.length);
+        Arrays.fill(garbage, 5, garbage.length, (byte) 0xFF);
+        assertThrows(IllegalStateException.class, () -> codec.decode(garbage));
+    }
+}
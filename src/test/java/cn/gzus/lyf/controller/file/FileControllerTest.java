@@ -0,0 +1,257 @@
+package cn.gzus.lyf.controller.file;
+
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.PresignedUrlDto;
+import cn.gzus.lyf.service.file.FileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileControllerTest {
+
+    private static final String OBJECT_NAME = "a.txt";
+    private static final String ETAG = "\"abc123\"";
+    /**
+     * 文件修改时间（毫秒部分在响应中截断为秒）
+     */
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    private StubFileService fileService;
+    private FileController controller;
+
+    @BeforeEach
+    void setUp() {
+        fileService = new StubFileService("0123456789".getBytes(StandardCharsets.US_ASCII));
+        controller = new FileController();
+        controller.setFileService(fileService);
+    }
+
+    @Test
+    void fullFileWithValidators() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals(LAST_MODIFIED, response.getHeaders().getLastModified());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(10, response.getHeaders().getContentLength());
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    void matchingEtagReturnsNotModified() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("W/" + ETAG);
+
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void ifNoneMatchTakesPrecedenceOverIfModifiedSince() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch("\"other\"");
+        headers.setIfModifiedSince(LAST_MODIFIED);
+
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    void ifModifiedSinceWithoutEtag() {
+        HttpHeaders notModified = new HttpHeaders();
+        notModified.setIfModifiedSince(LAST_MODIFIED);
+        assertEquals(HttpStatus.NOT_MODIFIED, controller.download(OBJECT_NAME, notModified).getStatusCode());
+
+        HttpHeaders modified = new HttpHeaders();
+        modified.setIfModifiedSince(LAST_MODIFIED - 1000);
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, modified).getStatusCode());
+    }
+
+    @Test
+    void singleRangeReturnsPartialContent() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=2-5");
+
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 2-5/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getHeaders().getContentLength());
+        assertEquals("2345", body(response));
+    }
+
+    @Test
+    void suffixRangeReturnsLastBytes() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=-3");
+
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 7-9/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals("789", body(response));
+    }
+
+    @Test
+    void rangeBeyondEndIsClampedOrUnsatisfiable() throws IOException {
+        HttpHeaders clamped = new HttpHeaders();
+        clamped.set(HttpHeaders.RANGE, "bytes=8-100");
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, clamped);
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("89", body(response));
+
+        HttpHeaders unsatisfiable = new HttpHeaders();
+        unsatisfiable.set(HttpHeaders.RANGE, "bytes=10-");
+        response = controller.download(OBJECT_NAME, unsatisfiable);
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void rangeOnEmptyFileIsUnsatisfiable() throws IOException {
+        fileService = new StubFileService(new byte[0]);
+        controller.setFileService(fileService);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-");
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */0", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+
+        HttpHeaders suffix = new HttpHeaders();
+        suffix.set(HttpHeaders.RANGE, "bytes=-5");
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, controller.download(OBJECT_NAME, suffix).getStatusCode());
+
+        response = controller.download(OBJECT_NAME, new HttpHeaders());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("", body(response));
+    }
+
+    @Test
+    void multipleRangesFallBackToFullFile() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "bytes=0-1,4-5");
+
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, headers);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    void malformedRangeFallsBackToFullFile() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RANGE, "items=0-1");
+
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, headers).getStatusCode());
+    }
+
+    @Test
+    void ifRangeWithStrongEtag() throws IOException {
+        HttpHeaders matching = new HttpHeaders();
+        matching.set(HttpHeaders.RANGE, "bytes=0-1");
+        matching.set(HttpHeaders.IF_RANGE, ETAG);
+        ResponseEntity<StreamingResponseBody> response = controller.download(OBJECT_NAME, matching);
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("01", body(response));
+
+        HttpHeaders stale = new HttpHeaders();
+        stale.set(HttpHeaders.RANGE, "bytes=0-1");
+        stale.set(HttpHeaders.IF_RANGE, "\"other\"");
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, stale).getStatusCode());
+
+        // If-Range 不接受弱 ETag
+        HttpHeaders weak = new HttpHeaders();
+        weak.set(HttpHeaders.RANGE, "bytes=0-1");
+        weak.set(HttpHeaders.IF_RANGE, "W/" + ETAG);
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, weak).getStatusCode());
+    }
+
+    @Test
+    void ifRangeWithDate() {
+        HttpHeaders matching = new HttpHeaders();
+        matching.set(HttpHeaders.RANGE, "bytes=0-1");
+        matching.setDate(HttpHeaders.IF_RANGE, LAST_MODIFIED);
+        assertEquals(HttpStatus.PARTIAL_CONTENT, controller.download(OBJECT_NAME, matching).getStatusCode());
+
+        HttpHeaders stale = new HttpHeaders();
+        stale.set(HttpHeaders.RANGE, "bytes=0-1");
+        stale.setDate(HttpHeaders.IF_RANGE, LAST_MODIFIED - 1000);
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, stale).getStatusCode());
+
+        HttpHeaders invalid = new HttpHeaders();
+        invalid.set(HttpHeaders.RANGE, "bytes=0-1");
+        invalid.set(HttpHeaders.IF_RANGE, "not a date");
+        assertEquals(HttpStatus.OK, controller.download(OBJECT_NAME, invalid).getStatusCode());
+    }
+
+    @Test
+    void accessUsesInlineDisposition() {
+        ResponseEntity<StreamingResponseBody> response = controller.accessFile(OBJECT_NAME, new HttpHeaders());
+
+        assertEquals("inline; filename=\"a.txt\"", response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("text/plain", response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 内存中的单个文件（不签发预签名地址，由应用服务器输出）
+     */
+    private static final class StubFileService extends FileService {
+
+        private final byte[] content;
+
+        private StubFileService(byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public FileMetadataDto getFileMetadata(String objectName) {
+            FileMetadataDto metadata = new FileMetadataDto();
+            metadata.setObjectName(objectName);
+            metadata.setOriginalName(objectName);
+            metadata.setContentType("text/plain");
+            metadata.setSize(content.length);
+            metadata.setEtag(ETAG.replace("\"", ""));
+            metadata.setLastModified(new Date(LAST_MODIFIED + 123));
+            return metadata;
+        }
+
+        @Override
+        public PresignedUrlDto getPresignedUrl(String objectName, String disposition, Map<String, String> responseHeaders) {
+            return null;
+        }
+
+        @Override
+        public void transferTo(String objectName, long offset, long length, OutputStream outputStream) throws IOException {
+            int end = length < 0 ? content.length : (int) (offset + length);
+            outputStream.write(Arrays.copyOfRange(content, (int) offset, end));
+        }
+    }
+}
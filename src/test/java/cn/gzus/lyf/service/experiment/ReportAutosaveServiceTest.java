@@ -0,0 +1,264 @@
+package cn.gzus.lyf.service.experiment;
+
+import cn.gzus.lyf.common.dto.ReportPatchDto;
+import cn.gzus.lyf.common.enums.ReportStatusEnum;
+import cn.gzus.lyf.common.enums.ResultCode;
+import cn.gzus.lyf.common.exception.BusinessException;
+import cn.gzus.lyf.dao.ExperimentReportDAO;
+import cn.gzus.lyf.dao.entity.ExperimentReportEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReportAutosaveServiceTest {
+
+    private static final String REPORT_ID = "r1";
+
+    private InMemoryReportDAO reportDAO;
+    private ReportAutosaveService service;
+
+    @BeforeEach
+    void setUp() {
+        reportDAO = new InMemoryReportDAO();
+        reportDAO.content = "hello world";
+        service = new ReportAutosaveService(reportDAO, new PassThroughDeltaStore());
+    }
+
+    @Test
+    void editOutOfRangeIsRejected() {
+        assertThrows(BusinessException.class, () -> service.applyEdits("abc", patch(edit(2, 4, "x"))));
+        assertThrows(BusinessException.class, () -> service.applyEdits("abc", patch(edit(-1, 1, "x"))));
+        assertThrows(BusinessException.class, () -> service.applyEdits("abc", patch(edit(2, 1, "x"))));
+    }
+
+    @Test
+    void multipleEditsApplyInOrder() {
+        // 后一个替换的位置基于前一个替换后的内容
+        String content = service.applyEdits("hello world", patch(edit(0, 5, "HELLO"), edit(11, 11, "!"), edit(5, 6, null)));
+        assertEquals("HELLOworld!", content);
+    }
+
+    @Test
+    void inputDataUpdatesAndDeletesCells() {
+        String content = "{\"templateId\":\"t\",\"inputData\":{\"table1\":{\"0-0\":\"a\",\"0-1\":\"b\"},\"text1\":{\"value\":\"x\"}}}";
+        Map<String, String> cells = new HashMap<>();
+        cells.put("0-0", "A");
+        cells.put("0-1", null);
+        cells.put("1-0", "c");
+        Map<String, Map<String, String>> inputData = new LinkedHashMap<>();
+        inputData.put("table1", cells);
+        inputData.put("text1", null);
+        inputData.put("text2", Collections.singletonMap("value", "y"));
+        ReportPatchDto patch = new ReportPatchDto();
+        patch.setInputData(inputData);
+
+        assertEquals("{\"templateId\":\"t\",\"inputData\":{\"table1\":{\"0-0\":\"A\",\"1-0\":\"c\"},\"text2\":{\"value\":\"y\"}}}",
+                service.applyInputData(content, patch));
+    }
+
+    @Test
+    void inputDataOnNonJsonReportIsRejected() {
+        ReportPatchDto patch = new ReportPatchDto();
+        patch.setInputData(Collections.singletonMap("text1", Collections.singletonMap("value", "y")));
+        assertThrows(BusinessException.class, () -> service.applyInputData("# markdown", patch));
+    }
+
+    @Test
+    void patchWithStaleVersionConflicts() {
+        ReportPatchDto first = versioned(1, edit(0, 5, "HELLO"));
+        assertEquals(2, service.patch(first));
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.patch(versioned(1, edit(0, 0, "x"))));
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        assertEquals(3, service.patch(versioned(2, edit(11, 11, "!"))));
+
+        service.flush(REPORT_ID);
+        assertEquals("HELLO world!", reportDAO.content);
+        assertEquals(3, reportDAO.version);
+    }
+
+    @Test
+    void patchProducingTemplateReferenceIsRejected() {
+        assertThrows(BusinessException.class,
+                () -> service.patch(versioned(1, edit(0, 11, "{\"$template\":{\"id\":\"t2\",\"version\":1},\"inputData\":{}}"))));
+        // 草稿未被修改
+        assertEquals(2, service.patch(versioned(1, edit(11, 11, "!"))));
+        service.flush(REPORT_ID);
+        assertEquals("hello world!", reportDAO.content);
+    }
+
+    @Test
+    void failedFlushKeepsDraftUntilNextReadConflicts() {
+        service.patch(versioned(1, edit(0, 5, "HELLO")));
+        // 报告在其他位置被修改
+        reportDAO.version = 5;
+
+        service.flushDue();
+        BusinessException e = assertThrows(BusinessException.class, () -> service.flush(REPORT_ID));
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+        assertEquals("hello world", reportDAO.content);
+
+        // 冲突提示后草稿已丢弃，按数据库中的版本重新编辑
+        service.flush(REPORT_ID);
+        assertEquals(6, service.patch(versioned(5, edit(0, 0, ">"))));
+    }
+
+    @Test
+    void failedFlushConflictsOnNextPatch() {
+        service.patch(versioned(1, edit(0, 5, "HELLO")));
+        reportDAO.version = 5;
+        service.flushDue();
+
+        BusinessException e = assertThrows(BusinessException.class, () -> service.patch(versioned(2, edit(0, 0, "x"))));
+        assertEquals(ResultCode.CONFLICT.getCode(), e.getCode());
+    }
+
+    @Test
+    void flushErrorKeepsDraftForRetry() {
+        service.patch(versioned(1, edit(0, 5, "HELLO")));
+        reportDAO.failing = true;
+        service.flushDue();
+        assertEquals("hello world", reportDAO.content);
+
+        reportDAO.failing = false;
+        service.flush(REPORT_ID);
+        assertEquals("HELLO world", reportDAO.content);
+    }
+
+    @Test
+    void flushInRolledBackTransactionKeepsDraft() {
+        service.patch(versioned(1, edit(0, 5, "HELLO")));
+
+        // 提交报告：事务中先写入草稿，状态变更失败后回滚
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> service.flush(REPORT_ID));
+        assertEquals("HELLO world", reportDAO.content);
+        reportDAO.content = "hello world";
+        reportDAO.version = 1;
+        complete(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        // 草稿恢复为未写入，修改没有丢失
+        assertEquals(3, service.patch(versioned(2, edit(11, 11, "!"))));
+        service.flush(REPORT_ID);
+        assertEquals("HELLO world!", reportDAO.content);
+        assertEquals(3, reportDAO.version);
+    }
+
+    @Test
+    void flushInCommittedTransactionDiscardsDraftAfterCommit() {
+        service.patch(versioned(1, edit(0, 5, "HELLO")));
+
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> service.flush(REPORT_ID));
+        // 事务结束前草稿仍保留
+        assertEquals(3, service.patch(versioned(2, edit(11, 11, "!"))));
+        complete(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+        assertEquals("HELLO world", reportDAO.content);
+
+        service.flush(REPORT_ID);
+        assertEquals("HELLO world!", reportDAO.content);
+        // 已写入并移除，重新从数据库加载
+        assertEquals(4, service.patch(versioned(3, edit(0, 0, ">"))));
+    }
+
+    /**
+     * 模拟调用方事务，返回事务中注册的同步回调
+     */
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations, int status) {
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static ReportPatchDto.TextEdit edit(int start, int end, String text) {
+        ReportPatchDto.TextEdit edit = new ReportPatchDto.TextEdit();
+        edit.setStart(start);
+        edit.setEnd(end);
+        edit.setText(text);
+        return edit;
+    }
+
+    private static ReportPatchDto patch(ReportPatchDto.TextEdit... edits) {
+        ReportPatchDto patch = new ReportPatchDto();
+        patch.setEdits(Arrays.asList(edits));
+        return patch;
+    }
+
+    private static ReportPatchDto versioned(int version, ReportPatchDto.TextEdit... edits) {
+        ReportPatchDto patch = patch(edits);
+        patch.setId(REPORT_ID);
+        patch.setVersion(version);
+        return patch;
+    }
+
+    /**
+     * 单条报告的内存DAO（乐观锁语义与 saveDraftContent 一致）
+     */
+    private static final class InMemoryReportDAO extends ExperimentReportDAO {
+
+        private String content;
+        private int version = 1;
+        private boolean failing;
+
+        @Override
+        public ExperimentReportEntity getReportById(String reportId) {
+            ExperimentReportEntity report = new ExperimentReportEntity();
+            report.setId(reportId);
+            report.setTemplateId("t");
+            report.setReportName("报告");
+            report.setReportContent(content);
+            report.setStatus(ReportStatusEnum.DRAFT.getCode());
+            report.setVersion(version);
+            return report;
+        }
+
+        @Override
+        public boolean saveDraftContent(String reportId, String reportName, String reportContent,
+                                        int expectedVersion, int newVersion) {
+            if (failing) {
+                throw new IllegalStateException("数据库不可用");
+            }
+            if (version != expectedVersion) {
+                return false;
+            }
+            content = reportContent;
+            version = newVersion;
+            return true;
+        }
+    }
+
+    /**
+     * 不做增量存储转换
+     */
+    private static final class PassThroughDeltaStore extends ReportDeltaStore {
+
+        @Override
+        public ExperimentReportEntity expand(ExperimentReportEntity report) {
+            return report;
+        }
+
+        @Override
+        public String compact(String templateId, String content) {
+            return content;
+        }
+    }
+}
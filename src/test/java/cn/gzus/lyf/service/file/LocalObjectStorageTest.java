@@ -0,0 +1,43 @@
+package cn.gzus.lyf.service.file;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalObjectStorageTest extends ObjectStorageContractTest {
+
+    @TempDir
+    Path root;
+
+    @Override
+    protected ObjectStorage createStorage() throws IOException {
+        return new LocalObjectStorage(root);
+    }
+
+    @Test
+    void rejectsObjectNameOutsideRoot() throws IOException {
+        ObjectStorage storage = createStorage();
+        assertThrows(IOException.class, () -> storage.stat("../outside.txt"));
+        assertThrows(IOException.class, () -> storage.put("../outside.txt",
+                new ByteArrayInputStream(new byte[1]), 1, "text/plain"));
+    }
+
+    @Test
+    void failedPutLeavesNoTempFile() throws IOException {
+        ObjectStorage storage = createStorage();
+        // 声明大小与实际内容不一致
+        assertThrows(IOException.class, () -> storage.put("short.txt",
+                new ByteArrayInputStream(new byte[3]), 10, "text/plain"));
+        try (Stream<Path> files = Files.list(root)) {
+            assertEquals(0, files.count());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.config.MinioMultipartClient;
+import io.minio.MinioAsyncClient;
+import io.minio.MinioClient;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * MinIO 存储契约测试
+ * 需要可用的 MinIO，设置环境变量 EMS_TEST_MINIO_ENDPOINT、EMS_TEST_MINIO_ACCESS_KEY、EMS_TEST_MINIO_SECRET_KEY
+ * （可选 EMS_TEST_MINIO_BUCKET，默认 ems-test）后运行，未设置时跳过
+ */
+class MinioObjectStorageTest extends ObjectStorageContractTest {
+
+    @Override
+    protected ObjectStorage createStorage() {
+        String endpoint = System.getenv("EMS_TEST_MINIO_ENDPOINT");
+        assumeTrue(endpoint != null && !endpoint.isEmpty(), "未配置 EMS_TEST_MINIO_ENDPOINT，跳过 MinIO 契约测试");
+        String accessKey = System.getenv("EMS_TEST_MINIO_ACCESS_KEY");
+        String secretKey = System.getenv("EMS_TEST_MINIO_SECRET_KEY");
+        MinioClient minioClient = MinioClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build();
+        MinioMultipartClient multipartClient = new MinioMultipartClient(MinioAsyncClient.builder()
+                .endpoint(endpoint)
+                .credentials(accessKey, secretKey)
+                .build());
+        String bucketName = System.getenv().getOrDefault("EMS_TEST_MINIO_BUCKET", "ems-test");
+        return new MinioObjectStorage(minioClient, multipartClient, bucketName);
+    }
+}
@@ -0,0 +1,232 @@
+package cn.gzus.lyf.service.file;
+
+import cn.gzus.lyf.common.dto.FileMetadataDto;
+import cn.gzus.lyf.common.dto.UploadPartDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对象存储契约测试，各存储实现继承后提供存储实例
+ */
+abstract class ObjectStorageContractTest {
+
+    private static final byte[] CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz实验报告".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 分片大小（对象存储要求除最后一个分片外不小于 5MB）
+     */
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private ObjectStorage storage;
+    private final List<String> objectNames = new ArrayList<>();
+
+    /**
+     * 创建待测试的存储
+     */
+    protected abstract ObjectStorage createStorage() throws Exception;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = createStorage();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (String objectName : objectNames) {
+            storage.delete(objectName);
+        }
+    }
+
+    @Test
+    void putThenStat() throws IOException {
+        String objectName = put(CONTENT);
+        FileMetadataDto metadata = storage.stat(objectName);
+        assertEquals(objectName, metadata.getObjectName());
+        assertEquals(CONTENT.length, metadata.getSize());
+        assertNotNull(metadata.getLastModified());
+        assertNotNull(metadata.getContentType());
+    }
+
+    @Test
+    void putReturnsSameEtagAsStat() throws IOException {
+        String objectName = "contract-" + UUID.randomUUID() + ".txt";
+        objectNames.add(objectName);
+        String etag = storage.put(objectName, new ByteArrayInputStream(CONTENT), CONTENT.length, "text/plain");
+        assertNotNull(etag);
+        assertFalse(etag.contains("\""));
+        assertEquals(etag, storage.stat(objectName).getEtag());
+    }
+
+    @Test
+    void getWholeObject() throws IOException {
+        String objectName = put(CONTENT);
+        try (InputStream inputStream = storage.get(objectName, 0, -1)) {
+            assertArrayEquals(CONTENT, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void getRange() throws IOException {
+        String objectName = put(CONTENT);
+        try (InputStream inputStream = storage.get(objectName, 10, 5)) {
+            assertArrayEquals(Arrays.copyOfRange(CONTENT, 10, 15), inputStream.readAllBytes());
+        }
+        try (InputStream inputStream = storage.get(objectName, 30, -1)) {
+            assertArrayEquals(Arrays.copyOfRange(CONTENT, 30, CONTENT.length), inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void transferToWholeObjectAndRange() throws IOException {
+        String objectName = put(CONTENT);
+        ByteArrayOutputStream whole = new ByteArrayOutputStream();
+        storage.transferTo(objectName, 0, -1, whole);
+        assertArrayEquals(CONTENT, whole.toByteArray());
+
+        ByteArrayOutputStream range = new ByteArrayOutputStream();
+        storage.transferTo(objectName, 3, 7, range);
+        assertArrayEquals(Arrays.copyOfRange(CONTENT, 3, 10), range.toByteArray());
+    }
+
+    @Test
+    void putOverwritesExistingObject() throws IOException {
+        String objectName = put(CONTENT);
+        byte[] updated = "updated".getBytes(StandardCharsets.UTF_8);
+        storage.put(objectName, new ByteArrayInputStream(updated), updated.length, "text/plain");
+        assertEquals(updated.length, storage.stat(objectName).getSize());
+        try (InputStream inputStream = storage.get(objectName, 0, -1)) {
+            assertArrayEquals(updated, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void emptyObject() throws IOException {
+        String objectName = put(new byte[0]);
+        assertEquals(0, storage.stat(objectName).getSize());
+        try (InputStream inputStream = storage.get(objectName, 0, -1)) {
+            assertEquals(0, inputStream.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void missingObjectThrowsNoSuchFile() {
+        String objectName = "contract-missing-" + UUID.randomUUID() + ".txt";
+        assertThrows(NoSuchFileException.class, () -> storage.stat(objectName));
+        assertThrows(NoSuchFileException.class, () -> {
+            try (InputStream inputStream = storage.get(objectName, 0, -1)) {
+                inputStream.readAllBytes();
+            }
+        });
+    }
+
+    @Test
+    void deleteRemovesObjectAndIsIdempotent() throws IOException {
+        String objectName = put(CONTENT);
+        storage.delete(objectName);
+        assertThrows(NoSuchFileException.class, () -> storage.stat(objectName));
+        storage.delete(objectName);
+    }
+
+    @Test
+    void multipartUploadAssemblesPartsInOrder() throws IOException {
+        byte[] content = randomBytes(PART_SIZE + 1000);
+        byte[] first = Arrays.copyOfRange(content, 0, PART_SIZE);
+        byte[] second = Arrays.copyOfRange(content, PART_SIZE, content.length);
+        String objectName = "contract-" + UUID.randomUUID() + ".bin";
+        objectNames.add(objectName);
+        String uploadId = storage.createMultipartUpload(objectName, "application/octet-stream");
+
+        // 乱序上传，第二个分片重复上传
+        storage.uploadPart(objectName, uploadId, 2, new ByteArrayInputStream(second), second.length);
+        storage.uploadPart(objectName, uploadId, 1, new ByteArrayInputStream(first), first.length);
+        storage.uploadPart(objectName, uploadId, 2, new ByteArrayInputStream(second), second.length);
+
+        List<UploadPartDto> parts = storage.listParts(objectName, uploadId);
+        assertEquals(2, parts.size());
+        assertEquals(1, parts.get(0).getPartNumber());
+        assertEquals(PART_SIZE, parts.get(0).getSize());
+        assertEquals(2, parts.get(1).getPartNumber());
+        assertEquals(second.length, parts.get(1).getSize());
+
+        String etag = storage.completeMultipartUpload(objectName, uploadId, parts);
+        assertEquals(etag, storage.stat(objectName).getEtag());
+        assertEquals(content.length, storage.stat(objectName).getSize());
+        try (InputStream inputStream = storage.get(objectName, 0, -1)) {
+            assertArrayEquals(content, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    void partWithChecksumMismatchIsNotStored() throws IOException {
+        byte[] content = randomBytes(1000);
+        String objectName = "contract-" + UUID.randomUUID() + ".bin";
+        String uploadId = storage.createMultipartUpload(objectName, "application/octet-stream");
+        try {
+            byte[] wrongMd5 = md5(new byte[]{1});
+            assertThrows(IOException.class, () -> storage.uploadPart(objectName, uploadId, 1,
+                    new ChecksumInputStream(new ByteArrayInputStream(content), content.length, wrongMd5), content.length));
+            assertTrue(storage.listParts(objectName, uploadId).isEmpty());
+
+            storage.uploadPart(objectName, uploadId, 1,
+                    new ChecksumInputStream(new ByteArrayInputStream(content), content.length, md5(content)), content.length);
+            assertEquals(1, storage.listParts(objectName, uploadId).size());
+        } finally {
+            storage.abortMultipartUpload(objectName, uploadId);
+        }
+    }
+
+    @Test
+    void abortRemovesUploadAndIsIdempotent() throws IOException {
+        byte[] content = randomBytes(1000);
+        String objectName = "contract-" + UUID.randomUUID() + ".bin";
+        String uploadId = storage.createMultipartUpload(objectName, "application/octet-stream");
+        storage.uploadPart(objectName, uploadId, 1, new ByteArrayInputStream(content), content.length);
+        storage.abortMultipartUpload(objectName, uploadId);
+        assertThrows(NoSuchFileException.class, () -> storage.listParts(objectName, uploadId));
+        assertThrows(NoSuchFileException.class, () -> storage.stat(objectName));
+        storage.abortMultipartUpload(objectName, uploadId);
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] md5(byte[] content) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String put(byte[] content) throws IOException {
+        String objectName = "contract-" + UUID.randomUUID() + ".txt";
+        objectNames.add(objectName);
+        storage.put(objectName, new ByteArrayInputStream(content), content.length, "text/plain");
+        return objectName;
+    }
+}